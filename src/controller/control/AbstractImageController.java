@@ -15,10 +15,19 @@ import controller.exception.CommandValidationException;
 import controller.utilities.HelperController;
 import model.ImageModel;
 import model.exception.ModelValidationException;
+import model.imageprocessor.AbstractColorTransformOperator;
+import model.imageprocessor.AdaptivePaletteOperator;
 import model.imageprocessor.BlurFilter;
+import model.imageprocessor.ColorTransformPipeline;
+import model.imageprocessor.DitherMask;
+import model.imageprocessor.EdgeMode;
+import model.imageprocessor.GaussianBlurOperator;
 import model.imageprocessor.GreyScaleTransformation;
+import model.imageprocessor.MosaicColor;
 import model.imageprocessor.MosaicOperator;
+import model.imageprocessor.OrderedDitherOperator;
 import model.imageprocessor.PatternGeneratorImpl;
+import model.imageprocessor.PixelateColor;
 import model.imageprocessor.PixelateOperator;
 import model.imageprocessor.ReduceImage;
 import model.imageprocessor.ReduceImageEssence;
@@ -27,7 +36,9 @@ import model.imageprocessor.SharpenFilter;
 import model.images.Image;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.function.Function;
@@ -38,6 +49,12 @@ import java.util.function.Function;
  * controller has been abstracted in this.
  */
 public abstract class AbstractImageController implements ImageController {
+  private static final String EDGE_MODE_PATTERN = "zero|clamp|mirror|wrap";
+  private static final String COLOR_TRANSFORM_PATTERN = "grey|sepia";
+  private static final String DITHER_MASK_PATTERN = "bayer|blue";
+  private static final String MOSAIC_COLOR_PATTERN = "seed|mean|median";
+  private static final String PIXELATE_COLOR_PATTERN = "center|mean|median";
+
   protected final ImageModel model;
   protected final Map<String, Function<Scanner, ImageProcessorCommand<Image>>> knownCommands;
 
@@ -59,12 +76,41 @@ public abstract class AbstractImageController implements ImageController {
     knownCommands.put("load", (Scanner s) -> {
       return new LoadCommand(s.next(), s.next());
     });
-    knownCommands.put("mosaic", s -> new MosaicCommand(new MosaicOperator(s.next())));
+    knownCommands.put("mosaic", (Scanner s) -> {
+      // the color of the cells and the random seed are optional, without them
+      // the cells have the color of their seed and the seeds differ on every run.
+      String seeds = s.next();
+      MosaicColor color = MosaicColor.SEED;
+      if (s.hasNext(MOSAIC_COLOR_PATTERN)) {
+        color = MosaicColor.valueOf(s.next().toUpperCase());
+      }
+      String randomSeed = s.hasNextInt() ? s.next() : null;
+      return new MosaicCommand(new MosaicOperator(seeds, randomSeed, color));
+    });
     knownCommands.put("save", s -> new SaveCommand(s.next(), s.next()));
-    knownCommands.put("blur", s -> new FilterCommand(new BlurFilter()));
-    knownCommands.put("sharpen", s -> new FilterCommand(new SharpenFilter()));
-    knownCommands.put("sepia", s -> new ColorTransformCommand(new SepiaToneTransformation()));
-    knownCommands.put("grey", s -> new ColorTransformCommand(new GreyScaleTransformation()));
+    knownCommands.put("blur", (Scanner s) -> {
+      // the radius is optional, without it the default 3x3 blur kernel is used.
+      if (s.hasNextInt()) {
+        String radius = s.next();
+        if (s.hasNext(EDGE_MODE_PATTERN)) {
+          return new FilterCommand(new GaussianBlurOperator(radius, nextEdgeMode(s)));
+        }
+        return new FilterCommand(new GaussianBlurOperator(radius));
+      }
+      if (s.hasNext(EDGE_MODE_PATTERN)) {
+        return new FilterCommand(new BlurFilter(nextEdgeMode(s)));
+      }
+      return new FilterCommand(new BlurFilter());
+    });
+    knownCommands.put("sharpen", (Scanner s) -> {
+      if (s.hasNext(EDGE_MODE_PATTERN)) {
+        return new FilterCommand(new SharpenFilter(nextEdgeMode(s)));
+      }
+      return new FilterCommand(new SharpenFilter());
+    });
+    knownCommands.put("sepia",
+        s -> nextColorTransforms(s, new SepiaToneTransformation()));
+    knownCommands.put("grey", s -> nextColorTransforms(s, new GreyScaleTransformation()));
     knownCommands.put("reduce", (Scanner s) -> {
       return new ReductionCommand(new ReduceImage(s.next()));
     });
@@ -72,10 +118,42 @@ public abstract class AbstractImageController implements ImageController {
 
       return new ReductionCommand(new ReduceImageEssence(s.next()));
     });
+    knownCommands.put("palette", (Scanner s) -> {
+      // the palette is refined with k-means when the command ends with refine.
+      String colors = s.next();
+      if (s.hasNext("refine")) {
+        s.next();
+        return new ReductionCommand(new AdaptivePaletteOperator(colors, true));
+      }
+      return new ReductionCommand(new AdaptivePaletteOperator(colors));
+    });
+    knownCommands.put("ordered", (Scanner s) -> {
+      // the mask is optional, without it the 8x8 Bayer matrix is used.
+      String colors = s.next();
+      DitherMask mask = DitherMask.BAYER;
+      if (s.hasNext(DITHER_MASK_PATTERN)) {
+        mask = "blue".equals(s.next()) ? DitherMask.BLUE_NOISE : DitherMask.BAYER;
+      }
+      if (s.hasNextInt()) {
+        return new ReductionCommand(new OrderedDitherOperator(colors, mask, s.next()));
+      }
+      return new ReductionCommand(new OrderedDitherOperator(colors, mask));
+    });
     knownCommands.put("pixelate", (Scanner s) -> {
-      return new PixelateCommand(new PixelateOperator(s.next()));
+      // the color of the super pixels is optional, without it the center pixel
+      // is taken.
+      String pixelation = s.next();
+      if (s.hasNext(PIXELATE_COLOR_PATTERN)) {
+        return new PixelateCommand(new PixelateOperator(pixelation,
+            PixelateColor.valueOf(s.next().toUpperCase())));
+      }
+      return new PixelateCommand(new PixelateOperator(pixelation));
     });
     knownCommands.put("pattern", (Scanner s) -> {
+      // the random seed of the symbols is optional.
+      if (s.hasNextInt()) {
+        return new PatternCommand(new PatternGeneratorImpl(s.next()));
+      }
       return new PatternCommand(new PatternGeneratorImpl());
     });
     knownCommands.put("savePattern",
@@ -83,6 +161,36 @@ public abstract class AbstractImageController implements ImageController {
     knownCommands.put("quit", s -> new ExitCommand());
   }
 
+  /**
+   * This method reads the optional edge mode of the blur and sharpen commands,
+   * which is one of zero, clamp, mirror or wrap.
+   */
+  private static EdgeMode nextEdgeMode(Scanner s) {
+    return EdgeMode.valueOf(s.next(EDGE_MODE_PATTERN).toUpperCase());
+  }
+
+  /**
+   * This method reads the run of grey and sepia commands that follows a color
+   * transformation, so that the whole run is applied to the image in a single
+   * pass. The intensities are still clamped after every transformation.
+   */
+  private static ImageProcessorCommand<Image> nextColorTransforms(Scanner s,
+      AbstractColorTransformOperator first) {
+    if (!s.hasNext(COLOR_TRANSFORM_PATTERN)) {
+      return new ColorTransformCommand(first);
+    }
+    List<AbstractColorTransformOperator> operators = new ArrayList<>();
+    operators.add(first);
+    while (s.hasNext(COLOR_TRANSFORM_PATTERN)) {
+      if ("grey".equals(s.next())) {
+        operators.add(new GreyScaleTransformation());
+      } else {
+        operators.add(new SepiaToneTransformation());
+      }
+    }
+    return new ColorTransformCommand(new ColorTransformPipeline(operators));
+  }
+
   protected Image execute(Scanner scan)
       throws IOException, CommandValidationException, ModelValidationException {
     HelperController.isObjectNull(scan);
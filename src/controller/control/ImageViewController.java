@@ -22,7 +22,6 @@ import model.ImageModel;
 import model.exception.ModelValidationException;
 import model.imageprocessor.PatternGeneratorImpl;
 import model.images.Image;
-import model.images.RgbImage;
 import model.pattern.ImagePattern;
 import model.pixel.Colour;
 import model.pixel.Position;
@@ -406,10 +405,10 @@ public class ImageViewController extends AbstractImageController implements Imag
 
     this.imageView.showPatternDimension(imagePattern.getHeight(), imagePattern.getWidth());
     this.imageView.showLegend(imagePattern.getLegend());
-    Image image = new RgbImage(imagePattern.getPixelArray(), imagePattern.getPixelArray().length,
-        imagePattern.getPixelArray()[0].length);
-    this.imageView.showImagePattern(ImageUtilities.getBufferedImage(Helper.createImgIntArray(image),
-        image.getImageWidth(), image.getImageHeight()), imagePattern.getImageMap());
+    this.imageView.showImagePattern(
+        ImageUtilities.getBufferedImage(Helper.createImgIntArray(imagePattern),
+            imagePattern.getImageWidth(), imagePattern.getImageHeight()),
+        imagePattern.getImageMap());
   }
 
   private Position getPosition(Position position) {
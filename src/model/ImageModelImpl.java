@@ -45,15 +45,43 @@ public class ImageModelImpl implements ImageModel {
       throws ModelValidationException, IOException {
     Helper.isObjectNull(operator);
     Helper.isObjectNullObject(image, "Please load the image file and then perform image operation");
-    Image newImage = operator.apply(image);
-    image = new RgbImage(newImage.getPixelArray(), newImage.getImageHeight(),
-        newImage.getImageWidth());
+    image = toImmutableImage(operator.apply(image));
     this.imagePattern = null;
     this.pixelation = 0;
     return image;
 
   }
 
+  /**
+   * The images created by the operators are immutable RgbImage objects that can
+   * be shared as they are. Any other implementation, including a subclass of
+   * RgbImage, is copied once so that the model never holds an image that can be
+   * changed from outside.
+   */
+  private Image toImmutableImage(Image newImage) {
+    Helper.isObjectNull(newImage);
+    if (newImage.getClass() == RgbImage.class) {
+      return newImage;
+    }
+    return new RgbImage(newImage.getRaster(), newImage.getImageHeight(),
+        newImage.getImageWidth());
+  }
+
+  /**
+   * The patterns created by the pattern generators are immutable
+   * CrossStitchedPattern objects that can be shared as they are. Any other
+   * implementation, including a subclass of CrossStitchedPattern, is copied once
+   * in the same way as the images.
+   */
+  private ImagePattern toImmutablePattern(ImagePattern newImagePattern) throws IOException {
+    Helper.isObjectNull(newImagePattern);
+    if (newImagePattern.getClass() == CrossStitchedPattern.class) {
+      return newImagePattern;
+    }
+    return new CrossStitchedPattern(newImagePattern.getImageMap(), newImagePattern.getLegend(),
+        newImagePattern.getPixelArray());
+  }
+
   @Override
   public String toString() {
     StringBuffer sb = new StringBuffer();
@@ -67,9 +95,7 @@ public class ImageModelImpl implements ImageModel {
       throws ModelValidationException, IOException {
     Helper.isObjectNull(operator);
     Helper.isObjectNullObject(image, "Please load the image file and then perform image operation");
-    Image newImage = operator.apply(image);
-    image = new RgbImage(newImage.getPixelArray(), newImage.getImageHeight(),
-        newImage.getImageWidth());
+    image = toImmutableImage(operator.apply(image));
     this.pixelation = operator.getPixelation();
     this.imagePattern = null;
     return image;
@@ -83,8 +109,7 @@ public class ImageModelImpl implements ImageModel {
         "Please load the image file,pixelate it and then perform cross stitched operation");
     Helper.pixelationValidation(pixelation);
     ImagePattern newImagePattern = patternGenerator.generateImagePattern(image, pixelation);
-    imagePattern = new CrossStitchedPattern(newImagePattern.getImageMap(),
-        newImagePattern.getLegend(), newImagePattern.getPixelArray());
+    imagePattern = toImmutablePattern(newImagePattern);
 
     return imagePattern;
   }
@@ -170,8 +195,7 @@ public class ImageModelImpl implements ImageModel {
         "Please perform cross stitched pattern and then perform swap color operation.");
     ImagePattern newImagePattern = patternGenerator.swapDmcColorImagePattern(imagePattern,
         xPosition, yPosition, swapDmcColorName);
-    imagePattern = new CrossStitchedPattern(newImagePattern.getImageMap(),
-        newImagePattern.getLegend(), newImagePattern.getPixelArray());
+    imagePattern = toImmutablePattern(newImagePattern);
 
     return imagePattern;
 
@@ -193,8 +217,7 @@ public class ImageModelImpl implements ImageModel {
 
     ImagePattern newImagePattern = patternGenerator.replaceDmcColorImagePattern(imagePattern,
         xPosition, yPosition);
-    imagePattern = new CrossStitchedPattern(newImagePattern.getImageMap(),
-        newImagePattern.getLegend(), newImagePattern.getPixelArray());
+    imagePattern = toImmutablePattern(newImagePattern);
 
     return imagePattern;
   }
@@ -223,8 +246,7 @@ public class ImageModelImpl implements ImageModel {
 
     ImagePattern newImagePattern = patternGenerator.createCustomDmcPattern(imagePattern,
         dmcColorName, pixelation);
-    imagePattern = new CrossStitchedPattern(newImagePattern.getImageMap(),
-        newImagePattern.getLegend(), newImagePattern.getPixelArray());
+    imagePattern = toImmutablePattern(newImagePattern);
 
     return imagePattern;
   }
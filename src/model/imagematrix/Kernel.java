@@ -15,10 +15,47 @@ public interface Kernel {
    */
   float[][] getKernel();
 
+  /**
+   * Getter method to get a single value of the kernel without copying the
+   * kernel.
+   *
+   * @param row    the row of the kernel value.
+   * @param column the column of the kernel value.
+   * @return the kernel value at the given row and column.
+   */
+  float getKernelValue(int row, int column);
+
   /**
    * Getter method to get the dimension of the Kernel.
    *
    * @return An int value representing the dimension of the Kernel.
    */
   int getDimension();
+
+  /**
+   * This method tells whether the kernel is separable, i.e. whether it is the
+   * outer product of a vertical and a horizontal vector. A separable kernel can
+   * be applied as two one dimensional passes over an image.
+   *
+   * @return true if the kernel is separable.
+   */
+  boolean isSeparable();
+
+  /**
+   * Getter method to get the vertical vector of a separable kernel. The value
+   * of the kernel at a row and column is the vertical value of the row times the
+   * horizontal value of the column.
+   *
+   * @return the vertical vector of the kernel.
+   * @throws IllegalArgumentException if the kernel is not separable.
+   */
+  float[] getVerticalVector();
+
+  /**
+   * Getter method to get the horizontal vector of a separable kernel.
+   *
+   * @return the horizontal vector of the kernel.
+   * @throws IllegalArgumentException if the kernel is not separable.
+   */
+  float[] getHorizontalVector();
 }
@@ -13,11 +13,19 @@ public class KernelImpl implements Kernel {
   private final float[][] kernel;
   private final int kernelHeight;
   private final int kernelWidth;
+  private final float[] verticalVector;
+  private final float[] horizontalVector;
+
+  /**
+   * The tolerance, relative to the largest kernel value, within which a kernel
+   * is taken as the outer product of its two vectors.
+   */
+  private static final float SEPARABLE_TOLERANCE = 1e-6f;
 
   /**
    * Constructor for KernelImpl, it initializes a kernel with a fixed odd
-   * dimension and given kernel values. This will be used to perform a filter
-   * operation like blur or sharpen on an image.
+   * dimension of any size and given kernel values. This will be used to perform
+   * a filter operation like blur or sharpen on an image.
    *
    * @param dimension    The dimension of the kernel - similar height and width.
    * @param kernelValues Values for the kernel depending on the operation to be
@@ -29,7 +37,7 @@ public class KernelImpl implements Kernel {
 
     Helper.isObjectNull(kernelValues);
 
-    if ((dimension < 0) || (dimension > 5) || (Helper.isEvenNumber(dimension))) {
+    if ((dimension < 0) || (Helper.isEvenNumber(dimension))) {
       throw new IllegalArgumentException();
     }
 
@@ -49,6 +57,54 @@ public class KernelImpl implements Kernel {
       }
     }
 
+    float[][] vectors = findSeparableVectors(kernel);
+    this.verticalVector = (null == vectors) ? null : vectors[0];
+    this.horizontalVector = (null == vectors) ? null : vectors[1];
+  }
+
+  /**
+   * This method looks for a vertical and a horizontal vector whose outer
+   * product is the given kernel. The vectors are taken from the row and the
+   * column of the largest value of the kernel, and the kernel is separable if
+   * every value matches the product of the vectors.
+   *
+   * @param kernel the kernel values.
+   * @return the vertical and the horizontal vector, or null if the kernel is not
+   *         separable.
+   */
+  private static float[][] findSeparableVectors(float[][] kernel) {
+    int dimension = kernel.length;
+    int pivotRow = 0;
+    int pivotColumn = 0;
+    for (int i = 0; i < dimension; i++) {
+      for (int j = 0; j < dimension; j++) {
+        if (Math.abs(kernel[i][j]) > Math.abs(kernel[pivotRow][pivotColumn])) {
+          pivotRow = i;
+          pivotColumn = j;
+        }
+      }
+    }
+    float pivot = kernel[pivotRow][pivotColumn];
+    if (pivot == 0) {
+      return null;
+    }
+
+    float[] vertical = new float[dimension];
+    float[] horizontal = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      vertical[i] = kernel[i][pivotColumn];
+      horizontal[i] = kernel[pivotRow][i] / pivot;
+    }
+
+    float tolerance = Math.abs(pivot) * SEPARABLE_TOLERANCE;
+    for (int i = 0; i < dimension; i++) {
+      for (int j = 0; j < dimension; j++) {
+        if (Math.abs(kernel[i][j] - vertical[i] * horizontal[j]) > tolerance) {
+          return null;
+        }
+      }
+    }
+    return new float[][]{vertical, horizontal};
   }
 
   @Override
@@ -66,6 +122,35 @@ public class KernelImpl implements Kernel {
     return kernelNew;
   }
 
+  @Override
+  public float getKernelValue(int row, int column) {
+    if (row < 0 || row >= kernelHeight || column < 0 || column >= kernelWidth) {
+      throw new IllegalArgumentException();
+    }
+    return kernel[row][column];
+  }
+
+  @Override
+  public boolean isSeparable() {
+    return null != verticalVector;
+  }
+
+  @Override
+  public float[] getVerticalVector() {
+    if (!isSeparable()) {
+      throw new IllegalArgumentException();
+    }
+    return verticalVector.clone();
+  }
+
+  @Override
+  public float[] getHorizontalVector() {
+    if (!isSeparable()) {
+      throw new IllegalArgumentException();
+    }
+    return horizontalVector.clone();
+  }
+
   @Override
   public String toString() {
     StringBuffer sb = new StringBuffer();
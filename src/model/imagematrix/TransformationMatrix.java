@@ -14,6 +14,27 @@ public interface TransformationMatrix {
    */
   float[][] getTransformationMatrix();
 
+  /**
+   * Getter method to get a single value of the transformation matrix without
+   * copying the matrix.
+   *
+   * @param row    the row of the matrix value.
+   * @param column the column of the matrix value.
+   * @return the matrix value at the given row and column.
+   */
+  float getMatrixValue(int row, int column);
+
+  /**
+   * Getter method to get the rounded products of every matrix value with every
+   * intensity. The products of the value at row m and column n are stored from
+   * index (m * dimension + n) * 256 on, in the order of the intensity, and each
+   * is Math.round of the matrix value times the intensity. The tables are a
+   * copy, so changing them does not change the matrix.
+   *
+   * @return the tables of the rounded products.
+   */
+  int[] getProductTable();
+
   /**
    * Getter method to get the dimension of the transformation matrix.
    *
@@ -14,6 +14,7 @@ public class TransformationMatrixImpl implements TransformationMatrix {
   private final float[][] transformationMatrix;
   private final int matrixHeight;
   private final int matrixWidth;
+  private final int[] productTable;
 
   /**
    * Constructor for TransformationMatrixImpl, it initializes a transformation
@@ -51,6 +52,19 @@ public class TransformationMatrixImpl implements TransformationMatrix {
       }
     }
 
+    // the products are computed once here, so that a transformation needs only
+    // lookups and adds per pixel.
+    int levels = Constant.COLOR_MAX + 1;
+    this.productTable = new int[height * width * levels];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        for (int intensity = 0; intensity < levels; intensity++) {
+          productTable[(i * width + j) * levels + intensity] =
+              Math.round(transformationMatrix[i][j] * intensity);
+        }
+      }
+    }
+
   }
 
   @Override
@@ -67,6 +81,19 @@ public class TransformationMatrixImpl implements TransformationMatrix {
     return matrix;
   }
 
+  @Override
+  public float getMatrixValue(int row, int column) {
+    if (row < 0 || row >= matrixHeight || column < 0 || column >= matrixWidth) {
+      throw new IllegalArgumentException();
+    }
+    return transformationMatrix[row][column];
+  }
+
+  @Override
+  public int[] getProductTable() {
+    return productTable.clone();
+  }
+
   @Override
   public String toString() {
 
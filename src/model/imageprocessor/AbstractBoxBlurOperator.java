@@ -0,0 +1,242 @@
+package model.imageprocessor;
+
+import model.exception.ModelValidationException;
+import model.images.Image;
+import model.utilities.Helper;
+
+import java.nio.IntBuffer;
+
+/**
+ * This abstract class represents the blur operations of any radius that are
+ * built from box filters. A box filter averages the pixels of a square window
+ * around every pixel, and it is applied as a horizontal and a vertical pass
+ * with a running sum, so the cost per pixel does not depend on the radius. The
+ * first window of a row or a column is summed from the number of times the
+ * window reads every pixel, which the edge mode counts in closed form, so a
+ * radius larger than the image needs no table or window of its size. The
+ * pixels outside the image are read as given by the edge mode, which repeats
+ * the pixels on the border unless another mode is given.
+ */
+public abstract class AbstractBoxBlurOperator implements ImageOperator {
+
+  private final String radiusStr;
+  private final EdgeMode edgeMode;
+  private final ParallelRowExecutor executor;
+
+  /**
+   * Constructor for the blur operations that takes the radius of the blur as
+   * the input parameter and blurs the images on the common pool of the JVM.
+   *
+   * @param radiusStr the radius of the blur.
+   */
+  protected AbstractBoxBlurOperator(String radiusStr) {
+    this(radiusStr, EdgeMode.CLAMP);
+  }
+
+  /**
+   * Constructor for the blur operations that takes the radius of the blur and
+   * the way the pixels outside the image are read as the input parameters and
+   * blurs the images on the common pool of the JVM.
+   *
+   * @param radiusStr the radius of the blur.
+   * @param edgeMode  the way the pixels outside the image are read.
+   */
+  protected AbstractBoxBlurOperator(String radiusStr, EdgeMode edgeMode) {
+    Helper.isObjectNull(edgeMode);
+    // radiusStr will be validated in apply method .
+    this.radiusStr = radiusStr;
+    this.edgeMode = edgeMode;
+    this.executor = new ParallelRowExecutor();
+  }
+
+  /**
+   * Constructor for the blur operations that takes the radius of the blur and
+   * the way the pixels outside the image are read as the input parameters and
+   * blurs the images with the given level of parallelism.
+   *
+   * @param radiusStr   the radius of the blur.
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @param parallelism the number of threads used to blur an image.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  protected AbstractBoxBlurOperator(String radiusStr, EdgeMode edgeMode, int parallelism) {
+    Helper.isObjectNull(edgeMode);
+    this.radiusStr = radiusStr;
+    this.edgeMode = edgeMode;
+    this.executor = new ParallelRowExecutor(parallelism);
+  }
+
+  /**
+   * This method returns the radii of the box filters that are applied one
+   * after the other to blur an image with the given radius.
+   *
+   * @param radius the radius of the blur.
+   * @return the radii of the box filters.
+   */
+  protected abstract int[] getBoxRadii(int radius);
+
+  @Override
+  public Image apply(Image image) throws ModelValidationException {
+    Helper.imageChecks(image);
+
+    int radius = Helper.inputParameterDecode(this.radiusStr, "Blur radius ");
+    if (radius <= 0) {
+      throw new ModelValidationException(" Invalid blur radius provided");
+    }
+
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    IntBuffer raster = image.getRasterView();
+    int pixels = imageHeight * imageWidth;
+
+    int[][] channels = new int[3][pixels];
+    for (int i = 0; i < pixels; i++) {
+      int rgb = raster.get(i);
+      channels[0][i] = Helper.getRedIntensity(rgb);
+      channels[1][i] = Helper.getGreenIntensity(rgb);
+      channels[2][i] = Helper.getBlueIntensity(rgb);
+    }
+
+    int[] buffer = new int[pixels];
+    for (int boxRadius : getBoxRadii(radius)) {
+      if (boxRadius == 0) {
+        continue;
+      }
+      for (int[] channel : channels) {
+        boxBlurRows(channel, buffer, imageHeight, imageWidth, boxRadius);
+        boxBlurColumns(buffer, channel, imageHeight, imageWidth, boxRadius);
+      }
+    }
+
+    int[] newRaster = new int[pixels];
+    for (int i = 0; i < pixels; i++) {
+      newRaster[i] = Helper.packColor(channels[0][i], channels[1][i], channels[2][i]);
+    }
+    return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
+  }
+
+  /**
+   * This method averages every pixel of a channel with the pixels up to the
+   * given radius to its left and right. The window slides along the tables of
+   * the mapped columns that enter and leave it, adding the column that enters
+   * and removing the column that leaves it.
+   */
+  private void boxBlurRows(int[] source, int[] destination, int imageHeight, int imageWidth,
+      int boxRadius) {
+    long window = 2L * boxRadius + 1;
+    long[][] reads = firstWindowReads(imageWidth, boxRadius);
+    int[] addTable = slideTable(imageWidth, boxRadius + 1L);
+    int[] removeTable = slideTable(imageWidth, -(long) boxRadius);
+    executor.forEachBand(imageHeight, imageWidth, (startRow, endRow) -> {
+      for (int j = startRow; j < endRow; j++) {
+        int rowOffset = j * imageWidth;
+        long sum = 0;
+        for (int t = 0; t < reads[0].length; t++) {
+          sum += reads[1][t] * source[rowOffset + (int) reads[0][t]];
+        }
+        for (int k = 0; k < imageWidth; k++) {
+          destination[rowOffset + k] = (int) ((sum + window / 2) / window);
+          if (addTable[k] >= 0) {
+            sum += source[rowOffset + addTable[k]];
+          }
+          if (removeTable[k] >= 0) {
+            sum -= source[rowOffset + removeTable[k]];
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * This method averages every pixel of a channel with the pixels up to the
+   * given radius above and below it. The columns are split into bands that keep
+   * one running sum per column and walk down the image row after row.
+   */
+  private void boxBlurColumns(int[] source, int[] destination, int imageHeight,
+      int imageWidth, int boxRadius) {
+    long window = 2L * boxRadius + 1;
+    long[][] reads = firstWindowReads(imageHeight, boxRadius);
+    int[] addTable = slideTable(imageHeight, boxRadius + 1L);
+    int[] removeTable = slideTable(imageHeight, -(long) boxRadius);
+    executor.forEachBand(imageWidth, imageHeight, (startColumn, endColumn) -> {
+      long[] sums = new long[endColumn - startColumn];
+      for (int t = 0; t < reads[0].length; t++) {
+        int rowOffset = (int) reads[0][t] * imageWidth;
+        long count = reads[1][t];
+        for (int k = startColumn; k < endColumn; k++) {
+          sums[k - startColumn] += count * source[rowOffset + k];
+        }
+      }
+      for (int j = 0; j < imageHeight; j++) {
+        int addRow = addTable[j];
+        int removeRow = removeTable[j];
+        for (int k = startColumn; k < endColumn; k++) {
+          long sum = sums[k - startColumn];
+          destination[j * imageWidth + k] = (int) ((sum + window / 2) / window);
+          if (addRow >= 0) {
+            sum += source[addRow * imageWidth + k];
+          }
+          if (removeRow >= 0) {
+            sum -= source[removeRow * imageWidth + k];
+          }
+          sums[k - startColumn] = sum;
+        }
+      }
+    });
+  }
+
+  /**
+   * This method returns the indices that the window around the first pixel of a
+   * row or a column reads, with the number of times it reads each of them.
+   */
+  private long[][] firstWindowReads(int length, int boxRadius) {
+    long[] counts = edgeMode.countReads(length, -(long) boxRadius, boxRadius);
+    int reads = 0;
+    for (long count : counts) {
+      if (count > 0) {
+        reads++;
+      }
+    }
+    long[][] indexCounts = new long[2][reads];
+    reads = 0;
+    for (int i = 0; i < length; i++) {
+      if (counts[i] > 0) {
+        indexCounts[0][reads] = i;
+        indexCounts[1][reads] = counts[i];
+        reads++;
+      }
+    }
+    return indexCounts;
+  }
+
+  /**
+   * This method creates the table of the mapped index at the given offset from
+   * every pixel of a row or a column, or -1 where a black pixel is read.
+   */
+  private int[] slideTable(int length, long offset) {
+    int[] table = new int[length];
+    for (int k = 0; k < length; k++) {
+      table[k] = edgeMode.mapIndex(k + offset, length);
+    }
+    return table;
+  }
+
+  /**
+   * Getter method to get the way the pixels outside the image are read by this
+   * blur.
+   *
+   * @return the edge mode of the blur.
+   */
+  public EdgeMode getEdgeMode() {
+    return edgeMode;
+  }
+
+  /**
+   * Getter method to get the radius of the blur as given to the operator.
+   *
+   * @return the radius of the blur.
+   */
+  protected String getRadiusStr() {
+    return radiusStr;
+  }
+}
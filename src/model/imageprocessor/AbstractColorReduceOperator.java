@@ -9,6 +9,7 @@ package model.imageprocessor;
 public abstract class AbstractColorReduceOperator implements ImageOperator {
 
   protected final String maxNumOfColors;
+  protected final ParallelRowExecutor executor;
 
   /**
    * This is constructor is called from concrete class which takes maxNoOfColors
@@ -20,6 +21,23 @@ public abstract class AbstractColorReduceOperator implements ImageOperator {
     super();
     // maxNumOfColors will be validated in apply method .
     this.maxNumOfColors = maxNumOfColors;
+    this.executor = new ParallelRowExecutor();
+  }
+
+  /**
+   * This is constructor is called from concrete class which takes maxNoOfColors
+   * parameter and the number of threads to be used for color reduction
+   * operation.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param parallelism    the number of threads used to reduce an image.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  protected AbstractColorReduceOperator(String maxNumOfColors, int parallelism) {
+    super();
+    // maxNumOfColors will be validated in apply method .
+    this.maxNumOfColors = maxNumOfColors;
+    this.executor = new ParallelRowExecutor(parallelism);
   }
 
 }
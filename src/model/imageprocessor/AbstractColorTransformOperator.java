@@ -2,11 +2,13 @@ package model.imageprocessor;
 
 import model.imagematrix.TransformationMatrix;
 import model.images.Image;
-import model.images.RgbImage;
-import model.pixel.Pixel;
-import model.pixel.PixelImpl;
+import model.utilities.Constant;
 import model.utilities.Helper;
 
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This abstract class is the representation of the abstracted functionality of
  * image operations sepia tone and greyscale color transformation. It contains
@@ -15,6 +17,51 @@ import model.utilities.Helper;
  */
 public abstract class AbstractColorTransformOperator implements ImageOperator {
 
+  private final ComputeBackend backend;
+  private final ParallelRowExecutor executor;
+
+  /**
+   * Constructor for the color transformations that transforms the images on the
+   * default backend.
+   */
+  protected AbstractColorTransformOperator() {
+    this(ComputeBackend.getDefault());
+  }
+
+  /**
+   * Constructor for the color transformations that transforms the images on the
+   * given backend. The fixed point backend rounds the matrix values to Q16
+   * integers and rounds their products in int arithmetic, the other backends
+   * round the float products. The rows of the image are transformed in bands
+   * on the common pool of the JVM.
+   *
+   * @param backend the way the products of the matrix are computed.
+   */
+  protected AbstractColorTransformOperator(ComputeBackend backend) {
+    Helper.isObjectNull(backend);
+    this.backend = backend;
+    this.executor = new ParallelRowExecutor();
+  }
+
+  /**
+   * Getter method to get the way the products of the matrices of this operator
+   * are computed.
+   *
+   * @return the backend of this operator.
+   */
+  public ComputeBackend getBackend() {
+    return backend;
+  }
+
+  /**
+   * Getter method to get the transformation matrices of this operator in the
+   * order in which they are applied to an image. The intensities are clamped
+   * after every matrix.
+   *
+   * @return an unmodifiable list of the transformation matrices.
+   */
+  public abstract List<TransformationMatrix> getTransformationSteps();
+
   /**
    * Method to apply transformations on an image. The different transformations
    * can be grey scale transform, sepia tone transform etc.
@@ -26,36 +73,97 @@ public abstract class AbstractColorTransformOperator implements ImageOperator {
    * @return A new image with the transformation applied.
    */
   protected Image performTransformation(Image image, TransformationMatrix transformationMatrix) {
+    Helper.isObjectNull(transformationMatrix);
+    return performTransformation(image, Collections.singletonList(transformationMatrix));
+  }
+
+  /**
+   * Method to apply a sequence of transformations on an image in a single pass.
+   * Every pixel goes through the matrices in the given order and is clamped
+   * after every matrix, so the result is the same as applying the matrices one
+   * after the other, without the images in between.
+   *
+   * @param image                  The input image to apply transform to.
+   * @param transformationMatrices The transformation matrices to be applied to
+   *                               this image in the given order.
+   * @return A new image with the transformations applied.
+   */
+  protected Image performTransformation(Image image,
+      List<TransformationMatrix> transformationMatrices) {
 
     Helper.isObjectNull(image);
-    Helper.isObjectNull(transformationMatrix);
-    Pixel[][] newImgArr = null;
-    Pixel[][] pixelArr = image.getPixelArray();
-    if (null == pixelArr || null == pixelArr[0]) {
+    Helper.isObjectNull(transformationMatrices);
+    if (transformationMatrices.isEmpty()) {
       throw new IllegalArgumentException();
     }
-    // returns the length of the rows in the array
-    int imageHeight = pixelArr.length;
-    // returns the length of the columns in the array
-    int imageWidth = pixelArr[0].length;
-
-    if (imageHeight < transformationMatrix.getDimension()
-        || imageWidth < transformationMatrix.getDimension()) {
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
       throw new IllegalArgumentException();
     }
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
 
-    newImgArr = new PixelImpl[imageHeight][imageWidth];
+    // every product of a matrix value and an intensity is looked up in the
+    // tables of the matrices, which hold the rounded products.
+    int[][] tables = new int[transformationMatrices.size()][];
+    for (int i = 0; i < tables.length; i++) {
+      TransformationMatrix transformationMatrix = transformationMatrices.get(i);
+      Helper.isObjectNull(transformationMatrix);
+      if (imageHeight < transformationMatrix.getDimension()
+          || imageWidth < transformationMatrix.getDimension()) {
+        throw new IllegalArgumentException();
+      }
+      tables[i] = createProductTable(transformationMatrix);
+    }
 
-    for (int i = 0; i < imageHeight; i++) {
-      for (int j = 0; j < imageWidth; j++) {
+    int[] newRaster = new int[raster.remaining()];
+    int levels = Constant.COLOR_MAX + 1;
+    executor.forEachBand(imageHeight, imageWidth * tables.length, (startRow, endRow) -> {
+      for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+        int rgb = raster.get(i);
+        for (int[] table : tables) {
+          int red = Helper.getRedIntensity(rgb);
+          int green = Helper.getGreenIntensity(rgb);
+          int blue = Helper.getBlueIntensity(rgb);
 
-        Helper.isObjectNull(pixelArr[i][j]);
+          int transformedRed = table[red] + table[levels + green] + table[2 * levels + blue];
+          int transformedGreen = table[3 * levels + red] + table[4 * levels + green]
+              + table[5 * levels + blue];
+          int transformedBlue = table[6 * levels + red] + table[7 * levels + green]
+              + table[8 * levels + blue];
 
-        newImgArr[i][j] = pixelArr[i][j].colorTransformation(transformationMatrix);
+          rgb = Helper.packColor(transformedRed, transformedGreen, transformedBlue);
+        }
+        newRaster[i] = rgb;
       }
-    }
+    });
 
-    return new RgbImage(newImgArr, imageHeight, imageWidth);
+    return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
 
   }
+
+  /**
+   * This method returns the tables of the rounded products of the matrix for
+   * the backend of this operator. On the fixed point backend the products are
+   * of the matrix values in Q16 format, each rounded half up by adding one half
+   * before the shift, as Math.round does for the float products.
+   */
+  private int[] createProductTable(TransformationMatrix transformationMatrix) {
+    if (backend != ComputeBackend.FIXED_POINT) {
+      return transformationMatrix.getProductTable();
+    }
+    int dimension = transformationMatrix.getDimension();
+    int levels = Constant.COLOR_MAX + 1;
+    int[] table = new int[dimension * dimension * levels];
+    for (int m = 0; m < dimension; m++) {
+      for (int n = 0; n < dimension; n++) {
+        int fixedPoint = Helper.toFixedPoint(transformationMatrix.getMatrixValue(m, n));
+        for (int intensity = 0; intensity < levels; intensity++) {
+          table[(m * dimension + n) * levels + intensity] =
+              (fixedPoint * intensity + Constant.FIXED_POINT_HALF) >> Constant.FIXED_POINT_SHIFT;
+        }
+      }
+    }
+    return table;
+  }
 }
@@ -2,12 +2,10 @@ package model.imageprocessor;
 
 import model.imagematrix.Kernel;
 import model.images.Image;
-import model.images.RgbImage;
-import model.pixel.Pixel;
-import model.pixel.PixelImpl;
-import model.pixel.RgbColor;
 import model.utilities.Helper;
 
+import java.nio.IntBuffer;
+
 /**
  * This abstract class is the representation of the abstracted functionality of
  * image operations blur and sharpen filter operations. It contains common
@@ -15,10 +13,90 @@ import model.utilities.Helper;
  */
 public abstract class AbstractFilterImageOperator implements ImageOperator {
 
+  private final ConvolutionEngine engine;
+  private final EdgeMode edgeMode;
+
+  /**
+   * Constructor for the filter operations that convolves the images on the
+   * common pool of the JVM and treats the pixels outside the image as black.
+   */
+  protected AbstractFilterImageOperator() {
+    this(EdgeMode.ZERO);
+  }
+
+  /**
+   * Constructor for the filter operations that convolves the images with the
+   * given level of parallelism and treats the pixels outside the image as
+   * black.
+   *
+   * @param parallelism the number of threads used to convolve an image.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  protected AbstractFilterImageOperator(int parallelism) {
+    this(EdgeMode.ZERO, parallelism);
+  }
+
+  /**
+   * Constructor for the filter operations that convolves the images on the
+   * common pool of the JVM and reads the pixels outside the image as given by
+   * the edge mode.
+   *
+   * @param edgeMode the way the pixels outside the image are read.
+   */
+  protected AbstractFilterImageOperator(EdgeMode edgeMode) {
+    Helper.isObjectNull(edgeMode);
+    this.engine = new ConvolutionEngine();
+    this.edgeMode = edgeMode;
+  }
+
+  /**
+   * Constructor for the filter operations that convolves the images with the
+   * given level of parallelism and reads the pixels outside the image as given
+   * by the edge mode.
+   *
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @param parallelism the number of threads used to convolve an image.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  protected AbstractFilterImageOperator(EdgeMode edgeMode, int parallelism) {
+    this(edgeMode, parallelism, ComputeBackend.getDefault());
+  }
+
+  /**
+   * Constructor for the filter operations that convolves the images with the
+   * given level of parallelism on the given backend and reads the pixels outside
+   * the image as given by the edge mode.
+   *
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @param parallelism the number of threads used to convolve an image.
+   * @param backend     the way the sums of the kernel taps are computed.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  protected AbstractFilterImageOperator(EdgeMode edgeMode, int parallelism,
+      ComputeBackend backend) {
+    Helper.isObjectNull(edgeMode);
+    this.engine = new ConvolutionEngine(parallelism, backend);
+    this.edgeMode = edgeMode;
+  }
+
+  /**
+   * Getter method to get the way the pixels outside the image are read by this
+   * filter.
+   *
+   * @return the edge mode of the filter.
+   */
+  public EdgeMode getEdgeMode() {
+    return edgeMode;
+  }
+
   /**
    * Method to apply different filters to an image. The different filters can be
    * blur filter, sharpen filter etc. which will be determined by the kernel being
-   * passed.
+   * passed. The image is convolved in bands of rows by the convolution engine of
+   * this filter. A separable kernel of FFT_KERNEL_THRESHOLD or more rows is
+   * applied in two one dimensional passes. A smaller kernel is always applied
+   * tap by tap, as two passes would not truncate the taps as the original
+   * filter did and would change its images.
    *
    * @param image  The input image to apply filter to.
    * @param kernel The kernel to be applied to this image, it will determine the
@@ -29,72 +107,37 @@ public abstract class AbstractFilterImageOperator implements ImageOperator {
     Helper.isObjectNull(image);
     Helper.isObjectNull(kernel);
 
-    Pixel[][] pixelArr = image.getPixelArray();
-    if (null == pixelArr || null == pixelArr[0]) {
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
       throw new IllegalArgumentException();
     }
 
-    // returns the length of the rows in the array
-    int imageHeight = pixelArr.length;
-    // returns the length of the columns in the array
-    int imageWidth = pixelArr[0].length;
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
 
     if (imageHeight < kernel.getDimension() || imageWidth < kernel.getDimension()) {
       throw new IllegalArgumentException();
     }
 
-    if (null == kernel.getKernel() || null == kernel.getKernel()[0]) {
-      throw new IllegalArgumentException();
-    }
-    float[][] kernelValues = kernel.getKernel();
-    int kernelDimension = kernelValues[0].length;
-
-    // padding to the image array
-    int paddingToArr = kernelDimension / 2;
-
-    Pixel[][] paddedImgArr = Helper.padChannel(pixelArr, paddingToArr);
-    int newWidth = imageWidth + 2 * paddingToArr;
-    int newHeight = imageHeight + 2 * paddingToArr;
-    int sumRed = 0;
-    int sumGreen = 0;
-    int sumBlue = 0;
-
-    if (null == paddedImgArr) {
-      throw new IllegalArgumentException();
+    if (kernel.isSeparable()
+        && kernel.getDimension() >= ConvolutionEngine.FFT_KERNEL_THRESHOLD) {
+      int[] resultRaster = engine.convolveSeparable(raster, imageHeight, imageWidth,
+          kernel.getVerticalVector(), kernel.getHorizontalVector(), edgeMode);
+      return RasterHandoff.wrap(resultRaster, imageHeight, imageWidth);
     }
 
-    Pixel[][] imageMatrixResult = new PixelImpl[imageHeight][imageWidth];
-
-    for (int j = 0; j < newHeight - 2 * paddingToArr; j++) {
-      for (int k = 0; k < newWidth - 2 * paddingToArr; k++) {
-        for (int m = 0; m < kernelDimension; m++) {
-          for (int n = 0; n < kernelDimension; n++) {
-            int newJ = j + m;
-            int newN = k + n;
-
-            Helper.isObjectNull(paddedImgArr[newJ][newN]);
-
-            sumRed += paddedImgArr[newJ][newN].getRedColor() * kernelValues[m][n];
-
-            sumGreen += paddedImgArr[newJ][newN].getGreenColor() * kernelValues[m][n];
-
-            sumBlue += paddedImgArr[newJ][newN].getBlueColor() * kernelValues[m][n];
-
-          }
-        }
-
-        Pixel pixelNew = new PixelImpl(new RgbColor(sumRed, sumGreen, sumBlue).toClamp());
-
-        imageMatrixResult[j][k] = pixelNew;
-
-        sumRed = 0;
-        sumGreen = 0;
-        sumBlue = 0;
+    int kernelDimension = kernel.getDimension();
+    float[][] kernelValues = new float[kernelDimension][kernelDimension];
+    for (int m = 0; m < kernelDimension; m++) {
+      for (int n = 0; n < kernelDimension; n++) {
+        kernelValues[m][n] = kernel.getKernelValue(m, n);
       }
-
     }
 
-    return new RgbImage(imageMatrixResult, imageHeight, imageWidth);
+    int[] resultRaster = engine.convolve(raster, imageHeight, imageWidth, kernelValues,
+        edgeMode);
+
+    return RasterHandoff.wrap(resultRaster, imageHeight, imageWidth);
 
   }
 }
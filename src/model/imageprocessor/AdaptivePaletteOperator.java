@@ -0,0 +1,446 @@
+package model.imageprocessor;
+
+import model.exception.ModelValidationException;
+import model.images.Image;
+import model.utilities.Helper;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents the reduction of an image to a palette that is chosen
+ * for the image, instead of the equally spaced intensities of ReduceImage. The
+ * colors of the image are counted in a histogram of 32 levels per channel, the
+ * histogram is split into the given number of boxes with the median cut and the
+ * mean color of every box becomes a color of the palette. The palette can be
+ * refined with k-means over the cells of the histogram. Every pixel is then
+ * mapped through a table that holds the nearest color of the palette for every
+ * cell of the histogram, so the mapping costs a lookup per pixel.
+ */
+public class AdaptivePaletteOperator extends AbstractColorReduceOperator {
+
+  /**
+   * The number of bits per channel of the cells of the histogram.
+   */
+  private static final int CELL_BITS = 5;
+  private static final int CELL_LEVELS = 1 << CELL_BITS;
+  private static final int CELLS = CELL_LEVELS * CELL_LEVELS * CELL_LEVELS;
+  private static final int CELL_MASK = CELL_LEVELS - 1;
+
+  private static final int KMEANS_ITERATIONS = 10;
+
+  /**
+   * The number of pixels that a task of the histogram takes at a time.
+   */
+  private static final int HISTOGRAM_CHUNK_PIXELS = 1 << 14;
+
+  private final boolean refine;
+
+  /**
+   * This is the constructor of AdaptivePaletteOperator class which takes
+   * maxNoOfColors parameter, the number of colors of the palette, to be used for
+   * the reduction with the median cut palette.
+   *
+   * @param maxNumOfColors the input parameter
+   */
+  public AdaptivePaletteOperator(String maxNumOfColors) {
+    this(maxNumOfColors, false);
+  }
+
+  /**
+   * This is the constructor of AdaptivePaletteOperator class which takes
+   * maxNoOfColors parameter and whether the median cut palette is refined with
+   * k-means to be used for the reduction.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param refine         true to refine the palette with k-means.
+   */
+  public AdaptivePaletteOperator(String maxNumOfColors, boolean refine) {
+    super(maxNumOfColors);
+    this.refine = refine;
+  }
+
+  /**
+   * This is the constructor of AdaptivePaletteOperator class which takes
+   * maxNoOfColors parameter, whether the median cut palette is refined with
+   * k-means and the number of threads to be used for the reduction.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param refine         true to refine the palette with k-means.
+   * @param parallelism    the number of threads used to reduce an image.
+   */
+  public AdaptivePaletteOperator(String maxNumOfColors, boolean refine, int parallelism) {
+    super(maxNumOfColors, parallelism);
+    this.refine = refine;
+  }
+
+  @Override
+  public Image apply(Image image) throws ModelValidationException {
+    Helper.isObjectNull(image);
+
+    int maxNoColor = Helper.inputParameterDecode(this.maxNumOfColors, "Reduction ");
+    if (maxNoColor <= 0) {
+      throw new ModelValidationException("Reduction parameter cannot be negative");
+    }
+
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
+      throw new IllegalArgumentException();
+    }
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    Helper.isNotEqual(raster.remaining(), imageHeight * imageWidth);
+
+    int[] palette = createPalette(image, maxNoColor);
+    int[] cellTable = createCellTable(palette);
+
+    int[] newRaster = new int[imageHeight * imageWidth];
+    executor.forEachBand(imageHeight, imageWidth, (startRow, endRow) -> {
+      for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+        newRaster[i] = cellTable[toCell(raster.get(i))];
+      }
+    });
+    return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
+  }
+
+  /**
+   * This method creates the palette of at most the given number of colors for
+   * the image, as packed RGB colors.
+   *
+   * @param image      the image to create the palette for.
+   * @param maxNoColor the largest number of colors of the palette.
+   * @return the colors of the palette.
+   */
+  public int[] createPalette(Image image, int maxNoColor) {
+    Helper.isObjectNull(image);
+    if (Helper.isNotNegativeOrZero(maxNoColor)) {
+      throw new IllegalArgumentException();
+    }
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
+      throw new IllegalArgumentException();
+    }
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+
+    // the counts and the sums of the intensities of every cell, as the mean of
+    // the pixels is more exact than the centre of the cell.
+    long[][] histograms = createHistograms(raster, imageHeight, imageWidth);
+    long[] counts = histograms[0];
+    long[][] sums = {histograms[1], histograms[2], histograms[3]};
+
+    int usedCells = 0;
+    int[] cells = new int[CELLS];
+    for (int cell = 0; cell < CELLS; cell++) {
+      if (counts[cell] > 0) {
+        cells[usedCells++] = cell;
+      }
+    }
+    if (usedCells == 0) {
+      return new int[0];
+    }
+
+    int[] boxStarts = medianCut(cells, usedCells, counts, maxNoColor);
+    int boxes = boxStarts.length - 1;
+    int[] palette = new int[boxes];
+    for (int box = 0; box < boxes; box++) {
+      palette[box] = meanColor(cells, boxStarts[box], boxStarts[box + 1], counts, sums);
+    }
+    if (refine) {
+      palette = refineWithKmeans(Arrays.copyOf(cells, usedCells), counts, sums, palette);
+    }
+    return palette;
+  }
+
+  /**
+   * This method counts the pixels of every cell of the histogram and sums their
+   * intensities, as the counts followed by the sums of red, green and blue. Every
+   * task of the executor adds the chunks of rows that it takes to its own
+   * histogram, so there is one histogram per thread instead of one per band, and
+   * the histograms of the tasks are added up in parallel over the cells.
+   */
+  private long[][] createHistograms(IntBuffer raster, int imageHeight, int imageWidth) {
+    int tasks = Math.max(1, Math.min(executor.getParallelism(), imageHeight));
+    int chunkRows = Math.max(1, HISTOGRAM_CHUNK_PIXELS / Math.max(1, imageWidth));
+    long[][][] histograms = new long[tasks][4][CELLS];
+    AtomicInteger nextRow = new AtomicInteger();
+    executor.forEachTask(tasks, task -> {
+      long[][] histogram = histograms[task];
+      for (int startRow = nextRow.getAndAdd(chunkRows); startRow < imageHeight;
+          startRow = nextRow.getAndAdd(chunkRows)) {
+        int endRow = Math.min(startRow + chunkRows, imageHeight);
+        for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+          int rgb = raster.get(i);
+          int cell = toCell(rgb);
+          histogram[0][cell]++;
+          histogram[1][cell] += Helper.getRedIntensity(rgb);
+          histogram[2][cell] += Helper.getGreenIntensity(rgb);
+          histogram[3][cell] += Helper.getBlueIntensity(rgb);
+        }
+      }
+    });
+
+    long[][] total = histograms[0];
+    int cellsPerLevel = CELLS / CELL_LEVELS;
+    executor.forEachBand(CELL_LEVELS, 4 * cellsPerLevel * tasks, (start, end) -> {
+      for (int task = 1; task < tasks; task++) {
+        for (int channel = 0; channel < 4; channel++) {
+          for (int cell = start * cellsPerLevel; cell < end * cellsPerLevel; cell++) {
+            total[channel][cell] += histograms[task][channel][cell];
+          }
+        }
+      }
+    });
+    return total;
+  }
+
+  /**
+   * This method splits the used cells into at most the given number of boxes.
+   * The box with the largest product of its pixel count and its longest side is
+   * split at the median pixel along its longest side, until there are enough
+   * boxes or no box has more than one cell. The cells of every box are kept
+   * together in the array, and the start of every box is returned with the end
+   * of the last box. The score and the longest side of a box are found once,
+   * when the box is made, so a split only looks at the cells of the split box.
+   */
+  private static int[] medianCut(int[] cells, int usedCells, long[] counts, int maxNoColor) {
+    int[] starts = new int[Math.min(maxNoColor, usedCells) + 1];
+    long[] scores = new long[starts.length - 1];
+    int[] channels = new int[starts.length - 1];
+    starts[0] = 0;
+    starts[1] = usedCells;
+    scoreBox(cells, 0, usedCells, counts, scores, channels, 0);
+    int boxes = 1;
+    while (boxes < starts.length - 1) {
+      int bestBox = -1;
+      long bestScore = 0;
+      for (int box = 0; box < boxes; box++) {
+        if (scores[box] > bestScore) {
+          bestBox = box;
+          bestScore = scores[box];
+        }
+      }
+      if (bestBox < 0) {
+        break;
+      }
+
+      int start = starts[bestBox];
+      int end = starts[bestBox + 1];
+      sortByChannel(cells, start, end, channels[bestBox]);
+      long total = 0;
+      for (int k = start; k < end; k++) {
+        total += counts[cells[k]];
+      }
+      long half = 0;
+      int split = start + 1;
+      for (int k = start; k < end - 1; k++) {
+        half += counts[cells[k]];
+        split = k + 1;
+        if (2 * half >= total) {
+          break;
+        }
+      }
+
+      System.arraycopy(starts, bestBox + 1, starts, bestBox + 2, boxes - bestBox);
+      System.arraycopy(scores, bestBox + 1, scores, bestBox + 2, boxes - bestBox - 1);
+      System.arraycopy(channels, bestBox + 1, channels, bestBox + 2, boxes - bestBox - 1);
+      starts[bestBox + 1] = split;
+      scoreBox(cells, start, split, counts, scores, channels, bestBox);
+      scoreBox(cells, split, end, counts, scores, channels, bestBox + 1);
+      boxes++;
+    }
+    return Arrays.copyOf(starts, boxes + 1);
+  }
+
+  /**
+   * This method stores the score of a box, the product of its pixel count and
+   * its longest side, and the channel of that side. A box that spreads over a
+   * single cell along every channel scores zero, as it cannot be split.
+   */
+  private static void scoreBox(int[] cells, int start, int end, long[] counts, long[] scores,
+      int[] channels, int box) {
+    int[] side = longestSide(cells, start, end);
+    long count = 0;
+    for (int k = start; k < end; k++) {
+      count += counts[cells[k]];
+    }
+    scores[box] = (side[1] > 0) ? count * side[1] : 0;
+    channels[box] = side[0];
+  }
+
+  /**
+   * This method returns the channel along which the cells of a box spread the
+   * most, and that spread in cells.
+   */
+  private static int[] longestSide(int[] cells, int start, int end) {
+    int bestChannel = 0;
+    int bestSide = -1;
+    for (int channel = 0; channel < 3; channel++) {
+      int min = CELL_MASK;
+      int max = 0;
+      for (int k = start; k < end; k++) {
+        int level = cellLevel(cells[k], channel);
+        min = Math.min(min, level);
+        max = Math.max(max, level);
+      }
+      if (max - min > bestSide) {
+        bestSide = max - min;
+        bestChannel = channel;
+      }
+    }
+    return new int[]{bestChannel, bestSide};
+  }
+
+  private static void sortByChannel(int[] cells, int start, int end, int channel) {
+    int cellBits = 3 * CELL_BITS;
+    for (int k = start; k < end; k++) {
+      cells[k] |= cellLevel(cells[k], channel) << cellBits;
+    }
+    Arrays.sort(cells, start, end);
+    for (int k = start; k < end; k++) {
+      cells[k] &= CELLS - 1;
+    }
+  }
+
+  /**
+   * This method refines the palette with k-means over the used cells, every
+   * cell weighted by the number of its pixels. The cells are assigned to their
+   * nearest color in parallel, and every color moves to the mean of the pixels
+   * of its cells, until no cell changes its color.
+   */
+  private int[] refineWithKmeans(int[] cells, long[] counts, long[][] sums, int[] palette) {
+    int[] centroids = palette.clone();
+    int[] assignment = new int[cells.length];
+    Arrays.fill(assignment, -1);
+    for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+      AtomicBoolean changed = new AtomicBoolean();
+      int[] current = centroids;
+      executor.forEachBand(cells.length, current.length, (start, end) -> {
+        boolean bandChanged = false;
+        for (int k = start; k < end; k++) {
+          int cell = cells[k];
+          int nearest = nearestColor(current, (int) (sums[0][cell] / counts[cell]),
+              (int) (sums[1][cell] / counts[cell]), (int) (sums[2][cell] / counts[cell]));
+          if (nearest != assignment[k]) {
+            assignment[k] = nearest;
+            bandChanged = true;
+          }
+        }
+        if (bandChanged) {
+          changed.set(true);
+        }
+      });
+      if (!changed.get()) {
+        break;
+      }
+
+      long[] clusterCounts = new long[centroids.length];
+      long[][] clusterSums = new long[3][centroids.length];
+      for (int k = 0; k < cells.length; k++) {
+        int cluster = assignment[k];
+        clusterCounts[cluster] += counts[cells[k]];
+        for (int channel = 0; channel < 3; channel++) {
+          clusterSums[channel][cluster] += sums[channel][cells[k]];
+        }
+      }
+      int[] next = centroids.clone();
+      for (int cluster = 0; cluster < centroids.length; cluster++) {
+        if (clusterCounts[cluster] > 0) {
+          next[cluster] = Helper.packColor(
+              roundedMean(clusterSums[0][cluster], clusterCounts[cluster]),
+              roundedMean(clusterSums[1][cluster], clusterCounts[cluster]),
+              roundedMean(clusterSums[2][cluster], clusterCounts[cluster]));
+        }
+      }
+      centroids = next;
+    }
+    return centroids;
+  }
+
+  /**
+   * This method creates the table of the nearest color of the palette for the
+   * centre of every cell of the histogram.
+   */
+  private int[] createCellTable(int[] palette) {
+    int[] cellTable = new int[CELLS];
+    if (palette.length == 0) {
+      return cellTable;
+    }
+    int half = 1 << (7 - CELL_BITS);
+    int cellsPerLevel = CELLS / CELL_LEVELS;
+    executor.forEachBand(CELL_LEVELS, cellsPerLevel * palette.length, (start, end) -> {
+      for (int cell = start * cellsPerLevel; cell < end * cellsPerLevel; cell++) {
+        int red = (cellLevel(cell, 0) << (8 - CELL_BITS)) + half;
+        int green = (cellLevel(cell, 1) << (8 - CELL_BITS)) + half;
+        int blue = (cellLevel(cell, 2) << (8 - CELL_BITS)) + half;
+        cellTable[cell] = palette[nearestColor(palette, red, green, blue)];
+      }
+    });
+    return cellTable;
+  }
+
+  /**
+   * This method returns the index of the color of the palette with the
+   * smallest squared distance to the given intensities. A tie goes to the first
+   * color.
+   */
+  private static int nearestColor(int[] palette, int red, int green, int blue) {
+    int nearest = 0;
+    int nearestDistance = Integer.MAX_VALUE;
+    for (int k = 0; k < palette.length; k++) {
+      int deltaRed = Helper.getRedIntensity(palette[k]) - red;
+      int deltaGreen = Helper.getGreenIntensity(palette[k]) - green;
+      int deltaBlue = Helper.getBlueIntensity(palette[k]) - blue;
+      int distance = deltaRed * deltaRed + deltaGreen * deltaGreen + deltaBlue * deltaBlue;
+      if (distance < nearestDistance) {
+        nearest = k;
+        nearestDistance = distance;
+      }
+    }
+    return nearest;
+  }
+
+  private static int meanColor(int[] cells, int start, int end, long[] counts,
+      long[][] sums) {
+    long count = 0;
+    long red = 0;
+    long green = 0;
+    long blue = 0;
+    for (int k = start; k < end; k++) {
+      count += counts[cells[k]];
+      red += sums[0][cells[k]];
+      green += sums[1][cells[k]];
+      blue += sums[2][cells[k]];
+    }
+    return Helper.packColor(roundedMean(red, count), roundedMean(green, count),
+        roundedMean(blue, count));
+  }
+
+  private static int roundedMean(long sum, long count) {
+    return (int) ((sum + count / 2) / count);
+  }
+
+  private static int toCell(int rgb) {
+    int shift = 8 - CELL_BITS;
+    return ((Helper.getRedIntensity(rgb) >> shift) << (2 * CELL_BITS))
+        | ((Helper.getGreenIntensity(rgb) >> shift) << CELL_BITS)
+        | (Helper.getBlueIntensity(rgb) >> shift);
+  }
+
+  private static int cellLevel(int cell, int channel) {
+    return (cell >> ((2 - channel) * CELL_BITS)) & CELL_MASK;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("AdaptivePaletteOperator [maxNumOfColors=");
+    sb.append(maxNumOfColors);
+    sb.append(", refine=");
+    sb.append(refine);
+    sb.append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,59 @@
+package model.imageprocessor;
+
+/**
+ * This class represents an operator for the Image Processing application which
+ * blurs an image with a box filter of a given radius, i.e. every pixel becomes
+ * the average of the square window of pixels around it. The cost per pixel is
+ * the same for any radius.
+ */
+public class BoxBlurOperator extends AbstractBoxBlurOperator {
+
+  /**
+   * This is the constructor of BoxBlurOperator class which takes input radius
+   * parameter to be used for the blur operation.
+   *
+   * @param radiusStr the radius of the blur.
+   */
+  public BoxBlurOperator(String radiusStr) {
+    super(radiusStr);
+  }
+
+  /**
+   * This is the constructor of BoxBlurOperator class which takes input radius
+   * parameter and the way the pixels outside the image are read to be used for
+   * the blur operation.
+   *
+   * @param radiusStr the radius of the blur.
+   * @param edgeMode  the way the pixels outside the image are read.
+   */
+  public BoxBlurOperator(String radiusStr, EdgeMode edgeMode) {
+    super(radiusStr, edgeMode);
+  }
+
+  /**
+   * This is the constructor of BoxBlurOperator class which takes input radius
+   * parameter, the way the pixels outside the image are read and the number of
+   * threads to be used for the blur operation.
+   *
+   * @param radiusStr   the radius of the blur.
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @param parallelism the number of threads used to blur an image.
+   */
+  public BoxBlurOperator(String radiusStr, EdgeMode edgeMode, int parallelism) {
+    super(radiusStr, edgeMode, parallelism);
+  }
+
+  @Override
+  protected int[] getBoxRadii(int radius) {
+    return new int[]{radius};
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("BoxBlurOperator [radius=");
+    sb.append(getRadiusStr());
+    sb.append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,169 @@
+package model.imageprocessor;
+
+import model.imagematrix.TransformationMatrix;
+import model.imagematrix.TransformationMatrixImpl;
+import model.images.Image;
+import model.utilities.Constant;
+import model.utilities.Helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a run of color transformations, e.g. grey scale followed
+ * by sepia tone, that is applied to an image in a single pass. By default every
+ * pixel is clamped after every transformation, which gives the same image as
+ * applying the transformations one after the other. In the unclamped mode the
+ * matrices are multiplied into one matrix that is applied once, which is faster
+ * for long runs but skips the clamping and the rounding between the steps, so
+ * the result may differ from the sequential one. Unless a backend is given, the
+ * pipeline runs on the backend of the transformations it applies, which must
+ * all have the same backend.
+ */
+public class ColorTransformPipeline extends AbstractColorTransformOperator {
+
+  private final List<TransformationMatrix> transformationSteps;
+  private final boolean unclamped;
+
+  /**
+   * Constructor for the color transformation pipeline that applies the given
+   * color transformations in the given order on their backend and clamps the
+   * intensities after every transformation.
+   *
+   * @param operators the color transformations to be applied.
+   * @throws IllegalArgumentException if there is no transformation or the
+   *                                  transformations have different backends.
+   */
+  public ColorTransformPipeline(List<? extends AbstractColorTransformOperator> operators) {
+    this(operators, false);
+  }
+
+  /**
+   * Constructor for the color transformation pipeline that applies the given
+   * color transformations in the given order on their backend, either clamped
+   * after every transformation or fused into a single matrix.
+   *
+   * @param operators the color transformations to be applied.
+   * @param unclamped true to multiply the matrices into one matrix.
+   * @throws IllegalArgumentException if there is no transformation or the
+   *                                  transformations have different backends.
+   */
+  public ColorTransformPipeline(List<? extends AbstractColorTransformOperator> operators,
+      boolean unclamped) {
+    this(operators, unclamped, getSharedBackend(operators));
+  }
+
+  /**
+   * Constructor for the color transformation pipeline that applies the given
+   * color transformations in the given order on the given backend, either
+   * clamped after every transformation or fused into a single matrix.
+   *
+   * @param operators the color transformations to be applied.
+   * @param unclamped true to multiply the matrices into one matrix.
+   * @param backend   the way the products of the matrices are computed.
+   */
+  public ColorTransformPipeline(List<? extends AbstractColorTransformOperator> operators,
+      boolean unclamped, ComputeBackend backend) {
+    super(backend);
+    Helper.isObjectNull(operators);
+    if (operators.isEmpty()) {
+      throw new IllegalArgumentException();
+    }
+    List<TransformationMatrix> steps = new ArrayList<>();
+    for (AbstractColorTransformOperator operator : operators) {
+      Helper.isObjectNull(operator);
+      steps.addAll(operator.getTransformationSteps());
+    }
+    this.transformationSteps = Collections.unmodifiableList(steps);
+    this.unclamped = unclamped;
+  }
+
+  /**
+   * This method returns the backend of the given color transformations, which
+   * must all have the same backend.
+   */
+  private static ComputeBackend getSharedBackend(
+      List<? extends AbstractColorTransformOperator> operators) {
+    Helper.isObjectNull(operators);
+    if (operators.isEmpty()) {
+      throw new IllegalArgumentException();
+    }
+    Helper.isObjectNull(operators.get(0));
+    ComputeBackend backend = operators.get(0).getBackend();
+    for (AbstractColorTransformOperator operator : operators) {
+      Helper.isObjectNull(operator);
+      if (operator.getBackend() != backend) {
+        throw new IllegalArgumentException();
+      }
+    }
+    return backend;
+  }
+
+  /**
+   * Getter method to get whether the matrices are multiplied into one matrix
+   * instead of being applied with clamping in between.
+   *
+   * @return true if the pipeline is unclamped.
+   */
+  public boolean isUnclamped() {
+    return unclamped;
+  }
+
+  @Override
+  public List<TransformationMatrix> getTransformationSteps() {
+    return transformationSteps;
+  }
+
+  @Override
+  public Image apply(Image image) {
+    Helper.isObjectNull(image);
+    if (unclamped && transformationSteps.size() > 1) {
+      return this.performTransformation(image, multiplySteps());
+    }
+    return this.performTransformation(image, transformationSteps);
+  }
+
+  /**
+   * This method multiplies the matrices of the steps into one matrix, the later
+   * steps from the left. The products are kept in double and rounded to float
+   * once.
+   */
+  private TransformationMatrix multiplySteps() {
+    int dimension = Constant.TRANSFORMATION_MATRIX_SIZE;
+    double[][] product = new double[dimension][dimension];
+    for (int m = 0; m < dimension; m++) {
+      product[m][m] = 1;
+    }
+    for (TransformationMatrix step : transformationSteps) {
+      Helper.isNotEqual(step.getDimension(), dimension);
+      double[][] next = new double[dimension][dimension];
+      for (int m = 0; m < dimension; m++) {
+        for (int n = 0; n < dimension; n++) {
+          for (int k = 0; k < dimension; k++) {
+            next[m][n] += step.getMatrixValue(m, k) * product[k][n];
+          }
+        }
+      }
+      product = next;
+    }
+    float[] values = new float[dimension * dimension];
+    for (int m = 0; m < dimension; m++) {
+      for (int n = 0; n < dimension; n++) {
+        values[m * dimension + n] = (float) product[m][n];
+      }
+    }
+    return new TransformationMatrixImpl(dimension, dimension, values);
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("ColorTransformPipeline [steps=");
+    sb.append(transformationSteps.size());
+    sb.append(", unclamped=");
+    sb.append(unclamped);
+    sb.append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,40 @@
+package model.imageprocessor;
+
+/**
+ * An enumeration of the ways the convolution engine computes the sums of the
+ * kernel taps. SCALAR works on one packed pixel at a time. PLANAR first splits
+ * the image into one array per channel and then adds every tap to a whole row
+ * of a channel in a plain counted loop, which the JIT compiler turns into SIMD
+ * instructions. Both give the same result for every image. FIXED_POINT rounds
+ * the weights to integers in Q16 format, i.e. with 16 fractional bits, and adds
+ * the taps in int arithmetic, so its result is the same on every JVM and every
+ * processor. It may differ from the other two by a level where a sum lies very
+ * close to a whole number.
+ */
+public enum ComputeBackend {
+  SCALAR, PLANAR, FIXED_POINT;
+
+  /**
+   * The name of the system property that selects the backend at runtime, e.g.
+   * -Dimagemodel.backend=scalar.
+   */
+  public static final String BACKEND_PROPERTY = "imagemodel.backend";
+
+  /**
+   * This method returns the backend selected by the system property, e.g.
+   * scalar or fixed_point, or PLANAR if the property is not set or not known.
+   *
+   * @return the backend to be used by default.
+   */
+  public static ComputeBackend getDefault() {
+    String backend = System.getProperty(BACKEND_PROPERTY);
+    if (null != backend) {
+      for (ComputeBackend value : values()) {
+        if (value.name().equalsIgnoreCase(backend.trim())) {
+          return value;
+        }
+      }
+    }
+    return PLANAR;
+  }
+}
@@ -0,0 +1,452 @@
+package model.imageprocessor;
+
+import model.utilities.Constant;
+import model.utilities.Helper;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * This class represents the convolution engine used by the filter operations of
+ * the Image Processing application. It convolves a packed raster with a kernel
+ * by splitting the image into bands of rows that are processed on a
+ * ForkJoinPool. Every band reads the shared source raster and writes only its
+ * own rows of the result raster, so the bands need no synchronization and the
+ * result is the same for any level of parallelism.
+ */
+public class ConvolutionEngine {
+
+  /**
+   * The dimension of the kernel from which the convolution is done in the
+   * frequency domain, or in two one dimensional passes for a separable kernel,
+   * instead of tap by tap.
+   */
+  public static final int FFT_KERNEL_THRESHOLD = 7;
+
+  private final ParallelRowExecutor executor;
+  private final ComputeBackend backend;
+
+  /**
+   * Constructor for the convolution engine that runs the bands on a pool with
+   * the given level of parallelism and on the default backend.
+   *
+   * @param parallelism the number of threads used to convolve an image.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  public ConvolutionEngine(int parallelism) {
+    this(parallelism, ComputeBackend.getDefault());
+  }
+
+  /**
+   * Constructor for the convolution engine that runs the bands on a pool with
+   * the given level of parallelism and on the given backend.
+   *
+   * @param parallelism the number of threads used to convolve an image.
+   * @param backend     the way the sums of the kernel taps are computed.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  public ConvolutionEngine(int parallelism, ComputeBackend backend) {
+    Helper.isObjectNull(backend);
+    this.executor = new ParallelRowExecutor(parallelism);
+    this.backend = backend;
+  }
+
+  /**
+   * Default constructor for the convolution engine that runs the bands on the
+   * common pool of the JVM and on the default backend.
+   */
+  public ConvolutionEngine() {
+    this.executor = new ParallelRowExecutor();
+    this.backend = ComputeBackend.getDefault();
+  }
+
+  /**
+   * This method returns the level of parallelism used by this engine.
+   *
+   * @return the number of threads used to convolve an image.
+   */
+  public int getParallelism() {
+    return executor.getParallelism();
+  }
+
+  /**
+   * This method convolves the given packed raster with the given kernel. The
+   * pixels outside the image are treated as black, which is the same as padding
+   * the image with kernelDimension / 2 black pixels on every side.
+   *
+   * @param raster      the packed raster of the image to convolve.
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   * @param kernel      the square kernel values indexed by row and column.
+   * @return a new packed raster with the kernel applied.
+   */
+  public int[] convolve(IntBuffer raster, int imageHeight, int imageWidth, float[][] kernel) {
+    return convolve(raster, imageHeight, imageWidth, kernel, EdgeMode.ZERO);
+  }
+
+  /**
+   * This method convolves the given packed raster with the given kernel. The
+   * pixels outside the image are read as given by the edge mode. The sums are
+   * kept as ints, so every tap is truncated in the same way as the original
+   * filter did, and every channel is clamped to the valid range of intensity. A
+   * kernel of FFT_KERNEL_THRESHOLD or more rows is applied in the frequency
+   * domain instead, whose sums are truncated once per pixel. On the fixed point
+   * backend every kernel is applied tap by tap.
+   *
+   * @param raster      the packed raster of the image to convolve.
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   * @param kernel      the square kernel values indexed by row and column.
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @return a new packed raster with the kernel applied.
+   */
+  public int[] convolve(IntBuffer raster, int imageHeight, int imageWidth, float[][] kernel,
+      EdgeMode edgeMode) {
+    Helper.isObjectNull(raster);
+    Helper.isObjectNull(kernel);
+    Helper.isObjectNull(edgeMode);
+    Helper.isNotEqual(raster.remaining(), imageHeight * imageWidth);
+
+    int kernelDimension = kernel.length;
+    if (backend == ComputeBackend.FIXED_POINT) {
+      return convolveFixedPoint(raster, imageHeight, imageWidth, kernel, edgeMode);
+    }
+    if (kernelDimension >= FFT_KERNEL_THRESHOLD) {
+      return new FftConvolution(kernel).convolve(raster, imageHeight, imageWidth, edgeMode,
+          executor);
+    }
+
+    // the tables map the rows and columns around the image to the pixels that
+    // are read for them, or to -1 for a black pixel.
+    int paddingToArr = kernelDimension / 2;
+    int[] rowTable = edgeMode.createIndexTable(imageHeight, paddingToArr);
+    int[] columnTable = edgeMode.createIndexTable(imageWidth, paddingToArr);
+    if (backend == ComputeBackend.PLANAR) {
+      return convolvePlanar(raster, imageHeight, imageWidth, kernel, rowTable, columnTable);
+    }
+    int[] resultRaster = new int[imageHeight * imageWidth];
+
+    executor.forEachBand(imageHeight, imageWidth * kernelDimension * kernelDimension,
+        (startRow, endRow) -> {
+          for (int j = startRow; j < endRow; j++) {
+            for (int k = 0; k < imageWidth; k++) {
+              // the sums are int so that every tap is truncated in the same way
+              // as the original filter did.
+              int sumRed = 0;
+              int sumGreen = 0;
+              int sumBlue = 0;
+              for (int m = 0; m < kernelDimension; m++) {
+                int row = rowTable[j + m];
+                if (row < 0) {
+                  continue;
+                }
+                float[] kernelRow = kernel[m];
+                int rowOffset = row * imageWidth;
+                for (int n = 0; n < kernelDimension; n++) {
+                  int column = columnTable[k + n];
+                  if (column < 0) {
+                    continue;
+                  }
+                  int rgb = raster.get(rowOffset + column);
+                  sumRed += Helper.getRedIntensity(rgb) * kernelRow[n];
+                  sumGreen += Helper.getGreenIntensity(rgb) * kernelRow[n];
+                  sumBlue += Helper.getBlueIntensity(rgb) * kernelRow[n];
+                }
+              }
+              resultRaster[j * imageWidth + k] = Helper.packColor(sumRed, sumGreen, sumBlue);
+            }
+          }
+        });
+    return resultRaster;
+  }
+
+  /**
+   * This method convolves the image on the planar backend. The image is split
+   * into one float array per channel, and every tap of the kernel is added to a
+   * whole output row at once. The columns whose tap lies inside the image form
+   * one contiguous run that the JIT compiler vectorizes, and only the few
+   * columns at the borders go through the index table. Every pixel adds the
+   * taps in the same order to int sums as the scalar path, so the sums are the
+   * same.
+   */
+  private int[] convolvePlanar(IntBuffer raster, int imageHeight, int imageWidth,
+      float[][] kernel, int[] rowTable, int[] columnTable) {
+    int kernelDimension = kernel.length;
+    int paddingToArr = kernelDimension / 2;
+    float[][] channels = toPlanes(raster, imageHeight, imageWidth);
+    int[] resultRaster = new int[imageHeight * imageWidth];
+
+    executor.forEachBand(imageHeight, imageWidth * kernelDimension * kernelDimension,
+        (startRow, endRow) -> {
+          int[][] sums = new int[channels.length][imageWidth];
+          for (int j = startRow; j < endRow; j++) {
+            for (int[] sum : sums) {
+              Arrays.fill(sum, 0);
+            }
+            for (int m = 0; m < kernelDimension; m++) {
+              int row = rowTable[j + m];
+              if (row < 0) {
+                continue;
+              }
+              int rowOffset = row * imageWidth;
+              for (int n = 0; n < kernelDimension; n++) {
+                float weight = kernel[m][n];
+                int shift = n - paddingToArr;
+                int start = Math.max(0, -shift);
+                int end = Math.min(imageWidth, imageWidth - shift);
+                for (int c = 0; c < channels.length; c++) {
+                  float[] source = channels[c];
+                  int[] sum = sums[c];
+                  for (int k = 0; k < start; k++) {
+                    if (columnTable[k + n] >= 0) {
+                      sum[k] += source[rowOffset + columnTable[k + n]] * weight;
+                    }
+                  }
+                  int sourceOffset = rowOffset + shift;
+                  for (int k = start; k < end; k++) {
+                    sum[k] += source[sourceOffset + k] * weight;
+                  }
+                  for (int k = end; k < imageWidth; k++) {
+                    if (columnTable[k + n] >= 0) {
+                      sum[k] += source[rowOffset + columnTable[k + n]] * weight;
+                    }
+                  }
+                }
+              }
+            }
+            int resultOffset = j * imageWidth;
+            for (int k = 0; k < imageWidth; k++) {
+              resultRaster[resultOffset + k] = Helper.packColor(sums[0][k], sums[1][k],
+                  sums[2][k]);
+            }
+          }
+        });
+    return resultRaster;
+  }
+
+  /**
+   * This method convolves the image on the fixed point backend. The weights are
+   * rounded to Q16 integers and the taps are added to whole output rows of int
+   * sums as on the planar backend. After every tap the fraction of the sums is
+   * dropped towards zero, which is the truncation of every tap on the other
+   * backends, so the shift at the end of every pixel drops nothing.
+   */
+  private int[] convolveFixedPoint(IntBuffer raster, int imageHeight, int imageWidth,
+      float[][] kernel, EdgeMode edgeMode) {
+    int kernelDimension = kernel.length;
+    int paddingToArr = kernelDimension / 2;
+    int[][] weights = new int[kernelDimension][kernelDimension];
+    long bound = 0;
+    for (int m = 0; m < kernelDimension; m++) {
+      Helper.isNotEqual(kernel[m].length, kernelDimension);
+      for (int n = 0; n < kernelDimension; n++) {
+        weights[m][n] = Helper.toFixedPoint(kernel[m][n]);
+        bound += (long) Math.abs(weights[m][n]) * Constant.COLOR_MAX;
+      }
+    }
+    // every partial sum must fit into an int.
+    if (bound > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException();
+    }
+
+    int[] rowTable = edgeMode.createIndexTable(imageHeight, paddingToArr);
+    int[] columnTable = edgeMode.createIndexTable(imageWidth, paddingToArr);
+    int[][] channels = new int[3][imageHeight * imageWidth];
+    executor.forEachBand(imageHeight, imageWidth, (startRow, endRow) -> {
+      for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+        int rgb = raster.get(i);
+        channels[0][i] = Helper.getRedIntensity(rgb);
+        channels[1][i] = Helper.getGreenIntensity(rgb);
+        channels[2][i] = Helper.getBlueIntensity(rgb);
+      }
+    });
+    int[] resultRaster = new int[imageHeight * imageWidth];
+
+    executor.forEachBand(imageHeight, imageWidth * kernelDimension * kernelDimension,
+        (startRow, endRow) -> {
+          int[][] sums = new int[channels.length][imageWidth];
+          for (int j = startRow; j < endRow; j++) {
+            for (int[] sum : sums) {
+              Arrays.fill(sum, 0);
+            }
+            for (int m = 0; m < kernelDimension; m++) {
+              int row = rowTable[j + m];
+              if (row < 0) {
+                continue;
+              }
+              int rowOffset = row * imageWidth;
+              for (int n = 0; n < kernelDimension; n++) {
+                int weight = weights[m][n];
+                if (weight == 0) {
+                  continue;
+                }
+                int shift = n - paddingToArr;
+                int start = Math.max(0, -shift);
+                int end = Math.min(imageWidth, imageWidth - shift);
+                for (int c = 0; c < channels.length; c++) {
+                  int[] source = channels[c];
+                  int[] sum = sums[c];
+                  for (int k = 0; k < start; k++) {
+                    if (columnTable[k + n] >= 0) {
+                      sum[k] = truncateFixedPoint(
+                          sum[k] + source[rowOffset + columnTable[k + n]] * weight);
+                    }
+                  }
+                  int sourceOffset = rowOffset + shift;
+                  for (int k = start; k < end; k++) {
+                    sum[k] = truncateFixedPoint(sum[k] + source[sourceOffset + k] * weight);
+                  }
+                  for (int k = end; k < imageWidth; k++) {
+                    if (columnTable[k + n] >= 0) {
+                      sum[k] = truncateFixedPoint(
+                          sum[k] + source[rowOffset + columnTable[k + n]] * weight);
+                    }
+                  }
+                }
+              }
+            }
+            int resultOffset = j * imageWidth;
+            for (int k = 0; k < imageWidth; k++) {
+              resultRaster[resultOffset + k] = Helper.packColor(
+                  sums[0][k] >> Constant.FIXED_POINT_SHIFT,
+                  sums[1][k] >> Constant.FIXED_POINT_SHIFT,
+                  sums[2][k] >> Constant.FIXED_POINT_SHIFT);
+            }
+          }
+        });
+    return resultRaster;
+  }
+
+  /**
+   * This method drops the fraction of a Q16 sum towards zero, as the cast of a
+   * float sum to an int does.
+   */
+  private static int truncateFixedPoint(int sum) {
+    int fraction = (1 << Constant.FIXED_POINT_SHIFT) - 1;
+    return (sum >= 0) ? (sum & ~fraction) : -((-sum) & ~fraction);
+  }
+
+  /**
+   * This method splits a packed raster into one array of intensities per
+   * channel.
+   */
+  private float[][] toPlanes(IntBuffer raster, int imageHeight, int imageWidth) {
+    float[][] channels = new float[3][imageHeight * imageWidth];
+    executor.forEachBand(imageHeight, imageWidth, (startRow, endRow) -> {
+      for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+        int rgb = raster.get(i);
+        channels[0][i] = Helper.getRedIntensity(rgb);
+        channels[1][i] = Helper.getGreenIntensity(rgb);
+        channels[2][i] = Helper.getBlueIntensity(rgb);
+      }
+    });
+    return channels;
+  }
+
+  /**
+   * This method convolves the given packed raster with a separable kernel, i.e.
+   * the kernel whose value at row m and column n is vertical[m] times
+   * horizontal[n]. The rows are first convolved with the horizontal vector and
+   * the result is then convolved with the vertical vector, so a kernel of
+   * dimension N takes 2N taps per pixel instead of N * N. The sums are kept as
+   * floats and truncated once per pixel. The pixels outside the image are read
+   * as given by the edge mode. On the fixed point backend the kernel is applied
+   * tap by tap, as two passes would round the sums twice. As the taps are not
+   * truncated one by one, the filters use this only for kernels of
+   * FFT_KERNEL_THRESHOLD or more rows.
+   *
+   * @param raster      the packed raster of the image to convolve.
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   * @param vertical    the vertical vector of the kernel.
+   * @param horizontal  the horizontal vector of the kernel.
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @return a new packed raster with the kernel applied.
+   */
+  public int[] convolveSeparable(IntBuffer raster, int imageHeight, int imageWidth,
+      float[] vertical, float[] horizontal, EdgeMode edgeMode) {
+    Helper.isObjectNull(raster);
+    Helper.isObjectNull(vertical);
+    Helper.isObjectNull(horizontal);
+    Helper.isObjectNull(edgeMode);
+    Helper.isNotEqual(raster.remaining(), imageHeight * imageWidth);
+    Helper.isNotEqual(vertical.length, horizontal.length);
+
+    int kernelDimension = horizontal.length;
+    if (backend == ComputeBackend.FIXED_POINT) {
+      float[][] kernel = new float[kernelDimension][kernelDimension];
+      for (int m = 0; m < kernelDimension; m++) {
+        for (int n = 0; n < kernelDimension; n++) {
+          kernel[m][n] = vertical[m] * horizontal[n];
+        }
+      }
+      return convolveFixedPoint(raster, imageHeight, imageWidth, kernel, edgeMode);
+    }
+    int paddingToArr = kernelDimension / 2;
+    int[] rowTable = edgeMode.createIndexTable(imageHeight, paddingToArr);
+    int[] columnTable = edgeMode.createIndexTable(imageWidth, paddingToArr);
+    int pixels = imageHeight * imageWidth;
+    float[] red = new float[pixels];
+    float[] green = new float[pixels];
+    float[] blue = new float[pixels];
+
+    executor.forEachBand(imageHeight, imageWidth * kernelDimension, (startRow, endRow) -> {
+      for (int j = startRow; j < endRow; j++) {
+        int rowOffset = j * imageWidth;
+        for (int k = 0; k < imageWidth; k++) {
+          float sumRed = 0;
+          float sumGreen = 0;
+          float sumBlue = 0;
+          for (int n = 0; n < kernelDimension; n++) {
+            int column = columnTable[k + n];
+            if (column < 0) {
+              continue;
+            }
+            int rgb = raster.get(rowOffset + column);
+            sumRed += Helper.getRedIntensity(rgb) * horizontal[n];
+            sumGreen += Helper.getGreenIntensity(rgb) * horizontal[n];
+            sumBlue += Helper.getBlueIntensity(rgb) * horizontal[n];
+          }
+          red[rowOffset + k] = sumRed;
+          green[rowOffset + k] = sumGreen;
+          blue[rowOffset + k] = sumBlue;
+        }
+      }
+    });
+
+    int[] resultRaster = new int[pixels];
+    executor.forEachBand(imageHeight, imageWidth * kernelDimension, (startRow, endRow) -> {
+      for (int j = startRow; j < endRow; j++) {
+        for (int k = 0; k < imageWidth; k++) {
+          float sumRed = 0;
+          float sumGreen = 0;
+          float sumBlue = 0;
+          for (int m = 0; m < kernelDimension; m++) {
+            int row = rowTable[j + m];
+            if (row < 0) {
+              continue;
+            }
+            int index = row * imageWidth + k;
+            sumRed += red[index] * vertical[m];
+            sumGreen += green[index] * vertical[m];
+            sumBlue += blue[index] * vertical[m];
+          }
+          resultRaster[j * imageWidth + k] = Helper.packColor((int) sumRed, (int) sumGreen,
+              (int) sumBlue);
+        }
+      }
+    });
+    return resultRaster;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("ConvolutionEngine [parallelism=");
+    sb.append(getParallelism());
+    sb.append(", backend=");
+    sb.append(backend);
+    sb.append("]");
+    return sb.toString();
+  }
+}
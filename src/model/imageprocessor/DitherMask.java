@@ -0,0 +1,190 @@
+package model.imageprocessor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An enumeration of the threshold masks of the ordered dithering. A mask is a
+ * square of size * size ranks from 0 to size * size - 1 that is repeated over
+ * the image. BAYER is the recursive Bayer matrix, whose regular cross hatch
+ * pattern is cheap to compute. BLUE_NOISE is a mask made with the void and
+ * cluster method, whose ranks are spread without any visible pattern. The masks
+ * are computed once per size and shared.
+ */
+public enum DitherMask {
+  BAYER, BLUE_NOISE;
+
+  /**
+   * The smallest size of a mask.
+   */
+  public static final int MIN_SIZE = 2;
+
+  /**
+   * The largest size of a mask.
+   */
+  public static final int MAX_SIZE = 64;
+
+  private static final double BLUE_NOISE_SIGMA = 1.5;
+  private static final long BLUE_NOISE_SEED = 0x5EED;
+
+  private static final Map<String, int[]> MASKS = new ConcurrentHashMap<>();
+
+  /**
+   * This method checks whether a mask of the given size can be made, i.e. the
+   * size is a power of two from MIN_SIZE to MAX_SIZE.
+   *
+   * @param size the number of rows and columns of the mask.
+   * @return true if the size is valid.
+   */
+  public static boolean isValidSize(int size) {
+    return size >= MIN_SIZE && size <= MAX_SIZE && Integer.bitCount(size) == 1;
+  }
+
+  /**
+   * This method returns the ranks of the mask of the given size in row major
+   * order. The ranks are a copy, so changing them does not change the mask.
+   *
+   * @param size the number of rows and columns of the mask.
+   * @return the size * size ranks of the mask.
+   * @throws IllegalArgumentException if the size is not valid.
+   */
+  public int[] getRanks(int size) {
+    return getCachedRanks(size).clone();
+  }
+
+  /**
+   * This method returns the shared ranks of the mask without a copy, for the
+   * operators of this package that only read them.
+   */
+  int[] getCachedRanks(int size) {
+    if (!isValidSize(size)) {
+      throw new IllegalArgumentException();
+    }
+    return MASKS.computeIfAbsent(name() + size,
+        key -> (this == BAYER) ? createBayer(size) : createBlueNoise(size));
+  }
+
+  /**
+   * This method creates the Bayer matrix, whose rank at a position is the bit
+   * reversal of the interleaved bits of x xor y and y.
+   */
+  private static int[] createBayer(int size) {
+    int levels = Integer.numberOfTrailingZeros(size);
+    int[] ranks = new int[size * size];
+    for (int y = 0; y < size; y++) {
+      for (int x = 0; x < size; x++) {
+        int xor = x ^ y;
+        int rank = 0;
+        for (int bit = 0; bit < levels; bit++) {
+          rank = (rank << 1) | ((xor >> bit) & 1);
+          rank = (rank << 1) | ((y >> bit) & 1);
+        }
+        ranks[y * size + x] = rank;
+      }
+    }
+    return ranks;
+  }
+
+  /**
+   * This method creates a blue noise mask with the void and cluster method. A
+   * sparse random pattern is first relaxed by moving the point in the tightest
+   * cluster to the largest void until that no longer changes the pattern. The
+   * points of the relaxed pattern are ranked by removing the tightest cluster
+   * one by one, and the rest of the positions are ranked by filling the largest
+   * void one by one. The clusters and voids are measured with a Gaussian that
+   * wraps around the mask, so that the mask tiles without seams. The seed is
+   * fixed, so the mask is the same on every run.
+   */
+  private static int[] createBlueNoise(int size) {
+    int area = size * size;
+    double[] gaussian = new double[area];
+    for (int dy = 0; dy < size; dy++) {
+      for (int dx = 0; dx < size; dx++) {
+        int wrapX = Math.min(dx, size - dx);
+        int wrapY = Math.min(dy, size - dy);
+        gaussian[dy * size + dx] = Math.exp(-(wrapX * wrapX + wrapY * wrapY)
+            / (2 * BLUE_NOISE_SIGMA * BLUE_NOISE_SIGMA));
+      }
+    }
+
+    boolean[] pattern = new boolean[area];
+    double[] energy = new double[area];
+    Random random = new Random(BLUE_NOISE_SEED);
+    int points = Math.max(1, area / 10);
+    for (int placed = 0; placed < points; ) {
+      int index = random.nextInt(area);
+      if (!pattern[index]) {
+        pattern[index] = true;
+        addEnergy(energy, gaussian, size, index, 1);
+        placed++;
+      }
+    }
+
+    // relax the pattern until the tightest cluster is the largest void.
+    for (int iteration = 0; iteration < area; iteration++) {
+      int cluster = findExtreme(pattern, energy, true);
+      pattern[cluster] = false;
+      addEnergy(energy, gaussian, size, cluster, -1);
+      int vacancy = findExtreme(pattern, energy, false);
+      pattern[vacancy] = true;
+      addEnergy(energy, gaussian, size, vacancy, 1);
+      if (vacancy == cluster) {
+        break;
+      }
+    }
+
+    int[] ranks = new int[area];
+    boolean[] remaining = Arrays.copyOf(pattern, area);
+    double[] remainingEnergy = Arrays.copyOf(energy, area);
+    for (int rank = points - 1; rank >= 0; rank--) {
+      int cluster = findExtreme(remaining, remainingEnergy, true);
+      remaining[cluster] = false;
+      addEnergy(remainingEnergy, gaussian, size, cluster, -1);
+      ranks[cluster] = rank;
+    }
+    for (int rank = points; rank < area; rank++) {
+      int vacancy = findExtreme(pattern, energy, false);
+      pattern[vacancy] = true;
+      addEnergy(energy, gaussian, size, vacancy, 1);
+      ranks[vacancy] = rank;
+    }
+    return ranks;
+  }
+
+  private static void addEnergy(double[] energy, double[] gaussian, int size, int index,
+      int sign) {
+    int x = index % size;
+    int y = index / size;
+    for (int j = 0; j < size; j++) {
+      int dy = (j - y + size) % size;
+      for (int i = 0; i < size; i++) {
+        int dx = (i - x + size) % size;
+        energy[j * size + i] += sign * gaussian[dy * size + dx];
+      }
+    }
+  }
+
+  /**
+   * This method finds the tightest cluster, i.e. the position in the pattern
+   * with the largest energy, or the largest void, i.e. the position not in the
+   * pattern with the smallest energy. A tie goes to the first position.
+   */
+  private static int findExtreme(boolean[] pattern, double[] energy, boolean cluster) {
+    int found = -1;
+    for (int index = 0; index < pattern.length; index++) {
+      if (pattern[index] != cluster) {
+        continue;
+      }
+      if (found < 0 || (cluster ? energy[index] > energy[found]
+          : energy[index] < energy[found])) {
+        found = index;
+      }
+    }
+    if (found < 0) {
+      throw new IllegalArgumentException();
+    }
+    return found;
+  }
+}
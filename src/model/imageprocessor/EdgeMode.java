@@ -0,0 +1,109 @@
+package model.imageprocessor;
+
+import model.utilities.Helper;
+
+/**
+ * An enumeration of the ways a filter reads the pixels outside the image. ZERO
+ * treats them as black, CLAMP repeats the pixel on the border, MIRROR reflects
+ * the image at its border and WRAP continues from the opposite side of the
+ * image. The modes work on the indices of the pixels, so no padded copy of the
+ * image is made.
+ */
+public enum EdgeMode {
+  ZERO, CLAMP, MIRROR, WRAP;
+
+  /**
+   * This method maps an index of a row or a column, which may lie outside the
+   * image, to the index of the pixel that is read for it.
+   *
+   * @param index  the index of the row or column, which may be negative.
+   * @param length the number of rows or columns of the image.
+   * @return the index inside the image that is read, or -1 if a black pixel is
+   *         read.
+   */
+  public int mapIndex(long index, int length) {
+    if (Helper.isNotNegativeOrZero(length)) {
+      throw new IllegalArgumentException();
+    }
+    if (index >= 0 && index < length) {
+      return (int) index;
+    }
+    switch (this) {
+      case CLAMP:
+        return (index < 0) ? 0 : length - 1;
+      case MIRROR:
+        long period = 2L * length;
+        int position = (int) Math.floorMod(index, period);
+        return (position < length) ? position : (int) (period - 1 - position);
+      case WRAP:
+        return (int) Math.floorMod(index, (long) length);
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * This method counts how many times every index of a row or a column is read
+   * for the indices from the first up to and including the last one, which may
+   * lie far outside the image. The counts are found in closed form, the repeats
+   * of the border for CLAMP and the whole periods and the rest of a period for
+   * MIRROR and WRAP, so the cost does not depend on the number of indices.
+   *
+   * @param length the number of rows or columns of the image.
+   * @param first  the first index that is read.
+   * @param last   the last index that is read.
+   * @return the number of reads of every index of the image.
+   */
+  public long[] countReads(int length, long first, long last) {
+    if (Helper.isNotNegativeOrZero(length) || first > last) {
+      throw new IllegalArgumentException();
+    }
+    long[] counts = new long[length];
+    for (int i = 0; i < length; i++) {
+      switch (this) {
+        case MIRROR:
+          counts[i] = countCongruent(first, last, i, 2L * length)
+              + countCongruent(first, last, 2L * length - 1 - i, 2L * length);
+          break;
+        case WRAP:
+          counts[i] = countCongruent(first, last, i, length);
+          break;
+        default:
+          counts[i] = (first <= i && i <= last) ? 1 : 0;
+      }
+    }
+    if (this == CLAMP) {
+      counts[0] += Math.max(0, Math.min(last, -1) - first + 1);
+      counts[length - 1] += Math.max(0, last - Math.max(first, length) + 1);
+    }
+    return counts;
+  }
+
+  /**
+   * This method counts the indices from the first up to and including the last
+   * one that leave the given remainder when divided by the period.
+   */
+  private static long countCongruent(long first, long last, long remainder, long period) {
+    return Math.floorDiv(last - remainder, period) - Math.floorDiv(first - 1 - remainder, period);
+  }
+
+  /**
+   * This method creates the table of the mapped indices for a row or a column of
+   * the image that is extended by the given padding on both sides. The entry at
+   * position i is the mapped index of i - padding.
+   *
+   * @param length  the number of rows or columns of the image.
+   * @param padding the number of indices outside the image on each side.
+   * @return the table of the mapped indices.
+   */
+  public int[] createIndexTable(int length, int padding) {
+    if (Helper.isNegative(padding)) {
+      throw new IllegalArgumentException();
+    }
+    int[] table = new int[length + 2 * padding];
+    for (int i = 0; i < table.length; i++) {
+      table[i] = mapIndex(i - padding, length);
+    }
+    return table;
+  }
+}
@@ -0,0 +1,314 @@
+package model.imageprocessor;
+
+import model.utilities.Helper;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents the convolution of an image with a large kernel in the
+ * frequency domain. The image is cut into square tiles that are padded to a
+ * power of two, every tile is transformed with a fast Fourier transform,
+ * multiplied with the transform of the kernel and transformed back, and the
+ * results of the tiles are added where they overlap (overlap-add). The cost per
+ * pixel grows with the logarithm of the tile size instead of the square of the
+ * kernel dimension. The rows of tiles are added one after the other into sums
+ * that hold a single row of tiles with its spill into the next one, so the
+ * memory of the sums does not grow with the height of the image.
+ */
+class FftConvolution {
+
+  /**
+   * The rounding error of the transform is far below one intensity level but
+   * can leave an exact sum just below a whole number, so the sums are nudged
+   * up by this much before they are truncated.
+   */
+  private static final double TRUNCATION_EPSILON = 1e-6;
+
+  private final int kernelDimension;
+  private final int tileSize;
+  private final int blockSize;
+  private final double[] kernelReal;
+  private final double[] kernelImaginary;
+  private final double[] cosTable;
+  private final double[] sinTable;
+  private final int[] bitReversal;
+
+  /**
+   * Constructor for the convolution that transforms the given kernel once so
+   * that it can be applied to any number of tiles.
+   *
+   * @param kernel the square kernel values indexed by row and column.
+   */
+  FftConvolution(float[][] kernel) {
+    Helper.isObjectNull(kernel);
+    this.kernelDimension = kernel.length;
+
+    // the tiles hold a block of the image and the spill of the kernel around
+    // it. A block is at least three times as large as the kernel, which keeps
+    // the share of the spill in a tile small and lets a tile spill only into
+    // its direct neighbours.
+    int size = 64;
+    while (size < 4 * kernelDimension) {
+      size <<= 1;
+    }
+    this.tileSize = size;
+    this.blockSize = size - kernelDimension + 1;
+
+    this.cosTable = new double[tileSize / 2];
+    this.sinTable = new double[tileSize / 2];
+    for (int i = 0; i < tileSize / 2; i++) {
+      cosTable[i] = Math.cos(2 * Math.PI * i / tileSize);
+      sinTable[i] = Math.sin(2 * Math.PI * i / tileSize);
+    }
+    int levels = Integer.numberOfTrailingZeros(tileSize);
+    this.bitReversal = new int[tileSize];
+    for (int i = 0; i < tileSize; i++) {
+      bitReversal[i] = Integer.reverse(i) >>> (32 - levels);
+    }
+
+    // the filter correlates the image with the kernel, which is the
+    // convolution with the kernel turned by 180 degrees.
+    this.kernelReal = new double[tileSize * tileSize];
+    this.kernelImaginary = new double[tileSize * tileSize];
+    for (int m = 0; m < kernelDimension; m++) {
+      for (int n = 0; n < kernelDimension; n++) {
+        kernelReal[m * tileSize + n] = kernel[kernelDimension - 1 - m][kernelDimension - 1 - n];
+      }
+    }
+    transform2d(kernelReal, kernelImaginary, false, new double[tileSize],
+        new double[tileSize]);
+  }
+
+  /**
+   * This method convolves the given packed raster with the kernel. The pixels
+   * outside the image are read as given by the edge mode, the sums are
+   * truncated once per pixel and every channel is clamped to the valid range of
+   * intensity.
+   *
+   * @param raster      the packed raster of the image to convolve.
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @param executor    the executor that runs the tiles of a row in parallel.
+   * @return a new packed raster with the kernel applied.
+   */
+  int[] convolve(IntBuffer raster, int imageHeight, int imageWidth, EdgeMode edgeMode,
+      ParallelRowExecutor executor) {
+    Helper.isObjectNull(raster);
+    Helper.isObjectNull(edgeMode);
+    Helper.isObjectNull(executor);
+
+    // black pixels add nothing to the sums, so with any other mode the tiles
+    // cover the image extended by the padding of the kernel on every side. The
+    // extended image is read through the index tables and never copied.
+    int padding = kernelDimension / 2;
+    int extension = (edgeMode == EdgeMode.ZERO) ? 0 : padding;
+    int[] rowTable = edgeMode.createIndexTable(imageHeight, extension);
+    int[] columnTable = edgeMode.createIndexTable(imageWidth, extension);
+    int extendedHeight = rowTable.length;
+    int extendedWidth = columnTable.length;
+
+    int spill = kernelDimension - 1;
+    int sumHeight = extendedHeight + spill;
+    int sumWidth = extendedWidth + spill;
+    int tileRows = (extendedHeight + blockSize - 1) / blockSize;
+    int tileColumns = (extendedWidth + blockSize - 1) / blockSize;
+
+    // the sums of the red, green and blue channel of one row of tiles and of
+    // its spill into the next row of tiles, the first row of the sums being the
+    // top of the row of tiles.
+    double[][] sums = new double[3][tileSize * sumWidth];
+    int tasks = Math.max(1, Math.min(executor.getParallelism(), (tileColumns + 1) / 2));
+    double[][][] scratch = new double[tasks][][];
+    for (int task = 0; task < tasks; task++) {
+      scratch[task] = new double[][]{new double[tileSize * tileSize],
+          new double[tileSize * tileSize], new double[tileSize * tileSize],
+          new double[tileSize * tileSize], new double[tileSize], new double[tileSize]};
+    }
+
+    int offset = extension + padding;
+    int[] resultRaster = new int[imageHeight * imageWidth];
+    for (int r = 0; r < tileRows; r++) {
+      int top = r * blockSize;
+      int bottom = Math.min(top + blockSize, extendedHeight);
+
+      // a tile spills only into the next tile of its row, so the even tiles are
+      // added first and the odd tiles afterwards without two threads ever
+      // adding to the same sum.
+      for (int parity = 0; parity < 2; parity++) {
+        AtomicInteger nextColumn = new AtomicInteger(parity);
+        executor.forEachTask(tasks, task -> {
+          for (int c = nextColumn.getAndAdd(2); c < tileColumns; c = nextColumn.getAndAdd(2)) {
+            addTile(raster, imageWidth, rowTable, columnTable, top, bottom, c * blockSize,
+                sums, sumHeight, sumWidth, scratch[task]);
+          }
+        });
+      }
+
+      // the rows above the next row of tiles are done, and after the last row
+      // of tiles so is its spill.
+      int doneRows = (r == tileRows - 1) ? Math.min(tileSize, sumHeight - top) : blockSize;
+      int firstRow = Math.max(top - offset, 0);
+      int endRow = Math.min(top + doneRows - offset, imageHeight);
+      if (firstRow < endRow) {
+        executor.forEachBand(endRow - firstRow, imageWidth, (startBand, endBand) -> {
+          for (int y = firstRow + startBand; y < firstRow + endBand; y++) {
+            int sumOffset = (y + offset - top) * sumWidth + offset;
+            for (int x = 0; x < imageWidth; x++) {
+              resultRaster[y * imageWidth + x] = Helper.packColor(
+                  toIntensity(sums[0][sumOffset + x]), toIntensity(sums[1][sumOffset + x]),
+                  toIntensity(sums[2][sumOffset + x]));
+            }
+          }
+        });
+      }
+
+      for (double[] sum : sums) {
+        System.arraycopy(sum, blockSize * sumWidth, sum, 0, spill * sumWidth);
+        Arrays.fill(sum, spill * sumWidth, sum.length, 0);
+      }
+    }
+    return resultRaster;
+  }
+
+  /**
+   * This method transforms the tile at the given top and left of the extended
+   * image, multiplies it with the kernel, transforms it back and adds it to the
+   * sums of its row of tiles. The scratch holds the real and imaginary parts of
+   * the red and green channel and of the blue channel, and two lines.
+   */
+  private void addTile(IntBuffer raster, int imageWidth, int[] rowTable, int[] columnTable,
+      int top, int bottom, int left, double[][] sums, int sumHeight, int sumWidth,
+      double[][] scratch) {
+    double[] real = scratch[0];
+    double[] imaginary = scratch[1];
+    double[] blueReal = scratch[2];
+    double[] blueImaginary = scratch[3];
+    double[] lineReal = scratch[4];
+    double[] lineImaginary = scratch[5];
+    int right = Math.min(left + blockSize, columnTable.length);
+
+    Arrays.fill(real, 0);
+    Arrays.fill(imaginary, 0);
+    Arrays.fill(blueReal, 0);
+    Arrays.fill(blueImaginary, 0);
+    for (int y = top; y < bottom; y++) {
+      int rowOffset = rowTable[y] * imageWidth;
+      for (int x = left; x < right; x++) {
+        int rgb = raster.get(rowOffset + columnTable[x]);
+        int index = (y - top) * tileSize + (x - left);
+        // the kernel is real, so the red and the green channel share one
+        // complex transform as its real and imaginary part.
+        real[index] = Helper.getRedIntensity(rgb);
+        imaginary[index] = Helper.getGreenIntensity(rgb);
+        blueReal[index] = Helper.getBlueIntensity(rgb);
+      }
+    }
+
+    transform2d(real, imaginary, false, lineReal, lineImaginary);
+    transform2d(blueReal, blueImaginary, false, lineReal, lineImaginary);
+    multiplyByKernel(real, imaginary);
+    multiplyByKernel(blueReal, blueImaginary);
+    transform2d(real, imaginary, true, lineReal, lineImaginary);
+    transform2d(blueReal, blueImaginary, true, lineReal, lineImaginary);
+
+    int spill = kernelDimension - 1;
+    int tileBottom = Math.min(bottom + spill, sumHeight);
+    int tileRight = Math.min(right + spill, sumWidth);
+    for (int y = top; y < tileBottom; y++) {
+      for (int x = left; x < tileRight; x++) {
+        int index = (y - top) * tileSize + (x - left);
+        int sumIndex = (y - top) * sumWidth + x;
+        sums[0][sumIndex] += real[index];
+        sums[1][sumIndex] += imaginary[index];
+        sums[2][sumIndex] += blueReal[index];
+      }
+    }
+  }
+
+  private static int toIntensity(double sum) {
+    return (int) (sum + TRUNCATION_EPSILON);
+  }
+
+  private void multiplyByKernel(double[] real, double[] imaginary) {
+    for (int i = 0; i < real.length; i++) {
+      double re = real[i] * kernelReal[i] - imaginary[i] * kernelImaginary[i];
+      double im = real[i] * kernelImaginary[i] + imaginary[i] * kernelReal[i];
+      real[i] = re;
+      imaginary[i] = im;
+    }
+  }
+
+  /**
+   * This method transforms a square tile in place, first every row and then
+   * every column. The inverse transform is scaled so that it undoes the forward
+   * transform.
+   */
+  private void transform2d(double[] real, double[] imaginary, boolean inverse,
+      double[] lineReal, double[] lineImaginary) {
+    for (int row = 0; row < tileSize; row++) {
+      System.arraycopy(real, row * tileSize, lineReal, 0, tileSize);
+      System.arraycopy(imaginary, row * tileSize, lineImaginary, 0, tileSize);
+      transform(lineReal, lineImaginary, inverse);
+      System.arraycopy(lineReal, 0, real, row * tileSize, tileSize);
+      System.arraycopy(lineImaginary, 0, imaginary, row * tileSize, tileSize);
+    }
+    for (int column = 0; column < tileSize; column++) {
+      for (int row = 0; row < tileSize; row++) {
+        lineReal[row] = real[row * tileSize + column];
+        lineImaginary[row] = imaginary[row * tileSize + column];
+      }
+      transform(lineReal, lineImaginary, inverse);
+      for (int row = 0; row < tileSize; row++) {
+        real[row * tileSize + column] = lineReal[row];
+        imaginary[row * tileSize + column] = lineImaginary[row];
+      }
+    }
+    if (inverse) {
+      double scale = 1.0 / (tileSize * tileSize);
+      for (int i = 0; i < real.length; i++) {
+        real[i] *= scale;
+        imaginary[i] *= scale;
+      }
+    }
+  }
+
+  /**
+   * This method is the iterative radix-2 fast Fourier transform of a line of the
+   * tile, done in place.
+   */
+  private void transform(double[] real, double[] imaginary, boolean inverse) {
+    for (int i = 0; i < tileSize; i++) {
+      int j = bitReversal[i];
+      if (i < j) {
+        double temp = real[i];
+        real[i] = real[j];
+        real[j] = temp;
+        temp = imaginary[i];
+        imaginary[i] = imaginary[j];
+        imaginary[j] = temp;
+      }
+    }
+    double sign = inverse ? 1 : -1;
+    for (int length = 2; length <= tileSize; length <<= 1) {
+      int half = length / 2;
+      int step = tileSize / length;
+      for (int start = 0; start < tileSize; start += length) {
+        for (int k = 0; k < half; k++) {
+          double cos = cosTable[k * step];
+          double sin = sign * sinTable[k * step];
+          int even = start + k;
+          int odd = even + half;
+          double re = real[odd] * cos - imaginary[odd] * sin;
+          double im = real[odd] * sin + imaginary[odd] * cos;
+          real[odd] = real[even] - re;
+          imaginary[odd] = imaginary[even] - im;
+          real[even] += re;
+          imaginary[even] += im;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package model.imageprocessor;
+
+/**
+ * This class represents an operator for the Image Processing application which
+ * blurs an image with an approximate Gaussian filter of a given radius. The
+ * Gaussian has a standard deviation of half the radius and is approximated by
+ * three box filters applied one after the other, whose sizes are chosen so
+ * that together they have the same variance as the Gaussian. The cost per
+ * pixel is the same for any radius.
+ */
+public class GaussianBlurOperator extends AbstractBoxBlurOperator {
+
+  private static final int BOX_PASSES = 3;
+
+  /**
+   * This is the constructor of GaussianBlurOperator class which takes input
+   * radius parameter to be used for the blur operation.
+   *
+   * @param radiusStr the radius of the blur.
+   */
+  public GaussianBlurOperator(String radiusStr) {
+    super(radiusStr);
+  }
+
+  /**
+   * This is the constructor of GaussianBlurOperator class which takes input radius
+   * parameter and the way the pixels outside the image are read to be used for
+   * the blur operation.
+   *
+   * @param radiusStr the radius of the blur.
+   * @param edgeMode  the way the pixels outside the image are read.
+   */
+  public GaussianBlurOperator(String radiusStr, EdgeMode edgeMode) {
+    super(radiusStr, edgeMode);
+  }
+
+  /**
+   * This is the constructor of GaussianBlurOperator class which takes input radius
+   * parameter, the way the pixels outside the image are read and the number of
+   * threads to be used for the blur operation.
+   *
+   * @param radiusStr   the radius of the blur.
+   * @param edgeMode    the way the pixels outside the image are read.
+   * @param parallelism the number of threads used to blur an image.
+   */
+  public GaussianBlurOperator(String radiusStr, EdgeMode edgeMode, int parallelism) {
+    super(radiusStr, edgeMode, parallelism);
+  }
+
+  @Override
+  protected int[] getBoxRadii(int radius) {
+    double sigma = radius / 2.0;
+    // a box of width w has a variance of (w * w - 1) / 12, so the widths are
+    // matched against twelve times the variance of the Gaussian.
+    double scaledVariance = 12 * sigma * sigma;
+
+    // the widths of the boxes are the two odd numbers around the ideal width,
+    // and the number of smaller boxes is chosen to match the variance.
+    int lowerWidth = (int) Math.floor(Math.sqrt(scaledVariance / BOX_PASSES + 1));
+    if (lowerWidth % 2 == 0) {
+      lowerWidth--;
+    }
+    int upperWidth = lowerWidth + 2;
+    // the products are doubles, as the widths of a large radius overflow an int.
+    double width = lowerWidth;
+    long lowerBoxes = Math.round((scaledVariance - BOX_PASSES * width * width
+        - 4 * BOX_PASSES * width - 3 * BOX_PASSES) / (-4 * width - 4));
+
+    int[] boxRadii = new int[BOX_PASSES];
+    for (int i = 0; i < BOX_PASSES; i++) {
+      boxRadii[i] = ((i < lowerBoxes) ? lowerWidth : upperWidth) / 2;
+    }
+    return boxRadii;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("GaussianBlurOperator [radius=");
+    sb.append(getRadiusStr());
+    sb.append("]");
+    return sb.toString();
+  }
+}
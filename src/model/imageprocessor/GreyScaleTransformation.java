@@ -6,6 +6,9 @@ import model.images.Image;
 import model.utilities.Constant;
 import model.utilities.Helper;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This class represent the grey scale transformation for an image processing
  * i.e. used to apply the grey scale transformation to an image. The matrix
@@ -41,6 +44,21 @@ public class GreyScaleTransformation extends AbstractColorTransformOperator {
 
   }
 
+  /**
+   * Constructor for the grey scale transformation that is used to initialize an
+   * object for the image transformation operation that transforms an image on
+   * the given backend.
+   *
+   * @param transformationMatrix The set of values that determine the
+   *                             transformation to be performed.
+   * @param backend              The way the products of the matrix are computed.
+   */
+  public GreyScaleTransformation(TransformationMatrix transformationMatrix, ComputeBackend backend) {
+    super(backend);
+    Helper.isObjectNull(transformationMatrix);
+    this.transformationMatrix = transformationMatrix;
+  }
+
   @Override
   public Image apply(Image image) {
 
@@ -49,6 +67,11 @@ public class GreyScaleTransformation extends AbstractColorTransformOperator {
 
   }
 
+  @Override
+  public List<TransformationMatrix> getTransformationSteps() {
+    return Collections.singletonList(transformationMatrix);
+  }
+
   @Override
   public String toString() {
     StringBuffer sb = new StringBuffer();
@@ -1,10 +0,0 @@
-package model.imageprocessor;
-
-/**
- * An enumeration of the matrix transformation done for pixelation or for
- * pattern generation having symbols with reduced image dimension .
- */
-public enum MatrixType {
-
-  TRANSFORMATION_PIXELATE, TRANSFORMATION_PATTERN_TEXT
-}
@@ -0,0 +1,12 @@
+package model.imageprocessor;
+
+/**
+ * An enumeration of the ways a mosaic paints a cell, i.e. the pixels whose
+ * nearest seed is the same. SEED paints the cell with the color of its seed
+ * pixel. MEAN paints it with the mean color of its pixels and MEDIAN with the
+ * median of every channel of its pixels, which keeps the edges of a cell from
+ * bleeding a few outlying pixels into its color.
+ */
+public enum MosaicColor {
+  SEED, MEAN, MEDIAN
+}
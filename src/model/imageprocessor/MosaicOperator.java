@@ -2,15 +2,15 @@ package model.imageprocessor;
 
 import model.exception.ModelValidationException;
 import model.images.Image;
-import model.images.RgbImage;
-import model.pixel.Colour;
-import model.pixel.Pixel;
-import model.pixel.PixelImpl;
 import model.pixel.Position;
-import model.pixel.PositionImpl;
-import model.pixel.RgbColor;
+import model.utilities.Constant;
 import model.utilities.Helper;
 
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This class represents an operator for the Image Processing application which
  * performs a mosaic art for an image that is a kind of image chunking
@@ -20,7 +20,15 @@ import model.utilities.Helper;
  */
 public class MosaicOperator implements ImageOperator {
 
+  /**
+   * The number of pixels that a task of the mean colors takes at a time.
+   */
+  private static final int MEAN_CHUNK_PIXELS = 1 << 14;
+
   private final String seedLengthStr;
+  private final String randomSeedStr;
+  private final MosaicColor color;
+  private final ParallelRowExecutor executor;
 
   /**
    * This is the constructor of MosaicOperator class which takes input seed length
@@ -29,9 +37,88 @@ public class MosaicOperator implements ImageOperator {
    * @param seedLengthStr the input parameter
    */
   public MosaicOperator(String seedLengthStr) {
+    this(seedLengthStr, null, MosaicColor.SEED, new ParallelRowExecutor());
+  }
+
+  /**
+   * This is the constructor of MosaicOperator class which takes input seed length
+   * parameter and the number of threads to be used for mosaic operation.
+   *
+   * @param seedLengthStr the input parameter
+   * @param parallelism   the number of threads used to find the nearest seeds.
+   */
+  public MosaicOperator(String seedLengthStr, int parallelism) {
+    this(seedLengthStr, null, MosaicColor.SEED, new ParallelRowExecutor(parallelism));
+  }
+
+  /**
+   * This is the constructor of MosaicOperator class which takes input seed length
+   * parameter and the seed of the random positions to be used for mosaic
+   * operation. The same random seed always captures the same positions, so the
+   * mosaic of an image can be made again.
+   *
+   * @param seedLengthStr the input parameter
+   * @param randomSeedStr the seed of the random positions, or null for positions
+   *                      that differ on every run.
+   */
+  public MosaicOperator(String seedLengthStr, String randomSeedStr) {
+    this(seedLengthStr, randomSeedStr, MosaicColor.SEED, new ParallelRowExecutor());
+  }
+
+  /**
+   * This is the constructor of MosaicOperator class which takes input seed length
+   * parameter, the seed of the random positions and the number of threads to be
+   * used for mosaic operation.
+   *
+   * @param seedLengthStr the input parameter
+   * @param randomSeedStr the seed of the random positions, or null for positions
+   *                      that differ on every run.
+   * @param parallelism   the number of threads used to find the nearest seeds.
+   */
+  public MosaicOperator(String seedLengthStr, String randomSeedStr, int parallelism) {
+    this(seedLengthStr, randomSeedStr, MosaicColor.SEED, new ParallelRowExecutor(parallelism));
+  }
+
+  /**
+   * This is the constructor of MosaicOperator class which takes input seed length
+   * parameter, the seed of the random positions and the color of the cells to be
+   * used for mosaic operation.
+   *
+   * @param seedLengthStr the input parameter
+   * @param randomSeedStr the seed of the random positions, or null for positions
+   *                      that differ on every run.
+   * @param color         the way every cell of the mosaic is painted.
+   */
+  public MosaicOperator(String seedLengthStr, String randomSeedStr, MosaicColor color) {
+    this(seedLengthStr, randomSeedStr, color, new ParallelRowExecutor());
+  }
+
+  /**
+   * This is the constructor of MosaicOperator class which takes input seed length
+   * parameter, the seed of the random positions, the color of the cells and the
+   * number of threads to be used for mosaic operation.
+   *
+   * @param seedLengthStr the input parameter
+   * @param randomSeedStr the seed of the random positions, or null for positions
+   *                      that differ on every run.
+   * @param color         the way every cell of the mosaic is painted.
+   * @param parallelism   the number of threads used to find the nearest seeds
+   *                      and the colors of the cells.
+   */
+  public MosaicOperator(String seedLengthStr, String randomSeedStr, MosaicColor color,
+      int parallelism) {
+    this(seedLengthStr, randomSeedStr, color, new ParallelRowExecutor(parallelism));
+  }
+
+  private MosaicOperator(String seedLengthStr, String randomSeedStr, MosaicColor color,
+      ParallelRowExecutor executor) {
     super();
-    // seedLengthStr will be validated in apply method .
+    Helper.isObjectNull(color);
+    // seedLengthStr and randomSeedStr will be validated in apply method .
     this.seedLengthStr = seedLengthStr;
+    this.randomSeedStr = randomSeedStr;
+    this.color = color;
+    this.executor = executor;
   }
 
   @Override
@@ -44,48 +131,158 @@ public class MosaicOperator implements ImageOperator {
     if ((seedLength <= 0) || (image.getImageHeight() * image.getImageWidth()) <= seedLength) {
       throw new ModelValidationException(" Invalid seed provided");
     }
-    Pixel[][] imagePixelArr = image.getPixelArray();
-    Position[] seedArray = Helper.chooseRandomSeed(seedLength, imagePixelArr);
-    Pixel[][] mosaicPixelArr = closestDistPixelAppliedOnImg(imagePixelArr, seedArray);
-    return new RgbImage(mosaicPixelArr, image.getImageHeight(), image.getImageWidth());
+    SplittableRandom random = (randomSeedStr == null) ? new SplittableRandom()
+        : new SplittableRandom(Helper.inputParameterDecode(randomSeedStr, "Random seed "));
+    Position[] seedArray = Helper.chooseRandomSeed(seedLength, image.getImageHeight(),
+        image.getImageWidth(), random);
+    int[] mosaicRaster = closestDistPixelAppliedOnImg(image, seedArray);
+    return RasterHandoff.wrap(mosaicRaster, image.getImageHeight(), image.getImageWidth());
   }
 
-  private Pixel[][] closestDistPixelAppliedOnImg(Pixel[][] imgPixelArr, Position[] seedArray) {
-    Helper.isObjectNull(imgPixelArr);
+  /**
+   * This method colors every pixel with the color of its cell, i.e. of the
+   * pixels that have the same nearest seed. The nearest seeds are found with the
+   * buckets of a VoronoiGrid in parallel bands of rows, and a tie goes to the
+   * seed that was chosen first.
+   */
+  private int[] closestDistPixelAppliedOnImg(Image image, Position[] seedArray) {
+    Helper.isObjectNull(image);
     Helper.isObjectNull(seedArray);
-    Pixel[][] newImagePixelMatrix = new PixelImpl[imgPixelArr.length][imgPixelArr[0].length];
-    for (int i = 0; i < imgPixelArr.length; i++) {
-      for (int j = 0; j < imgPixelArr[0].length; j++) {
-        int closestSeed = -1;
-        int minClosestSeedSq = -1;
-        Position currentPixelPos = new PositionImpl(i, j);
-        for (int k = 0; k < seedArray.length - 1; k++) {
-          int distanceSqSeedElement1 = Helper.calEuclideanDistanceSq(currentPixelPos, seedArray[k]);
-          int distanceSqSeedElement2 = Helper.calEuclideanDistanceSq(currentPixelPos,
-              seedArray[k + 1]);
-          if (distanceSqSeedElement1 < distanceSqSeedElement2) {
-            if ((minClosestSeedSq == -1)
-                || (minClosestSeedSq != -1 && minClosestSeedSq > distanceSqSeedElement1)) {
-              closestSeed = k;
-              minClosestSeedSq = distanceSqSeedElement1;
-            }
-          } else {
-
-            if ((minClosestSeedSq == -1)
-                || (minClosestSeedSq != -1 && minClosestSeedSq > distanceSqSeedElement2)) {
-              closestSeed = k + 1;
-              minClosestSeedSq = distanceSqSeedElement2;
-            }
-          }
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
+      throw new IllegalArgumentException();
+    }
+    Helper.isNotEqual(raster.remaining(), imageHeight * imageWidth);
+
+    int[] seedRows = new int[seedArray.length];
+    int[] seedColumns = new int[seedArray.length];
+    for (int k = 0; k < seedArray.length; k++) {
+      Helper.isObjectNull(seedArray[k]);
+      seedRows[k] = seedArray[k].getPositionHeight();
+      seedColumns[k] = seedArray[k].getPositionWidth();
+    }
+
+    int[] labels = new VoronoiGrid(seedRows, seedColumns, imageHeight, imageWidth)
+        .label(executor);
+    int[] seedColors;
+    switch (color) {
+      case MEAN:
+        seedColors = meanColors(raster, labels, seedArray.length);
+        break;
+      case MEDIAN:
+        seedColors = medianColors(raster, labels, seedArray.length);
+        break;
+      default:
+        seedColors = new int[seedArray.length];
+        for (int k = 0; k < seedArray.length; k++) {
+          seedColors[k] = raster.get(seedRows[k] * imageWidth + seedColumns[k]);
+        }
+    }
+
+    int[] newRaster = new int[imageHeight * imageWidth];
+    executor.forEachBand(imageHeight, imageWidth, (startRow, endRow) -> {
+      for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+        newRaster[i] = seedColors[labels[i]];
+      }
+    });
+    return newRaster;
+  }
+
+  /**
+   * This method finds the mean color of every cell. Every task of the executor
+   * takes chunks of pixels and adds them to its own counts and sums of the
+   * intensities per seed, and the sums of the tasks are added up in parallel
+   * over the seeds once all the pixels are done, so no pixel is added under a
+   * lock and nothing is kept after the call.
+   */
+  private int[] meanColors(IntBuffer raster, int[] labels, int seeds) {
+    int pixels = labels.length;
+    int tasks = Math.max(1, Math.min(executor.getParallelism(), pixels / MEAN_CHUNK_PIXELS));
+    // the count and the sums of red, green and blue of seed k are at 4 * k.
+    long[][] taskSums = new long[tasks][4 * seeds];
+    AtomicInteger nextPixel = new AtomicInteger();
+    executor.forEachTask(tasks, task -> {
+      long[] sums = taskSums[task];
+      for (int start = nextPixel.getAndAdd(MEAN_CHUNK_PIXELS); start < pixels;
+          start = nextPixel.getAndAdd(MEAN_CHUNK_PIXELS)) {
+        int end = Math.min(start + MEAN_CHUNK_PIXELS, pixels);
+        for (int i = start; i < end; i++) {
+          int rgb = raster.get(i);
+          int offset = 4 * labels[i];
+          sums[offset]++;
+          sums[offset + 1] += Helper.getRedIntensity(rgb);
+          sums[offset + 2] += Helper.getGreenIntensity(rgb);
+          sums[offset + 3] += Helper.getBlueIntensity(rgb);
         }
-        Pixel closestDistPixel = imgPixelArr[seedArray[closestSeed]
-            .getPositionHeight()][seedArray[closestSeed].getPositionWidth()];
-        Colour newColor = new RgbColor(closestDistPixel.getRedColor(),
-            closestDistPixel.getGreenColor(), closestDistPixel.getBlueColor());
-        newImagePixelMatrix[i][j] = new PixelImpl(newColor);
       }
+    });
+
+    int[] seedColors = new int[seeds];
+    executor.forEachBand(seeds, 4 * tasks, (startSeed, endSeed) -> {
+      for (int k = startSeed; k < endSeed; k++) {
+        long count = 0;
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        for (long[] sums : taskSums) {
+          count += sums[4 * k];
+          red += sums[4 * k + 1];
+          green += sums[4 * k + 2];
+          blue += sums[4 * k + 3];
+        }
+        if (count > 0) {
+          seedColors[k] = Helper.packColor((int) ((red + count / 2) / count),
+              (int) ((green + count / 2) / count), (int) ((blue + count / 2) / count));
+        }
+      }
+    });
+    return seedColors;
+  }
+
+  /**
+   * This method finds the median of every channel of every cell. The pixels are
+   * first sorted by their cell with a counting sort, then the medians of the
+   * cells are found in parallel.
+   */
+  private int[] medianColors(IntBuffer raster, int[] labels, int seeds) {
+    int[] cellStarts = new int[seeds + 1];
+    for (int label : labels) {
+      cellStarts[label + 1]++;
     }
-    return newImagePixelMatrix;
+    for (int k = 0; k < seeds; k++) {
+      cellStarts[k + 1] += cellStarts[k];
+    }
+    int[] cellPixels = new int[labels.length];
+    int[] next = Arrays.copyOf(cellStarts, seeds);
+    for (int i = 0; i < labels.length; i++) {
+      cellPixels[next[labels[i]]++] = raster.get(i);
+    }
+
+    int[] seedColors = new int[seeds];
+    int cellWork = Math.max(1, labels.length / seeds);
+    executor.forEachBand(seeds, 3 * (cellWork + Constant.COLOR_MAX), (startSeed, endSeed) -> {
+      int[] scratch = new int[Constant.COLOR_MAX + 1];
+      for (int k = startSeed; k < endSeed; k++) {
+        int size = cellStarts[k + 1] - cellStarts[k];
+        if (size > 0) {
+          seedColors[k] = Helper.getMedianColor(cellPixels, cellStarts[k], size, scratch);
+        }
+      }
+    });
+    return seedColors;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("MosaicOperator [seedLength=");
+    sb.append(seedLengthStr);
+    sb.append(", color=");
+    sb.append(color);
+    sb.append("]");
+    return sb.toString();
   }
 
 }
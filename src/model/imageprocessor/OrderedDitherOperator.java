@@ -0,0 +1,194 @@
+package model.imageprocessor;
+
+import model.exception.ModelValidationException;
+import model.images.Image;
+import model.utilities.Constant;
+import model.utilities.Helper;
+
+import java.nio.IntBuffer;
+
+/**
+ * This class represents the ordered dithering of an image to a reduced number
+ * of colors. Every channel of a pixel is rounded to the lower or the upper of
+ * the two nearest equally spaced intensities by comparing its position between
+ * them with the threshold of a mask that is repeated over the image. Unlike
+ * the error diffusion of ReduceImageEssence, every pixel depends only on its
+ * own intensity and its position, so the rows are dithered in parallel and any
+ * tile of an image can be dithered on its own.
+ */
+public class OrderedDitherOperator extends AbstractColorReduceOperator {
+
+  private static final String DEFAULT_MASK_SIZE = "8";
+
+  private final DitherMask mask;
+  private final String maskSizeStr;
+
+  /**
+   * This is the constructor of OrderedDitherOperator class which takes
+   * maxNoOfColors parameter to be used for the ordered dithering with the 8x8
+   * Bayer matrix.
+   *
+   * @param maxNumOfColors the input parameter
+   */
+  public OrderedDitherOperator(String maxNumOfColors) {
+    this(maxNumOfColors, DitherMask.BAYER, DEFAULT_MASK_SIZE);
+  }
+
+  /**
+   * This is the constructor of OrderedDitherOperator class which takes
+   * maxNoOfColors parameter and the mask to be used for the ordered dithering,
+   * with masks of 8x8 for the Bayer matrix and 64x64 for the blue noise.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param mask           the threshold mask of the dithering.
+   */
+  public OrderedDitherOperator(String maxNumOfColors, DitherMask mask) {
+    this(maxNumOfColors, mask, (mask == DitherMask.BLUE_NOISE)
+        ? String.valueOf(DitherMask.MAX_SIZE) : DEFAULT_MASK_SIZE);
+  }
+
+  /**
+   * This is the constructor of OrderedDitherOperator class which takes
+   * maxNoOfColors parameter, the mask and the size of the mask to be used for
+   * the ordered dithering.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param mask           the threshold mask of the dithering.
+   * @param maskSizeStr    the number of rows and columns of the mask, a power of
+   *                       two from 2 to 64.
+   */
+  public OrderedDitherOperator(String maxNumOfColors, DitherMask mask, String maskSizeStr) {
+    super(maxNumOfColors);
+    Helper.isObjectNull(mask);
+    // maskSizeStr will be validated in apply method .
+    this.mask = mask;
+    this.maskSizeStr = maskSizeStr;
+  }
+
+  /**
+   * This is the constructor of OrderedDitherOperator class which takes
+   * maxNoOfColors parameter, the mask, the size of the mask and the number of
+   * threads to be used for the ordered dithering.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param mask           the threshold mask of the dithering.
+   * @param maskSizeStr    the number of rows and columns of the mask, a power of
+   *                       two from 2 to 64.
+   * @param parallelism    the number of threads used to dither an image.
+   */
+  public OrderedDitherOperator(String maxNumOfColors, DitherMask mask, String maskSizeStr,
+      int parallelism) {
+    super(maxNumOfColors, parallelism);
+    Helper.isObjectNull(mask);
+    this.mask = mask;
+    this.maskSizeStr = maskSizeStr;
+  }
+
+  @Override
+  public Image apply(Image image) throws ModelValidationException {
+    Helper.isObjectNull(image);
+
+    int maxNoColor = Helper.inputParameterDecode(this.maxNumOfColors, "Reduction ");
+    if (maxNoColor <= 0) {
+      throw new ModelValidationException("Reduction parameter cannot be negative");
+    }
+    int maskSize = Helper.inputParameterDecode(this.maskSizeStr, "Mask size ");
+    if (!DitherMask.isValidSize(maskSize)) {
+      throw new ModelValidationException("Mask size must be a power of two from "
+          + DitherMask.MIN_SIZE + " to " + DitherMask.MAX_SIZE);
+    }
+
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
+      throw new IllegalArgumentException();
+    }
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    Helper.isNotEqual(raster.remaining(), imageHeight * imageWidth);
+
+    int[] ranks = mask.getCachedRanks(maskSize);
+    int levels = maskSize * maskSize;
+    int[][] intervals = createIntervals(maxNoColor, levels);
+    int[] lower = intervals[0];
+    int[] upper = intervals[1];
+    int[] cut = intervals[2];
+    int[] newRaster = new int[imageHeight * imageWidth];
+
+    executor.forEachBand(imageHeight, imageWidth, (startRow, endRow) -> {
+      for (int i = startRow; i < endRow; i++) {
+        int maskRow = (i & (maskSize - 1)) * maskSize;
+        for (int j = 0; j < imageWidth; j++) {
+          int rank = ranks[maskRow + (j & (maskSize - 1))];
+          int rgb = raster.get(i * imageWidth + j);
+          int red = Helper.getRedIntensity(rgb);
+          int green = Helper.getGreenIntensity(rgb);
+          int blue = Helper.getBlueIntensity(rgb);
+          newRaster[i * imageWidth + j] = Helper.packColor(
+              (rank < cut[red]) ? upper[red] : lower[red],
+              (rank < cut[green]) ? upper[green] : lower[green],
+              (rank < cut[blue]) ? upper[blue] : lower[blue]);
+        }
+      }
+    });
+
+    return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
+  }
+
+  /**
+   * This method finds for every intensity the nearest equally spaced
+   * intensities below and above it, and the number of the ranks of the mask for
+   * which it is rounded up. An intensity that lies a fraction f of the way from
+   * the lower to the upper one is rounded up where the threshold
+   * (rank + 0.5) / levels is below f, so a flat area is dithered to the mean
+   * that it had.
+   */
+  private static int[][] createIntervals(int maxNoColor, int levels) {
+    // the palette is the set of the nearest intensities, in increasing order.
+    int[] table = Helper.getQuantizationTable(maxNoColor);
+    int size = Constant.COLOR_MAX + 1;
+    int[] palette = new int[size];
+    int paletteSize = 0;
+    for (int intensity : table) {
+      if (paletteSize == 0 || palette[paletteSize - 1] != intensity) {
+        palette[paletteSize++] = intensity;
+      }
+    }
+
+    int[] lower = new int[size];
+    int[] upper = new int[size];
+    int[] cut = new int[size];
+    int next = 0;
+    for (int intensity = 0; intensity < size; intensity++) {
+      while (next < paletteSize && palette[next] < intensity) {
+        next++;
+      }
+      if (next == paletteSize) {
+        lower[intensity] = palette[paletteSize - 1];
+        upper[intensity] = lower[intensity];
+      } else if (next == 0 || palette[next] == intensity) {
+        lower[intensity] = palette[next];
+        upper[intensity] = palette[next];
+      } else {
+        lower[intensity] = palette[next - 1];
+        upper[intensity] = palette[next];
+        double fraction = (double) (intensity - lower[intensity])
+            / (upper[intensity] - lower[intensity]);
+        cut[intensity] = (int) Math.max(0, Math.ceil(fraction * levels - 0.5));
+      }
+    }
+    return new int[][]{lower, upper, cut};
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("OrderedDitherOperator [maxNumOfColors=");
+    sb.append(maxNumOfColors);
+    sb.append(", mask=");
+    sb.append(mask);
+    sb.append(", maskSize=");
+    sb.append(maskSizeStr);
+    sb.append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,115 @@
+package model.imageprocessor;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a map from packed 0xRRGGBB colors to non-negative int
+ * values, stored in two primitive arrays with open addressing and linear
+ * probing. It makes no object per entry, so it can remember a value for every
+ * distinct color of an image cheaply. The map grows when it is half full. It is
+ * not thread safe, every thread keeps its own map.
+ */
+final class PackedColorMap {
+
+  private static final int EMPTY = -1;
+  private static final int MIN_CAPACITY = 16;
+
+  private int[] keys;
+  private int[] values;
+  private int size;
+
+  /**
+   * Constructor for an empty map with room for about the given number of
+   * colors before it grows.
+   *
+   * @param expectedColors the expected number of distinct colors.
+   */
+  PackedColorMap(int expectedColors) {
+    int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedColors * 2 - 1)) << 1;
+    this.keys = new int[capacity];
+    this.values = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+  }
+
+  /**
+   * This method returns the value of a color.
+   *
+   * @param rgb the color as 0xRRGGBB.
+   * @return the value of the color, or -1 if the color has no value.
+   */
+  int get(int rgb) {
+    int mask = keys.length - 1;
+    for (int slot = slotOf(rgb, mask); ; slot = (slot + 1) & mask) {
+      if (keys[slot] == rgb) {
+        return values[slot];
+      }
+      if (keys[slot] == EMPTY) {
+        return EMPTY;
+      }
+    }
+  }
+
+  /**
+   * This method sets the value of a color.
+   *
+   * @param rgb   the color as 0xRRGGBB.
+   * @param value the value of the color, zero or positive.
+   * @throws IllegalArgumentException if the color is not 24 bits or the value
+   *                                  is negative.
+   */
+  void put(int rgb, int value) {
+    if ((rgb & ~0xFFFFFF) != 0 || value < 0) {
+      throw new IllegalArgumentException();
+    }
+    if (2 * (size + 1) > keys.length) {
+      grow();
+    }
+    int mask = keys.length - 1;
+    int slot = slotOf(rgb, mask);
+    while (keys[slot] != EMPTY && keys[slot] != rgb) {
+      slot = (slot + 1) & mask;
+    }
+    if (keys[slot] == EMPTY) {
+      keys[slot] = rgb;
+      size++;
+    }
+    values[slot] = value;
+  }
+
+  /**
+   * Getter method to get the number of colors in the map.
+   *
+   * @return the number of colors.
+   */
+  int size() {
+    return size;
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new int[oldKeys.length * 2];
+    values = new int[oldKeys.length * 2];
+    Arrays.fill(keys, EMPTY);
+    int mask = keys.length - 1;
+    for (int old = 0; old < oldKeys.length; old++) {
+      if (oldKeys[old] != EMPTY) {
+        int slot = slotOf(oldKeys[old], mask);
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[old];
+        values[slot] = oldValues[old];
+      }
+    }
+  }
+
+  /**
+   * This method spreads the bits of a color over the slots, since the colors of
+   * an image differ mostly in their low bits per channel.
+   */
+  private static int slotOf(int rgb, int mask) {
+    int hash = rgb * 0x9E3779B1;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+}
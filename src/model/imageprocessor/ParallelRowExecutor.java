@@ -0,0 +1,227 @@
+package model.imageprocessor;
+
+import model.utilities.Helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class represents an executor that runs an operation over the rows of an
+ * image in parallel. The rows are split into bands that are processed on a
+ * ForkJoinPool, with each band given to a single thread. The operation must
+ * write only to its own rows so that the bands need no synchronization. An
+ * executor with its own parallelism makes its pool on the first parallel call
+ * and reuses it for every later call, so an operation that runs several passes
+ * does not start new threads for each of them. The idle threads of the pool end
+ * on their own.
+ */
+public class ParallelRowExecutor {
+
+  /**
+   * The amount of work below which a band of rows is processed directly instead
+   * of being split further.
+   */
+  private static final int BAND_WORK_THRESHOLD = 1 << 14;
+
+  private final int parallelism;
+  private volatile ForkJoinPool pool;
+
+  /**
+   * This interface represents an operation that is performed on a band of rows
+   * of an image.
+   */
+  public interface RowAction {
+
+    /**
+     * This method performs the operation on the rows from the start row up to,
+     * but not including, the end row.
+     *
+     * @param startRow the first row of the band.
+     * @param endRow   the row after the last row of the band.
+     */
+    void apply(int startRow, int endRow);
+  }
+
+  /**
+   * This interface represents one of several tasks that share an operation and
+   * may run at the same time.
+   */
+  public interface TaskAction {
+
+    /**
+     * This method performs the share of the operation of the given task.
+     *
+     * @param task the number of the task, from zero.
+     */
+    void apply(int task);
+  }
+
+  /**
+   * Constructor for the executor that runs the bands on a pool with the given
+   * level of parallelism. A parallelism of one runs every band on the calling
+   * thread.
+   *
+   * @param parallelism the number of threads used to process an image.
+   * @throws IllegalArgumentException if the parallelism is zero or negative.
+   */
+  public ParallelRowExecutor(int parallelism) {
+    if (Helper.isNotNegativeOrZero(parallelism)) {
+      throw new IllegalArgumentException();
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Default constructor for the executor that runs the bands on the common pool
+   * of the JVM.
+   */
+  public ParallelRowExecutor() {
+    this.parallelism = 0;
+  }
+
+  /**
+   * This method returns the level of parallelism used by this executor.
+   *
+   * @return the number of threads used to process an image.
+   */
+  public int getParallelism() {
+    return (parallelism == 0) ? ForkJoinPool.getCommonPoolParallelism() : parallelism;
+  }
+
+  /**
+   * This method runs the given action over all the rows of an image and returns
+   * when every band is done.
+   *
+   * @param rows    the number of rows of the image.
+   * @param rowWork the amount of work needed for a single row, e.g. the number
+   *                of pixels times the number of kernel taps.
+   * @param action  the operation to be performed on every band of rows.
+   */
+  public void forEachBand(int rows, int rowWork, RowAction action) {
+    Helper.isObjectNull(action);
+    if (Helper.isNegative(rows)) {
+      throw new IllegalArgumentException();
+    }
+    int bandRows = Math.max(1, BAND_WORK_THRESHOLD / Math.max(1, rowWork));
+    RowBand task = new RowBand(action, 0, rows, bandRows);
+
+    if (parallelism == 1 || rows <= bandRows) {
+      action.apply(0, rows);
+    } else if (parallelism == 0) {
+      ForkJoinPool.commonPool().invoke(task);
+    } else {
+      getPool().invoke(task);
+    }
+  }
+
+  /**
+   * This method runs the given number of tasks on the pool of this executor and
+   * returns when every task is done. The calling thread runs the first task
+   * itself and the others run as the pool has threads for them, which may be
+   * one after the other. A task must therefore never wait for a task that has
+   * not started, e.g. the tasks take their work from a shared counter. When a
+   * task fails, the first failure is thrown once every task has ended.
+   *
+   * @param tasks  the number of tasks.
+   * @param action the operation to be performed by every task.
+   * @throws IllegalArgumentException if the number of tasks is zero or negative.
+   */
+  public void forEachTask(int tasks, TaskAction action) {
+    Helper.isObjectNull(action);
+    if (Helper.isNotNegativeOrZero(tasks)) {
+      throw new IllegalArgumentException();
+    }
+    if (parallelism == 1 || tasks == 1) {
+      for (int task = 0; task < tasks; task++) {
+        action.apply(task);
+      }
+      return;
+    }
+
+    ForkJoinPool taskPool = (parallelism == 0) ? ForkJoinPool.commonPool() : getPool();
+    List<ForkJoinTask<?>> forks = new ArrayList<>();
+    for (int task = 1; task < tasks; task++) {
+      int forkTask = task;
+      forks.add(taskPool.submit(() -> action.apply(forkTask)));
+    }
+    RuntimeException failure = null;
+    try {
+      action.apply(0);
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+    for (ForkJoinTask<?> fork : forks) {
+      try {
+        fork.join();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * This method returns the pool of this executor, making it on the first call.
+   */
+  private ForkJoinPool getPool() {
+    ForkJoinPool current = pool;
+    if (current == null) {
+      synchronized (this) {
+        current = pool;
+        if (current == null) {
+          current = new ForkJoinPool(parallelism);
+          pool = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("ParallelRowExecutor [parallelism=");
+    sb.append(getParallelism());
+    sb.append("]");
+    return sb.toString();
+  }
+
+  /**
+   * This class represents a band of rows. A band larger than the threshold is
+   * split in two halves that are processed in parallel.
+   */
+  private static class RowBand extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RowAction action;
+    private final int startRow;
+    private final int endRow;
+    private final int bandRows;
+
+    RowBand(RowAction action, int startRow, int endRow, int bandRows) {
+      this.action = action;
+      this.startRow = startRow;
+      this.endRow = endRow;
+      this.bandRows = bandRows;
+    }
+
+    @Override
+    protected void compute() {
+      if (endRow - startRow <= bandRows) {
+        action.apply(startRow, endRow);
+        return;
+      }
+      int middleRow = (startRow + endRow) >>> 1;
+      invokeAll(new RowBand(action, startRow, middleRow, bandRows),
+          new RowBand(action, middleRow, endRow, bandRows));
+    }
+  }
+}
@@ -3,6 +3,8 @@ package model.imageprocessor;
 import model.exception.ModelValidationException;
 import model.images.Image;
 import model.pattern.CrossStitchedPattern;
+import model.pattern.DmcColorIndex;
+import model.pattern.DmcPalette;
 import model.pattern.DmcRbcProperties;
 import model.pattern.ImagePattern;
 import model.pixel.Colour;
@@ -15,9 +17,12 @@ import model.utilities.Constant;
 import model.utilities.Helper;
 
 import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
 
 /**
@@ -28,68 +33,175 @@ import java.util.TreeMap;
  */
 public class PatternGeneratorImpl implements PatternGenerator {
 
+  /**
+   * The rough number of flosses compared for a pixel by the DMC color index,
+   * used to size the bands of rows.
+   */
+  private static final int DMC_SEARCH_WORK = 32;
+
+  /**
+   * The number of distinct colors a band of rows is first sized for, the memo
+   * grows beyond it when a band has more colors.
+   */
+  private static final int MEMO_EXPECTED_COLORS = 1024;
+
+  private final String randomSeedStr;
+  private final ParallelRowExecutor executor;
+
+  /**
+   * This is the constructor of PatternGeneratorImpl class whose symbols of the
+   * legend differ on every run.
+   */
+  public PatternGeneratorImpl() {
+    this(null);
+  }
+
+  /**
+   * This is the constructor of PatternGeneratorImpl class which takes the seed of
+   * the random symbols of the legend. The same random seed always picks the same
+   * symbols for the same pattern, so a pattern can be made again.
+   *
+   * @param randomSeedStr the seed of the random symbols, or null for symbols that
+   *                      differ on every run.
+   */
+  public PatternGeneratorImpl(String randomSeedStr) {
+    // randomSeedStr will be validated when a pattern is made.
+    this.randomSeedStr = randomSeedStr;
+    this.executor = new ParallelRowExecutor();
+  }
+
+  /**
+   * This is the constructor of PatternGeneratorImpl class which takes the seed of
+   * the random symbols of the legend and the number of threads to be used to
+   * make a pattern.
+   *
+   * @param randomSeedStr the seed of the random symbols, or null for symbols that
+   *                      differ on every run.
+   * @param parallelism   the number of threads used to make the super pixels.
+   */
+  public PatternGeneratorImpl(String randomSeedStr, int parallelism) {
+    // randomSeedStr will be validated when a pattern is made.
+    this.randomSeedStr = randomSeedStr;
+    this.executor = new ParallelRowExecutor(parallelism);
+  }
+
+  /**
+   * This method creates the generator of the random symbols of one pattern
+   * operation, so that the operations do not share a generator.
+   */
+  private SplittableRandom createRandom() throws ModelValidationException {
+    if (randomSeedStr == null) {
+      return new SplittableRandom();
+    }
+    return new SplittableRandom(Helper.inputParameterDecode(randomSeedStr, "Random seed "));
+  }
+
   @Override
   public ImagePattern generateImagePattern(Image image, int pixelation)
       throws IOException, ModelValidationException {
     Helper.imageChecks(image);
     Helper.pixelationValidation(pixelation);
-    Pixel[][] imgPixelArr = image.getPixelArray();
-    return applyImagePattern(imgPixelArr, loadDmcColorMap(), pixelation);
+    return applyImagePattern(image, loadDmcPalette().getColorIndex(), pixelation,
+        createRandom());
   }
 
-  private Map<String, Colour> loadDmcColorMap() throws IOException {
-    Map<String, Colour> dmcColorMap;
+  private DmcRbcProperties loadDmcProperties() throws IOException {
     try {
-      dmcColorMap = DmcRbcProperties.getInstance().getDmcProperties();
+      return DmcRbcProperties.getInstance();
     } catch (IOException e) {
       throw new IOException("Unable to read properties file");
     }
-    return dmcColorMap;
   }
 
-  private ImagePattern applyImagePattern(Pixel[][] imgPixelArr, Map<String, Colour> dmcColorMap,
-      int pixelation) throws IOException {
-    Helper.isObjectNull(imgPixelArr);
-    Helper.isObjectNull(dmcColorMap);
+  private DmcPalette loadDmcPalette() throws IOException {
+    return loadDmcProperties().getPalette();
+  }
 
-    Pixel[][] newImagePixelMatrix = new PixelImpl[imgPixelArr.length][imgPixelArr[0].length];
+  /**
+   * This method finds the name of the floss of a color of the pattern, or null
+   * when no floss has that color.
+   */
+  private String findDmcColorName(DmcPalette palette, Colour color) {
+    int floss = palette.indexOfColor(
+        Helper.packColor(color.getRedColor(), color.getGreenColor(), color.getBlueColor()));
+    return (floss < 0) ? null : palette.getName(floss);
+  }
 
-    Map<String, String> legend = new TreeMap<String, String>();
-    Colour currentColor = null;
-    Colour colorDmc = null;
-    Colour newColor = null;
-    for (int i = 0; i < imgPixelArr.length; i++) {
-      for (int j = 0; j < imgPixelArr[0].length; j++) {
-        String closestDmc = null;
-        int minDmcSq = -1;
-        Set<Entry<String, Colour>> entries = dmcColorMap.entrySet();
-        for (Map.Entry<String, Colour> entry : entries) {
-          currentColor = new RgbColor(imgPixelArr[i][j].getRedColor(),
-              imgPixelArr[i][j].getGreenColor(), imgPixelArr[i][j].getBlueColor());
-          colorDmc = entry.getValue();
-          int distDmc = Helper.calDistDeltaSquare(currentColor, colorDmc);
-          if ((minDmcSq == -1) || (minDmcSq != -1 && (minDmcSq > distDmc))) {
-            closestDmc = entry.getKey();
-            minDmcSq = distDmc;
+  /**
+   * This method makes the pattern of an image. The super pixels are planned
+   * first and the nearest floss is found once per super pixel, for the color of
+   * its center pixel, so the matching costs the number of super pixels rather
+   * than the number of pixels. The full size image of the pattern is then
+   * painted with the floss of every super pixel.
+   */
+  private ImagePattern applyImagePattern(Image image, DmcColorIndex dmcIndex,
+      int pixelation, SplittableRandom random) throws IOException {
+    Helper.imageChecks(image);
+    Helper.isObjectNull(dmcIndex);
+    Helper.isObjectNull(random);
+
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    IntBuffer raster = image.getRasterView();
+    TilingPlan plan = new TilingPlan(imageHeight, imageWidth, pixelation);
+    int tileRows = plan.getTileRows();
+    int tileColumns = plan.getTileColumns();
+
+    // the nearest floss of every super pixel is found in parallel rows of super
+    // pixels. A band remembers the floss of every distinct color it has seen,
+    // so the index is searched once per color of the band.
+    int[] tileDmc = new int[tileRows * tileColumns];
+    executor.forEachBand(tileRows, tileColumns * DMC_SEARCH_WORK, (startTileRow, endTileRow) -> {
+      PackedColorMap memo = new PackedColorMap(Math.min(tileColumns, MEMO_EXPECTED_COLORS));
+      for (int m = startTileRow; m < endTileRow; m++) {
+        int centerOffset = plan.getCenterRow(m) * imageWidth;
+        for (int n = 0; n < tileColumns; n++) {
+          int rgb = raster.get(centerOffset + plan.getCenterColumn(n)) & 0xFFFFFF;
+          int dmc = memo.get(rgb);
+          if (dmc < 0) {
+            dmc = dmcIndex.findNearest(rgb);
+            memo.put(rgb, dmc);
           }
+          tileDmc[m * tileColumns + n] = dmc;
         }
+      }
+    });
 
-        if (!legend.containsKey(closestDmc)) {
-          char symbol = Helper.findUniqueSymbolValue(legend);
-          legend.put(closestDmc, String.valueOf(symbol));
-        }
-        Colour closestColorDmc = dmcColorMap.get(closestDmc);
-        newColor = new RgbColor(closestColorDmc.getRedColor(), closestColorDmc.getGreenColor(),
-            closestColorDmc.getBlueColor());
-        newImagePixelMatrix[i][j] = new PixelImpl(newColor);
+    // the symbols are given in the order the flosses first appear in the rows
+    // of super pixels, so that a random seed always gives the same legend.
+    Map<String, String> legend = new TreeMap<String, String>();
+    Pixel[] dmcPixels = new Pixel[dmcIndex.size()];
+    for (int dmc : tileDmc) {
+      if (dmcPixels[dmc] == null) {
+        char symbol = Helper.findUniqueSymbolValue(legend, random);
+        legend.put(dmcIndex.getName(dmc), String.valueOf(symbol));
+        int rgb = dmcIndex.getColor(dmc);
+        dmcPixels[dmc] = new PixelImpl(new RgbColor(Helper.getRedIntensity(rgb),
+            Helper.getGreenIntensity(rgb), Helper.getBlueIntensity(rgb)));
       }
     }
 
-    Map<String, Object> resultMap = Helper.imageChunkingOnSuperPixel(newImagePixelMatrix,
-        pixelation, MatrixType.TRANSFORMATION_PATTERN_TEXT.toString(), legend);
-
-    SuperPixel[][] imageMap = (SuperPixel[][]) resultMap
-        .get(MatrixType.TRANSFORMATION_PATTERN_TEXT.toString());
+    Pixel[][] newImagePixelMatrix = new PixelImpl[imageHeight][imageWidth];
+    SuperPixel[][] imageMap = new SuperPixelImpl[tileRows][tileColumns];
+    executor.forEachBand(tileRows, imageWidth * Math.max(1, imageHeight / Math.max(1, tileRows)),
+        (startTileRow, endTileRow) -> {
+          for (int m = startTileRow; m < endTileRow; m++) {
+            int startRow = plan.getTileRowStart(m);
+            for (int n = 0; n < tileColumns; n++) {
+              int dmc = tileDmc[m * tileColumns + n];
+              Pixel dmcPixel = dmcPixels[dmc];
+              String dmcColorName = dmcIndex.getName(dmc);
+              imageMap[m][n] = new SuperPixelImpl(dmcPixel.getColor(), plan.getCenterRow(m),
+                  plan.getCenterColumn(n), legend.get(dmcColorName), dmcColorName,
+                  plan.getTileHeight(m), plan.getTileWidth(n));
+              int startColumn = plan.getTileColumnStart(n);
+              for (int i = startRow; i < startRow + plan.getTileHeight(m); i++) {
+                Arrays.fill(newImagePixelMatrix[i], startColumn,
+                    startColumn + plan.getTileWidth(n), dmcPixel);
+              }
+            }
+          }
+        });
 
     return new CrossStitchedPattern(imageMap, legend, newImagePixelMatrix);
   }
@@ -179,17 +291,12 @@ public class PatternGeneratorImpl implements PatternGenerator {
     Colour oldColor = new RgbColor(imgPixelArr[yPos][xPos].getRedColor(),
         imgPixelArr[yPos][xPos].getGreenColor(), imgPixelArr[yPos][xPos].getBlueColor());
 
-    Map<String, Colour> dmcMap = loadDmcColorMap();
-    Colour newColor = dmcMap.get(swapDmcColorName);
+    DmcRbcProperties dmcProperties = loadDmcProperties();
+    Colour newColor = dmcProperties.getDmcProperties().get(swapDmcColorName);
 
-    char newSymbol = Helper.findUniqueSymbolValue(imagePattern.getLegend());
+    char newSymbol = Helper.findUniqueSymbolValue(imagePattern.getLegend(), createRandom());
 
-    Map<String, String> dmcColorMapKey = DmcRbcProperties.getInstance().getDmcPropertiesColorKey();
-    StringBuilder strBuilder = new StringBuilder();
-    strBuilder.append(String.valueOf(oldColor.getRedColor()) + ",");
-    strBuilder.append(String.valueOf(oldColor.getGreenColor()) + ",");
-    strBuilder.append(String.valueOf(oldColor.getBlueColor()));
-    String oldDmcColorName = dmcColorMapKey.get(strBuilder.toString());
+    String oldDmcColorName = findDmcColorName(dmcProperties.getPalette(), oldColor);
 
     Pixel[][] newImagePixelMatrix = modifyImage(imgPixelArr, swapDmcColorName, oldColor, newColor);
 
@@ -217,12 +324,7 @@ public class PatternGeneratorImpl implements PatternGenerator {
     Colour oldColor = new RgbColor(imgPixelArr[yPos][xPos].getRedColor(),
         imgPixelArr[yPos][xPos].getGreenColor(), imgPixelArr[yPos][xPos].getBlueColor());
 
-    Map<String, String> dmcColorMapKey = DmcRbcProperties.getInstance().getDmcPropertiesColorKey();
-    StringBuilder strBuilder = new StringBuilder();
-    strBuilder.append(String.valueOf(oldColor.getRedColor()) + ",");
-    strBuilder.append(String.valueOf(oldColor.getGreenColor()) + ",");
-    strBuilder.append(String.valueOf(oldColor.getBlueColor()));
-    String oldDmcColorName = dmcColorMapKey.get(strBuilder.toString());
+    String oldDmcColorName = findDmcColorName(loadDmcPalette(), oldColor);
 
     Map<String, String> newLegend = modifyLegend(imagePattern.getLegend(), oldColor, "blank", '.',
         oldDmcColorName);
@@ -242,14 +344,15 @@ public class PatternGeneratorImpl implements PatternGenerator {
       throw new ModelValidationException(Constant.DMC_INFO);
     }
     String[] strArray = Helper.decodeDMCColorStr(dmcColorName);
-    Map<String, Colour> loadDmcColorMap = loadDmcColorMap();
+    Map<String, Colour> loadDmcColorMap = loadDmcProperties().getDmcProperties();
     Map<String, Colour> dmcColorSelectedMap = new TreeMap<String, Colour>();
 
     for (int i = 0; i < strArray.length; i++) {
       dmcColorSelectedMap.put(strArray[i], loadDmcColorMap.get(strArray[i]));
     }
 
-    return applyImagePattern(imagePattern.getPixelArray(), dmcColorSelectedMap, pixelation);
+    return applyImagePattern(imagePattern, new DmcColorIndex(dmcColorSelectedMap), pixelation,
+        createRandom());
   }
 
 }
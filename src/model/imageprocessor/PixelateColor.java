@@ -0,0 +1,12 @@
+package model.imageprocessor;
+
+/**
+ * An enumeration of the ways pixelation paints a super pixel. CENTER paints it
+ * with the color of its center pixel, which is the fastest but lets a single
+ * pixel stand for the whole super pixel. MEAN paints it with the mean color of
+ * its pixels and MEDIAN with the median of every channel of its pixels, which
+ * smooth out that aliasing.
+ */
+public enum PixelateColor {
+  CENTER, MEAN, MEDIAN
+}
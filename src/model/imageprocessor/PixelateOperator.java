@@ -2,12 +2,12 @@ package model.imageprocessor;
 
 import model.exception.ModelValidationException;
 import model.images.Image;
-import model.images.RgbImage;
-import model.pixel.Pixel;
+import model.utilities.Constant;
 import model.utilities.Helper;
 
 import java.io.IOException;
-import java.util.Map;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 
 /**
  * This class represents an operator for the image processing application to
@@ -18,6 +18,8 @@ import java.util.Map;
 public class PixelateOperator implements ImagePixelateOperator {
 
   private final String pixelationStr;
+  private final PixelateColor color;
+  private final ParallelRowExecutor executor;
 
   /**
    * This is the constructor of PixelateOperator class which takes input
@@ -26,9 +28,54 @@ public class PixelateOperator implements ImagePixelateOperator {
    * @param pixelationStr the input parameter
    */
   public PixelateOperator(String pixelationStr) {
+    this(pixelationStr, PixelateColor.CENTER, new ParallelRowExecutor());
+  }
+
+  /**
+   * This is the constructor of PixelateOperator class which takes input
+   * pixelation parameter and the number of threads to be used for pixelate
+   * operation.
+   *
+   * @param pixelationStr the input parameter
+   * @param parallelism   the number of threads used to fill the super pixels.
+   */
+  public PixelateOperator(String pixelationStr, int parallelism) {
+    this(pixelationStr, PixelateColor.CENTER, new ParallelRowExecutor(parallelism));
+  }
+
+  /**
+   * This is the constructor of PixelateOperator class which takes input
+   * pixelation parameter and the color of the super pixels to be used for
+   * pixelate operation.
+   *
+   * @param pixelationStr the input parameter
+   * @param color         the way every super pixel is painted.
+   */
+  public PixelateOperator(String pixelationStr, PixelateColor color) {
+    this(pixelationStr, color, new ParallelRowExecutor());
+  }
+
+  /**
+   * This is the constructor of PixelateOperator class which takes input
+   * pixelation parameter, the color of the super pixels and the number of
+   * threads to be used for pixelate operation.
+   *
+   * @param pixelationStr the input parameter
+   * @param color         the way every super pixel is painted.
+   * @param parallelism   the number of threads used to fill the super pixels.
+   */
+  public PixelateOperator(String pixelationStr, PixelateColor color, int parallelism) {
+    this(pixelationStr, color, new ParallelRowExecutor(parallelism));
+  }
+
+  private PixelateOperator(String pixelationStr, PixelateColor color,
+      ParallelRowExecutor executor) {
     super();
+    Helper.isObjectNull(color);
     // pixelationStr will be validated in apply method .
     this.pixelationStr = pixelationStr;
+    this.color = color;
+    this.executor = executor;
   }
 
   @Override
@@ -44,14 +91,88 @@ public class PixelateOperator implements ImagePixelateOperator {
       throw new ModelValidationException("pixelation parameter is invalid");
     }
 
-    Map<String, Object> resultMap = Helper.imageChunkingOnSuperPixel(image.getPixelArray(), 
-        pixelation, MatrixType.TRANSFORMATION_PIXELATE.toString(), null);
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    TilingPlan plan = new TilingPlan(imageHeight, imageWidth, pixelation);
+    IntBuffer raster = image.getRasterView();
+    int[] newRaster = new int[imageHeight * imageWidth];
 
-    Pixel[][] newImagePixelMatrix = (Pixel[][]) resultMap
-        .get(MatrixType.TRANSFORMATION_PIXELATE.toString());
+    // the super pixels are painted row by row of super pixels in parallel, and
+    // every pixel is read once whatever the color of the super pixels.
+    int tileRowWork = imageWidth * Math.max(1, imageHeight / Math.max(1, plan.getTileRows()));
+    executor.forEachBand(plan.getTileRows(), tileRowWork, (startTileRow, endTileRow) -> {
+      int[] tileColors = new int[plan.getTileColumns()];
+      long[] sums = (color == PixelateColor.MEAN) ? new long[3 * plan.getTileColumns()] : null;
+      int[] tilePixels = (color == PixelateColor.MEDIAN)
+          ? new int[(plan.getTileHeight(plan.getTileRows() - 1))
+              * plan.getTileWidth(plan.getTileColumns() - 1)]
+          : null;
+      int[] scratch = new int[Constant.COLOR_MAX + 1];
+      for (int m = startTileRow; m < endTileRow; m++) {
+        int startRow = plan.getTileRowStart(m);
+        int endRow = startRow + plan.getTileHeight(m);
+        switch (color) {
+          case MEAN:
+            meanColors(raster, plan, m, sums, tileColors);
+            break;
+          case MEDIAN:
+            for (int n = 0; n < plan.getTileColumns(); n++) {
+              int size = 0;
+              for (int i = startRow; i < endRow; i++) {
+                int offset = i * imageWidth + plan.getTileColumnStart(n);
+                for (int j = 0; j < plan.getTileWidth(n); j++) {
+                  tilePixels[size++] = raster.get(offset + j);
+                }
+              }
+              tileColors[n] = Helper.getMedianColor(tilePixels, 0, size, scratch);
+            }
+            break;
+          default:
+            int centerOffset = plan.getCenterRow(m) * imageWidth;
+            for (int n = 0; n < plan.getTileColumns(); n++) {
+              tileColors[n] = raster.get(centerOffset + plan.getCenterColumn(n));
+            }
+        }
+        for (int i = startRow; i < endRow; i++) {
+          for (int n = 0; n < plan.getTileColumns(); n++) {
+            int startColumn = i * imageWidth + plan.getTileColumnStart(n);
+            Arrays.fill(newRaster, startColumn, startColumn + plan.getTileWidth(n),
+                tileColors[n]);
+          }
+        }
+      }
+    });
 
-    return new RgbImage(newImagePixelMatrix, newImagePixelMatrix.length,
-        newImagePixelMatrix[0].length);
+    return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
+  }
+
+  /**
+   * This method finds the mean color of every super pixel of a row of super
+   * pixels. The rows of pixels are walked in order and every pixel is added to
+   * the sums of its super pixel, so the row of super pixels is read once.
+   */
+  private static void meanColors(IntBuffer raster, TilingPlan plan, int tileRow, long[] sums,
+      int[] tileColors) {
+    Arrays.fill(sums, 0);
+    int imageWidth = plan.getImageWidth();
+    int startRow = plan.getTileRowStart(tileRow);
+    for (int i = startRow; i < startRow + plan.getTileHeight(tileRow); i++) {
+      for (int n = 0; n < plan.getTileColumns(); n++) {
+        int offset = i * imageWidth + plan.getTileColumnStart(n);
+        for (int j = 0; j < plan.getTileWidth(n); j++) {
+          int rgb = raster.get(offset + j);
+          sums[3 * n] += Helper.getRedIntensity(rgb);
+          sums[3 * n + 1] += Helper.getGreenIntensity(rgb);
+          sums[3 * n + 2] += Helper.getBlueIntensity(rgb);
+        }
+      }
+    }
+    for (int n = 0; n < plan.getTileColumns(); n++) {
+      long count = (long) plan.getTileHeight(tileRow) * plan.getTileWidth(n);
+      tileColors[n] = Helper.packColor((int) ((sums[3 * n] + count / 2) / count),
+          (int) ((sums[3 * n + 1] + count / 2) / count),
+          (int) ((sums[3 * n + 2] + count / 2) / count));
+    }
   }
 
   @Override
@@ -0,0 +1,37 @@
+package model.imageprocessor;
+
+import model.images.RgbImage;
+
+/**
+ * This class represents the proof that an image is made by an image operator
+ * of this package over a raster it has just filled and no longer touches. Only
+ * this package can make one, so the images that share their raster without a
+ * copy cannot be made by code that keeps writing to the raster afterwards.
+ */
+public final class RasterHandoff {
+
+  private static final RasterHandoff OPERATOR = new RasterHandoff();
+
+  private RasterHandoff() {
+  }
+
+  /**
+   * This method hands a raster the calling operator has just filled over to a
+   * new image without copying it. The operator must not use the raster again.
+   *
+   * @param raster      the packed raster of the pixels of the image.
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   * @return an image that owns the given raster.
+   */
+  static RgbImage wrap(int[] raster, int imageHeight, int imageWidth) {
+    return RgbImage.wrap(raster, imageHeight, imageWidth, OPERATOR);
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("RasterHandoff []");
+    return sb.toString();
+  }
+}
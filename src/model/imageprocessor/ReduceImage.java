@@ -2,13 +2,10 @@ package model.imageprocessor;
 
 import model.exception.ModelValidationException;
 import model.images.Image;
-import model.images.RgbImage;
-import model.pixel.Colour;
-import model.pixel.Pixel;
-import model.pixel.PixelImpl;
-import model.pixel.RgbColor;
 import model.utilities.Helper;
 
+import java.nio.IntBuffer;
+
 /**
  * This class represents the implementation of the reducing color density
  * operation applied on images.It reduces the number of the color in which a
@@ -27,6 +24,18 @@ public class ReduceImage extends AbstractColorReduceOperator {
     super(maxNumOfColors);
   }
 
+  /**
+   * This is the constructor of ReduceImage class which takes maxNoOfColors
+   * parameter and the number of threads to be used for color reduction
+   * operation.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param parallelism    the number of threads used to reduce an image.
+   */
+  public ReduceImage(String maxNumOfColors, int parallelism) {
+    super(maxNumOfColors, parallelism);
+  }
+
   @Override
   public Image apply(Image image) throws ModelValidationException {
 
@@ -37,37 +46,26 @@ public class ReduceImage extends AbstractColorReduceOperator {
       throw new ModelValidationException("Reduction parameter cannot be negative");
     }
 
-    Pixel[][] newImgArr = null;
-    Pixel[][] pixelArr = image.getPixelArray();
-    if (null == pixelArr || null == pixelArr[0]) {
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
       throw new IllegalArgumentException();
     }
 
-    // returns the length of the rows in the array
-    int imageHeight = pixelArr.length;
-    // returns the length of the columns in the array
-    int imageWidth = pixelArr[0].length;
-
-    int redColor = 0;
-    int greenColor = 0;
-    int blueColor = 0;
-    newImgArr = new PixelImpl[imageHeight][imageWidth];
-
-    for (int i = 0; i < imageHeight; i++) {
-      for (int j = 0; j < imageWidth; j++) {
-
-        Helper.isObjectNull(pixelArr[i][j]);
-
-        redColor = Helper.getNearestColor(pixelArr[i][j].getRedColor(), maxNoColor);
-        greenColor = Helper.getNearestColor(pixelArr[i][j].getGreenColor(), maxNoColor);
-        blueColor = Helper.getNearestColor(pixelArr[i][j].getBlueColor(), maxNoColor);
-
-        Colour newReduceColor = new RgbColor(redColor, greenColor, blueColor).toClamp();
-        newImgArr[i][j] = new PixelImpl(newReduceColor);
+    // every channel is reduced by a lookup in the table of the nearest
+    // intensities, and the bands of rows are reduced in parallel.
+    int[] table = Helper.getQuantizationTable(maxNoColor);
+    int imageWidth = image.getImageWidth();
+    int[] newRaster = new int[raster.remaining()];
+
+    executor.forEachBand(image.getImageHeight(), imageWidth, (startRow, endRow) -> {
+      for (int i = startRow * imageWidth; i < endRow * imageWidth; i++) {
+        int rgb = raster.get(i);
+        newRaster[i] = Helper.packColor(table[Helper.getRedIntensity(rgb)],
+            table[Helper.getGreenIntensity(rgb)], table[Helper.getBlueIntensity(rgb)]);
       }
-    }
+    });
 
-    return new RgbImage(newImgArr, imageHeight, imageWidth);
+    return RasterHandoff.wrap(newRaster, image.getImageHeight(), image.getImageWidth());
 
   }
 
@@ -2,13 +2,13 @@ package model.imageprocessor;
 
 import model.exception.ModelValidationException;
 import model.images.Image;
-import model.images.RgbImage;
-import model.pixel.Colour;
-import model.pixel.Pixel;
-import model.pixel.PixelImpl;
-import model.pixel.RgbColor;
 import model.utilities.Helper;
 
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 /**
  * This class represents the implementation of the reducing color density
  * operation with essence applied on an image.It reduces the number of the color
@@ -18,6 +18,25 @@ import model.utilities.Helper;
  */
 public class ReduceImageEssence extends AbstractColorReduceOperator {
 
+  /**
+   * The number of pixels from which the rows are dithered in a wavefront on
+   * several threads. Below it the threads cost more than they save.
+   */
+  private static final int WAVEFRONT_PIXEL_THRESHOLD = 1 << 18;
+
+  /**
+   * A row can dither a pixel once the row above has dithered the pixels up to
+   * two columns to its right, as the last of them spreads its error down left
+   * into the pixel right of it.
+   */
+  private static final int WAVEFRONT_LAG = 3;
+
+  /**
+   * The number of pixels a row dithers before it tells the row below how far it
+   * has come.
+   */
+  private static final int PROGRESS_CHUNK = 64;
+
   /**
    * This is the constructor of ReduceImage class which takes maxNoOfColors
    * parameter to be used for color reduction operation.
@@ -27,7 +46,22 @@ public class ReduceImageEssence extends AbstractColorReduceOperator {
   public ReduceImageEssence(String maxNumOfColors) {
     super(maxNumOfColors);
   }
-  
+
+  /**
+   * This is the constructor of ReduceImageEssence class which takes
+   * maxNoOfColors parameter and the number of threads to be used for color
+   * reduction operation. With more than one thread the rows of a large image
+   * are dithered in a skewed wavefront, where every row follows the row above
+   * a few pixels behind, which gives the same image as dithering the rows one
+   * after the other.
+   *
+   * @param maxNumOfColors the input parameter
+   * @param parallelism    the number of threads used to dither an image.
+   */
+  public ReduceImageEssence(String maxNumOfColors, int parallelism) {
+    super(maxNumOfColors, parallelism);
+  }
+
   @Override
   public Image apply(Image image) throws ModelValidationException {
     Helper.isObjectNull(image);
@@ -38,118 +72,174 @@ public class ReduceImageEssence extends AbstractColorReduceOperator {
       throw new ModelValidationException("Reduction parameter cannot be negative");
     }
 
-    Pixel[][] newImgArr = null;
-    Pixel[][] pixelArr = image.getPixelArray();
-    if (null == pixelArr || null == pixelArr[0]) {
+    IntBuffer raster = image.getRasterView();
+    if (null == raster) {
       throw new IllegalArgumentException();
     }
-    // returns the length of the rows in the array
-    int imageHeight = pixelArr.length;
-    // returns the length of the columns in the array
-    int imageWidth = pixelArr[0].length;
-
-    int newRedColor = 0;
-    int newGreenColor = 0;
-    int newBlueColor = 0;
-    newImgArr = new PixelImpl[imageHeight][imageWidth];
-
-    for (int i = 0; i < imageHeight; i++) {
-      for (int j = 0; j < imageWidth; j++) {
-
-        Helper.isObjectNull(pixelArr[i][j]);
-
-        newRedColor = Helper.getNearestColor(pixelArr[i][j].getRedColor(), maxNoColor);
-        newGreenColor = Helper.getNearestColor(pixelArr[i][j].getGreenColor(), maxNoColor);
-        newBlueColor = Helper.getNearestColor(pixelArr[i][j].getBlueColor(), maxNoColor);
-
-        int errorRed = pixelArr[i][j].getRedColor() - newRedColor;
-        int errorGreen = pixelArr[i][j].getGreenColor() - newGreenColor;
-        int errorBlue = pixelArr[i][j].getBlueColor() - newBlueColor;
+    int imageHeight = image.getImageHeight();
+    int imageWidth = image.getImageWidth();
+    Helper.isNotEqual(raster.remaining(), imageHeight * imageWidth);
 
-        Colour newDitherColor = new RgbColor(newRedColor,
-            newGreenColor, newBlueColor);
-        Pixel ditherPixel = new PixelImpl(newDitherColor);
+    int[] table = Helper.getQuantizationTable(maxNoColor);
+    int[] newRaster = new int[imageHeight * imageWidth];
 
-        pixelArr[i][j] = ditherPixel;
-
-        if (j + 1 < imageWidth) {
+    int threads = Math.min(executor.getParallelism(), imageHeight);
+    if (threads > 1 && imageHeight * imageWidth >= WAVEFRONT_PIXEL_THRESHOLD) {
+      ditherWavefront(raster, imageHeight, imageWidth, table, newRaster, threads);
+      return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
+    }
 
-          Helper.isObjectNull(pixelArr[i][j + 1]);
+    // the error only reaches the current and the next row, so two rows of
+    // intensities per channel are enough. The intensities may leave the range
+    // 0-255 while the error is spread and are clamped only when written.
+    int[][] currentRow = new int[3][imageWidth];
+    int[][] nextRow = new int[3][imageWidth];
+    loadRow(raster, 0, imageWidth, currentRow);
+    for (int i = 0; i < imageHeight; i++) {
+      boolean hasNextRow = i + 1 < imageHeight;
+      if (hasNextRow) {
+        loadRow(raster, (i + 1) * imageWidth, imageWidth, nextRow);
+      }
+      ditherPixels(currentRow, nextRow, hasNextRow, table, newRaster, i * imageWidth, 0,
+          imageWidth);
+      int[][] swap = currentRow;
+      currentRow = nextRow;
+      nextRow = swap;
+    }
 
-          int newRedEssenceColor = (int) Math
-              .round((pixelArr[i][j + 1].getRedColor() + (errorRed * (7.0 / 16.0))));
-          int newGreenEssenceColor = (int) Math
-              .round((pixelArr[i][j + 1].getGreenColor() + (errorGreen * (7.0 / 16.0))));
-          int newBlueEssenceColor = (int) Math
-              .round((pixelArr[i][j + 1].getBlueColor() + (errorBlue * (7.0 / 16.0))));
+    return RasterHandoff.wrap(newRaster, imageHeight, imageWidth);
 
-          Colour newReduceColor = new RgbColor(newRedEssenceColor,
-              newGreenEssenceColor, newBlueEssenceColor);
-          Pixel reducePixelEssence = new PixelImpl(newReduceColor);
+  }
 
-          pixelArr[i][j + 1] = reducePixelEssence;
+  /**
+   * This method dithers the rows in a skewed wavefront on the tasks of the
+   * executor. The tasks take the rows in order from a shared counter, so a row
+   * only ever waits for a row that a running task has taken, and a row waits
+   * before every chunk of pixels until the row above is WAVEFRONT_LAG pixels
+   * ahead of it. Every pixel then gets the shares of the error in the same order
+   * as in the serial dithering. A row loads the row below into its buffer before
+   * it spreads any error into it. A row cannot end before the row above it, so
+   * at most one row per task is unfinished, and the buffers of the rows are kept
+   * in a ring that is large enough that a row is done before its buffer is used
+   * again. When a task fails, the others stop waiting and fail as well.
+   */
+  private void ditherWavefront(IntBuffer raster, int imageHeight, int imageWidth,
+      int[] table, int[] newRaster, int threads) {
+    int ringSize = threads + 2;
+    int[][][] rows = new int[ringSize][3][imageWidth];
+    AtomicIntegerArray progress = new AtomicIntegerArray(imageHeight);
+    AtomicInteger nextRowToDither = new AtomicInteger();
+    AtomicBoolean aborted = new AtomicBoolean();
+    loadRow(raster, 0, imageWidth, rows[0]);
+
+    executor.forEachTask(threads, task -> {
+      try {
+        for (int i = nextRowToDither.getAndIncrement(); i < imageHeight;
+            i = nextRowToDither.getAndIncrement()) {
+          int[][] currentRow = rows[i % ringSize];
+          int[][] nextRow = rows[(i + 1) % ringSize];
+          boolean hasNextRow = i + 1 < imageHeight;
+          if (i > 0) {
+            awaitProgress(progress, i - 1, Math.min(WAVEFRONT_LAG, imageWidth), aborted);
+          }
+          if (hasNextRow) {
+            loadRow(raster, (i + 1) * imageWidth, imageWidth, nextRow);
+          }
+          for (int start = 0; start < imageWidth; start += PROGRESS_CHUNK) {
+            int end = Math.min(start + PROGRESS_CHUNK, imageWidth);
+            if (i > 0) {
+              awaitProgress(progress, i - 1, Math.min(end - 1 + WAVEFRONT_LAG, imageWidth),
+                  aborted);
+            }
+            ditherPixels(currentRow, nextRow, hasNextRow, table, newRaster, i * imageWidth,
+                start, end);
+            progress.set(i, end);
+          }
         }
+      } catch (RuntimeException | Error e) {
+        aborted.set(true);
+        throw e;
+      }
+    });
+  }
 
-        if (j - 1 >= 0 && i + 1 < imageHeight) {
-
-          Helper.isObjectNull(pixelArr[i + 1][j - 1]);
+  /**
+   * This method waits until the given row has dithered at least the given number
+   * of pixels. The wait is short, so the thread spins and only yields when the
+   * row above is slow. It gives up when another task has failed or the thread is
+   * interrupted.
+   */
+  private static void awaitProgress(AtomicIntegerArray progress, int row, int pixels,
+      AtomicBoolean aborted) {
+    int spins = 0;
+    while (progress.get(row) < pixels) {
+      if (aborted.get()) {
+        throw new IllegalArgumentException("The dithering of a row failed");
+      }
+      if (Thread.interrupted()) {
+        Thread.currentThread().interrupt();
+        throw new IllegalArgumentException("The dithering was interrupted");
+      }
+      if (++spins < 1000) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+  }
 
-          int newRedEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j - 1].getRedColor() + (errorRed * (3.0 / 16.0))));
-          int newGreenEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j - 1].getGreenColor() + (errorGreen * (3.0 / 16.0))));
-          int newBlueEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j - 1].getBlueColor() + (errorBlue * (3.0 / 16.0))));
+  private static void loadRow(IntBuffer raster, int rowOffset, int imageWidth, int[][] row) {
+    for (int j = 0; j < imageWidth; j++) {
+      int rgb = raster.get(rowOffset + j);
+      row[0][j] = Helper.getRedIntensity(rgb);
+      row[1][j] = Helper.getGreenIntensity(rgb);
+      row[2][j] = Helper.getBlueIntensity(rgb);
+    }
+  }
 
-          Colour newReduceColor = new RgbColor(newRedEssenceColor,
-              newGreenEssenceColor, newBlueEssenceColor);
-          Pixel reducePixelEssence = new PixelImpl(newReduceColor);
+  /**
+   * This method dithers the pixels of one row from the start column up to, but
+   * not including, the end column with the Floyd Steinberg weights 7/16 to the
+   * right, 3/16 down left, 5/16 down and 1/16 down right. Every neighbour is
+   * rounded after each share of the error it receives, in the same order as
+   * before, so the result is the same as dithering the array of pixels.
+   */
+  private static void ditherPixels(int[][] currentRow, int[][] nextRow, boolean hasNextRow,
+      int[] table, int[] newRaster, int rowOffset, int startColumn, int endColumn) {
+    int imageWidth = currentRow[0].length;
+    for (int j = startColumn; j < endColumn; j++) {
+      int newRedColor = 0;
+      int newGreenColor = 0;
+      int newBlueColor = 0;
+      for (int c = 0; c < currentRow.length; c++) {
+        int[] current = currentRow[c];
+        int[] next = nextRow[c];
+        int newColor = table[Helper.toClampColorValue(current[j])];
+        int error = current[j] - newColor;
 
-          pixelArr[i + 1][j - 1] = reducePixelEssence;
+        if (j + 1 < imageWidth) {
+          current[j + 1] = (int) Math.round(current[j + 1] + (error * (7.0 / 16.0)));
         }
-
-        if (i + 1 < imageHeight) {
-
-          Helper.isObjectNull(pixelArr[i + 1][j]);
-
-          int newRedEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j].getRedColor() + (errorRed * (5.0 / 16.0))));
-          int newGreenEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j].getGreenColor() + (errorGreen * (5.0 / 16.0))));
-          int newBlueEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j].getBlueColor() + (errorBlue * (5.0 / 16.0))));
-
-          Colour newReduceColor = new RgbColor(newRedEssenceColor,
-              newGreenEssenceColor, newBlueEssenceColor);
-          Pixel reducePixelEssence = new PixelImpl(newReduceColor);
-          pixelArr[i + 1][j] = reducePixelEssence;
+        if (hasNextRow) {
+          if (j - 1 >= 0) {
+            next[j - 1] = (int) Math.round(next[j - 1] + (error * (3.0 / 16.0)));
+          }
+          next[j] = (int) Math.round(next[j] + (error * (5.0 / 16.0)));
+          if (j + 1 < imageWidth) {
+            next[j + 1] = (int) Math.round(next[j + 1] + (error * (1.0 / 16.0)));
+          }
         }
 
-        if (j + 1 < imageWidth && i + 1 < imageHeight) {
-
-          Helper.isObjectNull(pixelArr[i + 1][j + 1]);
-
-          int newRedEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j + 1].getRedColor() + (errorRed * (1.0 / 16.0))));
-          int newGreenEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j + 1].getGreenColor() + (errorGreen * (1.0 / 16.0))));
-          int newBlueEssenceColor = (int) Math
-              .round((pixelArr[i + 1][j + 1].getBlueColor() + (errorBlue * (1.0 / 16.0))));
-
-          Colour newReduceColor = new RgbColor(newRedEssenceColor,
-              newGreenEssenceColor, newBlueEssenceColor);
-          Pixel reducePixelEssence = new PixelImpl(newReduceColor);
-
-          pixelArr[i + 1][j + 1] = reducePixelEssence;
+        if (c == 0) {
+          newRedColor = newColor;
+        } else if (c == 1) {
+          newGreenColor = newColor;
+        } else {
+          newBlueColor = newColor;
         }
-
-        newImgArr[i][j] = new PixelImpl(pixelArr[i][j].toClamp());
-
       }
+      newRaster[rowOffset + j] = Helper.packColor(newRedColor, newGreenColor, newBlueColor);
     }
-
-    return new RgbImage(newImgArr, imageHeight, imageWidth);
-
   }
 
 }
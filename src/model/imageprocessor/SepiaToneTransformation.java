@@ -6,6 +6,9 @@ import model.images.Image;
 import model.utilities.Constant;
 import model.utilities.Helper;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This class represent the sepia tone transformation for an image processing
  * i.e. used to apply the sepia tone transformation to an image. The matrix
@@ -41,6 +44,21 @@ public class SepiaToneTransformation extends AbstractColorTransformOperator {
     this(new TransformationMatrixImpl(3, 3, Constant.SEPIA_TRANSFORMATION_MATRIX));
   }
 
+  /**
+   * Constructor for the sepia tone transformation that is used to initialize an
+   * object for the image transformation operation that transforms an image on
+   * the given backend.
+   *
+   * @param transformationMatrix The set of values that determine the
+   *                             transformation to be performed.
+   * @param backend              The way the products of the matrix are computed.
+   */
+  public SepiaToneTransformation(TransformationMatrix transformationMatrix, ComputeBackend backend) {
+    super(backend);
+    Helper.isObjectNull(transformationMatrix);
+    this.transformationMatrix = transformationMatrix;
+  }
+
   @Override
   public Image apply(Image image) {
 
@@ -49,6 +67,11 @@ public class SepiaToneTransformation extends AbstractColorTransformOperator {
 
   }
 
+  @Override
+  public List<TransformationMatrix> getTransformationSteps() {
+    return Collections.singletonList(transformationMatrix);
+  }
+
   @Override
   public String toString() {
     StringBuffer sb = new StringBuffer();
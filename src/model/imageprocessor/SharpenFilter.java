@@ -27,6 +27,20 @@ public class SharpenFilter extends AbstractFilterImageOperator {
 
   }
 
+  /**
+   * Constructor for the sharpen filter that is used to initialize an object for
+   * the sharpen filter that convolves an image with the given level of parallelism.
+   *
+   * @param kernel      The set of values that determine the sharpen effect filter.
+   * @param parallelism The number of threads used to convolve an image.
+   */
+  public SharpenFilter(Kernel kernel, int parallelism) {
+    super(parallelism);
+    Helper.isObjectNull(kernel);
+    this.kernel = kernel;
+
+  }
+
   /**
    * Default constructor for the sharpen filter that is used to initialize an
    * object for the sharpen filter to be applied to an image. It contains default
@@ -37,6 +51,54 @@ public class SharpenFilter extends AbstractFilterImageOperator {
 
   }
 
+  /**
+   * Constructor for the sharpen filter that is used to initialize an object for
+   * the sharpen filter that reads the pixels outside the image as given by the
+   * edge mode, with the default kernel.
+   *
+   * @param edgeMode The way the pixels outside the image are read.
+   */
+  public SharpenFilter(EdgeMode edgeMode) {
+    super(edgeMode);
+    this.kernel = new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX);
+
+  }
+
+  /**
+   * Constructor for the sharpen filter that is used to initialize an object for
+   * the sharpen filter that reads the pixels outside the image as given by the
+   * edge mode and convolves an image with the given level of parallelism.
+   *
+   * @param kernel      The set of values that determine the sharpen effect filter.
+   * @param edgeMode    The way the pixels outside the image are read.
+   * @param parallelism The number of threads used to convolve an image.
+   */
+  public SharpenFilter(Kernel kernel, EdgeMode edgeMode, int parallelism) {
+    super(edgeMode, parallelism);
+    Helper.isObjectNull(kernel);
+    this.kernel = kernel;
+
+  }
+
+  /**
+   * Constructor for the sharpen filter that is used to initialize an object for
+   * the sharpen filter that reads the pixels outside the image as given by the
+   * edge mode and convolves an image with the given level of parallelism on the
+   * given backend, e.g. the fixed point backend for a result that is the same
+   * on every JVM.
+   *
+   * @param kernel      The set of values that determine the sharpen effect filter.
+   * @param edgeMode    The way the pixels outside the image are read.
+   * @param parallelism The number of threads used to convolve an image.
+   * @param backend     The way the sums of the kernel taps are computed.
+   */
+  public SharpenFilter(Kernel kernel, EdgeMode edgeMode, int parallelism, ComputeBackend backend) {
+    super(edgeMode, parallelism, backend);
+    Helper.isObjectNull(kernel);
+    this.kernel = kernel;
+
+  }
+
   @Override
   public Image apply(Image image) {
     Helper.isObjectNull(image);
@@ -0,0 +1,183 @@
+package model.imageprocessor;
+
+import model.utilities.Helper;
+
+/**
+ * This class represents the immutable plan of the super pixels of an image for
+ * a given pixelation parameter. The image is cut into pixelation columns of
+ * super pixels that are imageWidth / pixelation wide, and into rows of super
+ * pixels that are as high as the columns are wide. When a dimension of the
+ * image is not divisible, the last rows or columns of super pixels are one
+ * pixel larger so that the super pixels cover the whole image. That gives the
+ * four cases of one or two widths with one or two heights, which the plan
+ * computes once, so pixelation and pattern generation only walk the tiles.
+ */
+public final class TilingPlan {
+
+  private final int imageHeight;
+  private final int imageWidth;
+  private final int pixelation;
+  private final int[] rowStarts;
+  private final int[] columnStarts;
+
+  /**
+   * Constructor for the plan of the super pixels of an image of the given size.
+   *
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   * @param pixelation  the number of super pixels across the width of the image.
+   * @throws IllegalArgumentException if the dimensions or the pixelation are zero
+   *                                  or negative, the pixelation is larger than
+   *                                  the width, or the rows cannot be cut into
+   *                                  super pixels of the two heights.
+   */
+  public TilingPlan(int imageHeight, int imageWidth, int pixelation) {
+    if (Helper.isNotNegativeOrZero(imageHeight) || Helper.isNotNegativeOrZero(imageWidth)
+        || Helper.isNotNegativeOrZero(pixelation) || pixelation > imageWidth) {
+      throw new IllegalArgumentException();
+    }
+    this.imageHeight = imageHeight;
+    this.imageWidth = imageWidth;
+    this.pixelation = pixelation;
+
+    int superPixelWidth = imageWidth / pixelation;
+    this.columnStarts = createStarts(pixelation,
+        Helper.calculateOccurrence(imageWidth, pixelation), superPixelWidth);
+
+    // the super pixels are as high as they are wide, the last rows one pixel
+    // higher when the height is not divisible by the width of a super pixel.
+    int tileRows = imageHeight / superPixelWidth;
+    int occurrenceHeight = Helper.calculateOccurrenceHeight(imageHeight, superPixelWidth);
+    if (Helper.isNegative(occurrenceHeight)) {
+      throw new IllegalArgumentException();
+    }
+    this.rowStarts = createStarts(tileRows, occurrenceHeight, superPixelWidth);
+  }
+
+  /**
+   * This method finds the first pixel of every tile along a dimension, where the
+   * first occurrence tiles have the given size and the rest are one larger. The
+   * last entry is the end of the last tile.
+   */
+  private static int[] createStarts(int tiles, int occurrence, int size) {
+    int[] starts = new int[tiles + 1];
+    for (int tile = 0; tile < tiles; tile++) {
+      starts[tile + 1] = starts[tile] + ((tile < occurrence) ? size : size + 1);
+    }
+    return starts;
+  }
+
+  /**
+   * Getter method to get the height of the image.
+   *
+   * @return the height of the image.
+   */
+  public int getImageHeight() {
+    return imageHeight;
+  }
+
+  /**
+   * Getter method to get the width of the image.
+   *
+   * @return the width of the image.
+   */
+  public int getImageWidth() {
+    return imageWidth;
+  }
+
+  /**
+   * Getter method to get the number of rows of super pixels.
+   *
+   * @return the number of rows of super pixels.
+   */
+  public int getTileRows() {
+    return rowStarts.length - 1;
+  }
+
+  /**
+   * Getter method to get the number of columns of super pixels, which is the
+   * pixelation parameter.
+   *
+   * @return the number of columns of super pixels.
+   */
+  public int getTileColumns() {
+    return columnStarts.length - 1;
+  }
+
+  /**
+   * Getter method to get the first row of pixels of a row of super pixels.
+   *
+   * @param tileRow the row of super pixels.
+   * @return the first row of pixels of the super pixels.
+   */
+  public int getTileRowStart(int tileRow) {
+    return rowStarts[tileRow];
+  }
+
+  /**
+   * Getter method to get the height of a row of super pixels.
+   *
+   * @param tileRow the row of super pixels.
+   * @return the height of the super pixels.
+   */
+  public int getTileHeight(int tileRow) {
+    return rowStarts[tileRow + 1] - rowStarts[tileRow];
+  }
+
+  /**
+   * Getter method to get the first column of pixels of a column of super pixels.
+   *
+   * @param tileColumn the column of super pixels.
+   * @return the first column of pixels of the super pixels.
+   */
+  public int getTileColumnStart(int tileColumn) {
+    return columnStarts[tileColumn];
+  }
+
+  /**
+   * Getter method to get the width of a column of super pixels.
+   *
+   * @param tileColumn the column of super pixels.
+   * @return the width of the super pixels.
+   */
+  public int getTileWidth(int tileColumn) {
+    return columnStarts[tileColumn + 1] - columnStarts[tileColumn];
+  }
+
+  /**
+   * This method returns the row of the center pixel of a row of super pixels,
+   * whose color is taken for the super pixels.
+   *
+   * @param tileRow the row of super pixels.
+   * @return the row of the center pixel.
+   */
+  public int getCenterRow(int tileRow) {
+    return rowStarts[tileRow] + getTileHeight(tileRow) / 2;
+  }
+
+  /**
+   * This method returns the column of the center pixel of a column of super
+   * pixels, whose color is taken for the super pixels.
+   *
+   * @param tileColumn the column of super pixels.
+   * @return the column of the center pixel.
+   */
+  public int getCenterColumn(int tileColumn) {
+    return columnStarts[tileColumn] + getTileWidth(tileColumn) / 2;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("TilingPlan [imageHeight=");
+    sb.append(imageHeight);
+    sb.append(", imageWidth=");
+    sb.append(imageWidth);
+    sb.append(", pixelation=");
+    sb.append(pixelation);
+    sb.append(", tileRows=");
+    sb.append(getTileRows());
+    sb.append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,147 @@
+package model.imageprocessor;
+
+import model.utilities.Helper;
+
+/**
+ * This class represents the labelling of every pixel of an image with its
+ * nearest seed, i.e. the Voronoi diagram of the seeds. The seeds are sorted
+ * into square buckets of a grid that holds about two seeds per bucket. The
+ * search for the nearest seed of a pixel starts at the bucket of the pixel and
+ * grows ring by ring until no seed in the next ring can be nearer, so the cost
+ * per pixel does not grow with the number of seeds.
+ */
+class VoronoiGrid {
+
+  private static final int SEEDS_PER_BUCKET = 2;
+
+  private final int[] seedRows;
+  private final int[] seedColumns;
+  private final int imageHeight;
+  private final int imageWidth;
+  private final int bucketSize;
+  private final int bucketRows;
+  private final int bucketColumns;
+  private final int[] bucketStarts;
+  private final int[] bucketSeeds;
+
+  /**
+   * Constructor for the grid of the given seeds, sorted into buckets.
+   *
+   * @param seedRows    the row of every seed.
+   * @param seedColumns the column of every seed.
+   * @param imageHeight the height of the image.
+   * @param imageWidth  the width of the image.
+   */
+  VoronoiGrid(int[] seedRows, int[] seedColumns, int imageHeight, int imageWidth) {
+    Helper.isObjectNull(seedRows);
+    Helper.isObjectNull(seedColumns);
+    Helper.isNotEqual(seedRows.length, seedColumns.length);
+    if (seedRows.length == 0 || Helper.isNotNegativeOrZero(imageHeight)
+        || Helper.isNotNegativeOrZero(imageWidth)) {
+      throw new IllegalArgumentException();
+    }
+    this.seedRows = seedRows;
+    this.seedColumns = seedColumns;
+    this.imageHeight = imageHeight;
+    this.imageWidth = imageWidth;
+
+    double pixelsPerBucket = (double) imageHeight * imageWidth * SEEDS_PER_BUCKET
+        / seedRows.length;
+    this.bucketSize = Math.max(1, (int) Math.ceil(Math.sqrt(pixelsPerBucket)));
+    this.bucketRows = (imageHeight + bucketSize - 1) / bucketSize;
+    this.bucketColumns = (imageWidth + bucketSize - 1) / bucketSize;
+
+    // the seeds of a bucket are stored together in the order of their index,
+    // from bucketStarts[bucket] up to bucketStarts[bucket + 1].
+    this.bucketStarts = new int[bucketRows * bucketColumns + 1];
+    for (int k = 0; k < seedRows.length; k++) {
+      if (seedRows[k] < 0 || seedRows[k] >= imageHeight || seedColumns[k] < 0
+          || seedColumns[k] >= imageWidth) {
+        throw new IllegalArgumentException();
+      }
+      bucketStarts[bucketOf(seedRows[k], seedColumns[k]) + 1]++;
+    }
+    for (int bucket = 0; bucket < bucketRows * bucketColumns; bucket++) {
+      bucketStarts[bucket + 1] += bucketStarts[bucket];
+    }
+    this.bucketSeeds = new int[seedRows.length];
+    int[] next = bucketStarts.clone();
+    for (int k = 0; k < seedRows.length; k++) {
+      bucketSeeds[next[bucketOf(seedRows[k], seedColumns[k])]++] = k;
+    }
+  }
+
+  /**
+   * This method labels every pixel of the image with the index of its nearest
+   * seed. The bands of rows are labelled in parallel.
+   *
+   * @param executor the executor that runs the bands of rows.
+   * @return the index of the nearest seed of every pixel in row major order.
+   */
+  int[] label(ParallelRowExecutor executor) {
+    Helper.isObjectNull(executor);
+    int[] labels = new int[imageHeight * imageWidth];
+    executor.forEachBand(imageHeight, imageWidth * SEEDS_PER_BUCKET * 9, (startRow, endRow) -> {
+      for (int row = startRow; row < endRow; row++) {
+        for (int column = 0; column < imageWidth; column++) {
+          labels[row * imageWidth + column] = nearestSeed(row, column);
+        }
+      }
+    });
+    return labels;
+  }
+
+  /**
+   * This method finds the seed with the smallest squared Euclidean distance to
+   * the given pixel. A tie goes to the seed with the smallest index.
+   *
+   * @param row    the row of the pixel.
+   * @param column the column of the pixel.
+   * @return the index of the nearest seed.
+   */
+  int nearestSeed(int row, int column) {
+    int bucketRow = row / bucketSize;
+    int bucketColumn = column / bucketSize;
+    int nearest = -1;
+    long nearestDistance = Long.MAX_VALUE;
+    int maxRing = Math.max(bucketRows, bucketColumns);
+    for (int ring = 0; ring <= maxRing; ring++) {
+      // every bucket of this ring and beyond is at least
+      // (ring - 1) * bucketSize + 1 pixels away along one axis, so a strictly
+      // nearer seed cannot lie there.
+      if (nearest >= 0) {
+        long bound = (long) (ring - 1) * bucketSize + 1;
+        if (nearestDistance < bound * bound) {
+          break;
+        }
+      }
+      int top = bucketRow - ring;
+      int bottom = bucketRow + ring;
+      for (int r = Math.max(0, top); r <= Math.min(bucketRows - 1, bottom); r++) {
+        boolean edgeRow = (r == top || r == bottom);
+        int step = edgeRow ? 1 : 2 * ring;
+        for (int c = bucketColumn - ring; c <= bucketColumn + ring; c += Math.max(1, step)) {
+          if (c < 0 || c >= bucketColumns) {
+            continue;
+          }
+          int bucket = r * bucketColumns + c;
+          for (int s = bucketStarts[bucket]; s < bucketStarts[bucket + 1]; s++) {
+            int seed = bucketSeeds[s];
+            long deltaRow = seedRows[seed] - row;
+            long deltaColumn = seedColumns[seed] - column;
+            long distance = deltaRow * deltaRow + deltaColumn * deltaColumn;
+            if (distance < nearestDistance || (distance == nearestDistance && seed < nearest)) {
+              nearest = seed;
+              nearestDistance = distance;
+            }
+          }
+        }
+      }
+    }
+    return nearest;
+  }
+
+  private int bucketOf(int row, int column) {
+    return (row / bucketSize) * bucketColumns + column / bucketSize;
+  }
+}
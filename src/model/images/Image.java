@@ -2,6 +2,8 @@ package model.images;
 
 import model.pixel.Pixel;
 
+import java.nio.IntBuffer;
+
 /**
  * The Image interface class represents image which is composed of pixels across
  * the rows and the columns. A 2D matrix of Pixels.
@@ -14,6 +16,44 @@ public interface Image {
    */
   Pixel[][] getPixelArray();
 
+  /**
+   * This method gets the packed raster of the image. The pixels are stored row
+   * after row and every pixel is a single int holding the RGB intensities in the
+   * 0xRRGGBB layout.
+   *
+   * @return An int array of length height * width with the packed pixels.
+   */
+  int[] getRaster();
+
+  /**
+   * This method gets a read-only view of the packed raster of the image. The
+   * view shares the pixels of the image, so no copy of the image is made, and
+   * it cannot be used to modify the image.
+   *
+   * @return A read-only buffer over the packed raster of the image.
+   */
+  IntBuffer getRasterView();
+
+  /**
+   * This method gets a single pixel of the image in the packed 0xRRGGBB layout
+   * without allocating any object.
+   *
+   * @param row    the row of the pixel.
+   * @param column the column of the pixel.
+   * @return An int with the packed RGB intensities of the pixel.
+   */
+  int getRgb(int row, int column);
+
+  /**
+   * This method copies a row of the packed raster of the image into a buffer
+   * provided by the caller, so that the rows can be read without allocating.
+   *
+   * @param row         the row to be copied.
+   * @param destination the buffer the row is copied into, of at least the image
+   *                    width.
+   */
+  void getRow(int row, int[] destination);
+
   /**
    * This methods return the image height.
    *
@@ -1,18 +1,23 @@
 package model.images;
 
+import model.imageprocessor.RasterHandoff;
 import model.pixel.Colour;
 import model.pixel.Pixel;
 import model.pixel.PixelImpl;
 import model.pixel.RgbColor;
 import model.utilities.Helper;
 
+import java.nio.IntBuffer;
+
 /**
  * The RGBImage class represents a collection of pixels that collectively make
- * an RGB image composed of the RGB pixels.
+ * an RGB image composed of the RGB pixels. The pixels are kept in a single
+ * packed int raster, row after row, in the 0xRRGGBB layout so that an image
+ * costs one int per pixel instead of a pixel and a color object per pixel.
  */
 public class RgbImage extends ImageImpl {
 
-  private final Pixel[][] pixelArr;
+  private final int[] raster;
 
   /**
    * Constructor for the RGBImage lass to initialize an object that represents a
@@ -32,14 +37,11 @@ public class RgbImage extends ImageImpl {
     Helper.isNotEqual(imageArr.length, imageHeight);
     Helper.isNotEqual(imageArr[0].length, imageWidth);
 
-    this.pixelArr = new PixelImpl[imageHeight][imageWidth];
+    this.raster = new int[imageHeight * imageWidth];
     for (int i = 0; i < imageHeight; i++) {
       for (int j = 0; j < imageWidth; j++) {
-        Colour color = new RgbColor(imageArr[i][j][Channel.RED.ordinal()],
+        raster[i * imageWidth + j] = Helper.packColor(imageArr[i][j][Channel.RED.ordinal()],
             imageArr[i][j][Channel.GREEN.ordinal()], imageArr[i][j][Channel.BLUE.ordinal()]);
-        Pixel pixelNew = new PixelImpl(color);
-        pixelArr[i][j] = pixelNew;
-
       }
     }
 
@@ -62,26 +64,81 @@ public class RgbImage extends ImageImpl {
     Helper.isNotEqual(pixelImgArr.length, imageHeight);
     Helper.isNotEqual(pixelImgArr[0].length, imageWidth);
 
-    this.pixelArr = new PixelImpl[imageHeight][imageWidth];
+    this.raster = new int[imageHeight * imageWidth];
     for (int i = 0; i < imageHeight; i++) {
       for (int j = 0; j < imageWidth; j++) {
-        Colour color = new RgbColor(pixelImgArr[i][j].getRedColor(),
+        Helper.isObjectNull(pixelImgArr[i][j]);
+        raster[i * imageWidth + j] = Helper.packColor(pixelImgArr[i][j].getRedColor(),
             pixelImgArr[i][j].getGreenColor(), pixelImgArr[i][j].getBlueColor());
-        Pixel pixelNew = new PixelImpl(color);
-        this.pixelArr[i][j] = pixelNew;
-
       }
     }
 
   }
 
+  /**
+   * Constructor for the RGBImage class to initialize an object that represents a
+   * collection of pixels that collectively make up an image. It takes a packed
+   * raster, row after row in the 0xRRGGBB layout, to initialize the object of
+   * type RgbImage.
+   *
+   * @param raster      A packed raster of the pixels of the image.
+   * @param imageHeight The height of the image.
+   * @param imageWidth  The width of the image.
+   */
+  public RgbImage(int[] raster, int imageHeight, int imageWidth) {
+
+    super(imageHeight, imageWidth);
+    Helper.isObjectNull(raster);
+    Helper.isNotEqual(raster.length, imageHeight * imageWidth);
+
+    this.raster = new int[raster.length];
+    for (int i = 0; i < raster.length; i++) {
+      this.raster[i] = raster[i] & 0xFFFFFF;
+    }
+  }
+
+  /**
+   * Private constructor that takes over the given packed raster without copying
+   * it.
+   *
+   * @param imageHeight The height of the image.
+   * @param imageWidth  The width of the image.
+   * @param raster      A packed raster of the pixels of the image.
+   */
+  private RgbImage(int imageHeight, int imageWidth, int[] raster) {
+    super(imageHeight, imageWidth);
+    Helper.isObjectNull(raster);
+    Helper.isNotEqual(raster.length, imageHeight * imageWidth);
+    this.raster = raster;
+  }
+
+  /**
+   * This method creates an image over a packed raster without copying it. It is
+   * used by the image operators to hand over a raster they have just filled, so
+   * the raster must hold intensities in the 0xRRGGBB layout and must not be
+   * modified by the caller afterwards. Only the image operators can make the
+   * handoff, other code builds an image with the constructors that copy.
+   *
+   * @param raster      A packed raster of the pixels of the image.
+   * @param imageHeight The height of the image.
+   * @param imageWidth  The width of the image.
+   * @param handoff     The proof that the raster comes from an image operator.
+   * @return An image that owns the given raster.
+   * @throws IllegalArgumentException if the handoff is null.
+   */
+  public static RgbImage wrap(int[] raster, int imageHeight, int imageWidth,
+      RasterHandoff handoff) {
+    Helper.isObjectNull(handoff);
+    return new RgbImage(imageHeight, imageWidth, raster);
+  }
+
   @Override
   public String toString() {
 
     StringBuffer sb = new StringBuffer();
     sb.append("RgbImage [pixel=");
-    if (null != pixelArr) {
-      sb.append(pixelArr.length);
+    if (null != raster) {
+      sb.append(imageHeight);
     } else {
       sb.append(0);
     }
@@ -94,13 +151,42 @@ public class RgbImage extends ImageImpl {
     Pixel[][] newpixelArr = new PixelImpl[imageHeight][imageWidth];
     for (int i = 0; i < imageHeight; i++) {
       for (int j = 0; j < imageWidth; j++) {
-        Colour color = new RgbColor(pixelArr[i][j].getRedColor(), pixelArr[i][j].getGreenColor(),
-            pixelArr[i][j].getBlueColor());
-        Pixel pixelNew = new PixelImpl(color);
-        newpixelArr[i][j] = pixelNew;
+        int rgb = raster[i * imageWidth + j];
+        Colour color = new RgbColor(Helper.getRedIntensity(rgb), Helper.getGreenIntensity(rgb),
+            Helper.getBlueIntensity(rgb));
+        newpixelArr[i][j] = new PixelImpl(color);
       }
     }
     return newpixelArr;
   }
 
+  @Override
+  public int[] getRaster() {
+    int[] newRaster = new int[raster.length];
+    System.arraycopy(raster, 0, newRaster, 0, raster.length);
+    return newRaster;
+  }
+
+  @Override
+  public IntBuffer getRasterView() {
+    return IntBuffer.wrap(raster).asReadOnlyBuffer();
+  }
+
+  @Override
+  public int getRgb(int row, int column) {
+    if (row < 0 || row >= imageHeight || column < 0 || column >= imageWidth) {
+      throw new IllegalArgumentException();
+    }
+    return raster[row * imageWidth + column];
+  }
+
+  @Override
+  public void getRow(int row, int[] destination) {
+    Helper.isObjectNull(destination);
+    if (row < 0 || row >= imageHeight || destination.length < imageWidth) {
+      throw new IllegalArgumentException();
+    }
+    System.arraycopy(raster, row * imageWidth, destination, 0, imageWidth);
+  }
+
 }
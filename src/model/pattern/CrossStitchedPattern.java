@@ -9,7 +9,9 @@ import model.pixel.SuperPixelImpl;
 import model.utilities.Helper;
 
 import java.io.IOException;
+import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -27,7 +29,9 @@ public class CrossStitchedPattern implements ImagePattern {
   private final int height;
   private final SuperPixel[][] imageMap;
   private final Map<String, String> legend;
-  private final Pixel[][] pixelArray;
+  private final int[] raster;
+  private final int imageHeight;
+  private final int imageWidth;
 
   /**
    * The default constructor for the cross stitched pattern that is generated for
@@ -48,13 +52,6 @@ public class CrossStitchedPattern implements ImagePattern {
     Helper.isObjectNull(pixelArr[0]);
     Helper.isObjectNull(pixelArr);
 
-    Map<String, String> dmcColorMap;
-    try {
-      dmcColorMap = DmcRbcProperties.getInstance().getDmcPropertiesColorKey();
-    } catch (IOException e) {
-      throw new IOException("Unable to read properties file");
-    }
-
     String dmcColorName = null;
     SuperPixel newSuperPixel = null;
     Colour newSuperPixelColor = null;
@@ -86,14 +83,14 @@ public class CrossStitchedPattern implements ImagePattern {
       this.legend.put(entry.getKey(), entry.getValue());
     }
 
-    this.pixelArray = new PixelImpl[pixelArr.length][pixelArr[0].length];
-    for (int i = 0; i < pixelArr.length; i++) {
-      for (int j = 0; j < pixelArr[0].length; j++) {
-        Colour color = new RgbColor(pixelArr[i][j].getRedColor(), pixelArr[i][j].getGreenColor(),
-            pixelArr[i][j].getBlueColor());
-        Pixel pixelNew = new PixelImpl(color);
-        this.pixelArray[i][j] = pixelNew;
-
+    this.imageHeight = pixelArr.length;
+    this.imageWidth = pixelArr[0].length;
+    this.raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < imageHeight; i++) {
+      for (int j = 0; j < imageWidth; j++) {
+        Helper.isObjectNull(pixelArr[i][j]);
+        this.raster[i * imageWidth + j] = Helper.packColor(pixelArr[i][j].getRedColor(),
+            pixelArr[i][j].getGreenColor(), pixelArr[i][j].getBlueColor());
       }
     }
 
@@ -143,41 +140,70 @@ public class CrossStitchedPattern implements ImagePattern {
   }
 
   @Override
-  public Map<String, String> getLegend() {
-
-    Map<String, String> legend = new TreeMap<String, String>();
-    Set<Entry<String, String>> entries = this.legend.entrySet();
-
-    for (Map.Entry<String, String> entry : entries) {
-      legend.put(entry.getKey(), entry.getValue());
+  public SuperPixel getSuperPixel(int row, int column) {
+    if (row < 0 || row >= height || column < 0 || column >= width) {
+      throw new IllegalArgumentException();
     }
+    return this.imageMap[row][column];
+  }
 
-    return legend;
+  @Override
+  public Map<String, String> getLegend() {
+    return Collections.unmodifiableMap(this.legend);
   }
 
   @Override
   public Pixel[][] getPixelArray() {
-    Pixel[][] newpixelArr = new PixelImpl[pixelArray.length][pixelArray[0].length];
-    for (int i = 0; i < pixelArray.length; i++) {
-      for (int j = 0; j < pixelArray[0].length; j++) {
-        Colour color = new RgbColor(pixelArray[i][j].getRedColor(),
-            pixelArray[i][j].getGreenColor(), pixelArray[i][j].getBlueColor());
-        Pixel pixelNew = new PixelImpl(color);
-        newpixelArr[i][j] = pixelNew;
+    Pixel[][] newpixelArr = new PixelImpl[imageHeight][imageWidth];
+    for (int i = 0; i < imageHeight; i++) {
+      for (int j = 0; j < imageWidth; j++) {
+        int rgb = raster[i * imageWidth + j];
+        Colour color = new RgbColor(Helper.getRedIntensity(rgb), Helper.getGreenIntensity(rgb),
+            Helper.getBlueIntensity(rgb));
+        newpixelArr[i][j] = new PixelImpl(color);
       }
     }
     return newpixelArr;
   }
 
+  @Override
+  public int[] getRaster() {
+    int[] newRaster = new int[raster.length];
+    System.arraycopy(raster, 0, newRaster, 0, raster.length);
+    return newRaster;
+  }
+
+  @Override
+  public IntBuffer getRasterView() {
+    return IntBuffer.wrap(raster).asReadOnlyBuffer();
+  }
+
+  @Override
+  public int getRgb(int row, int column) {
+    if (row < 0 || row >= imageHeight || column < 0 || column >= imageWidth) {
+      throw new IllegalArgumentException();
+    }
+    return raster[row * imageWidth + column];
+  }
+
+  @Override
+  public void getRow(int row, int[] destination) {
+    Helper.isObjectNull(destination);
+    if (row < 0 || row >= imageHeight || destination.length < imageWidth) {
+      throw new IllegalArgumentException();
+    }
+    System.arraycopy(raster, row * imageWidth, destination, 0, imageWidth);
+  }
+
   @Override
   public int getImageHeight() {
-    int height = pixelArray.length;
+    int height = this.imageHeight;
     return height;
   }
 
   @Override
   public int getImageWidth() {
-    int width = pixelArray[0].length;
+    int width = this.imageWidth;
     return width;
   }
 
@@ -0,0 +1,214 @@
+package model.pattern;
+
+import model.pixel.Colour;
+import model.utilities.Helper;
+
+import java.util.Map;
+
+/**
+ * This class represents an index of the DMC floss colors for finding the floss
+ * nearest to a color by the redmean distance. The flosses are stored in a k-d
+ * tree over red, green and blue, so a search visits a few nodes instead of
+ * every floss. The weights of the redmean distance are at least 2, 4 and 2 for
+ * red, green and blue, which bounds the distance to the flosses beyond a split
+ * from below. The search gives the same floss as comparing every floss in the
+ * order of the map, including the first floss winning a tie. An index is
+ * immutable, so it is shared by the threads of a pattern operation.
+ */
+public final class DmcColorIndex {
+
+  private static final int[] AXIS_SHIFTS = {16, 8, 0};
+  private static final int[] AXIS_WEIGHTS = {2, 4, 2};
+
+  private final String[] names;
+  private final int[] colors;
+  // the flosses in the order of the k-d tree, the split of the range from lo to
+  // hi is at (lo + hi) / 2 along the axis stored for it.
+  private final int[] tree;
+  private final int[] axes;
+
+  /**
+   * Constructor for the index of the given DMC floss colors. The order of the
+   * map decides which floss wins a tie.
+   *
+   * @param dmcColorMap the DMC floss colors by the name of the floss.
+   * @throws IllegalArgumentException if the map is null, empty or has a null
+   *                                  color.
+   */
+  public DmcColorIndex(Map<String, Colour> dmcColorMap) {
+    Helper.isObjectNull(dmcColorMap);
+    if (dmcColorMap.isEmpty()) {
+      throw new IllegalArgumentException();
+    }
+    int size = dmcColorMap.size();
+    this.names = new String[size];
+    this.colors = new int[size];
+    int index = 0;
+    for (Map.Entry<String, Colour> entry : dmcColorMap.entrySet()) {
+      Colour color = entry.getValue();
+      Helper.isObjectNull(entry.getKey());
+      Helper.isObjectNull(color);
+      names[index] = entry.getKey();
+      colors[index] = Helper.packColor(color.getRedColor(), color.getGreenColor(),
+          color.getBlueColor());
+      index++;
+    }
+
+    this.tree = new int[size];
+    this.axes = new int[size];
+    for (int i = 0; i < size; i++) {
+      tree[i] = i;
+    }
+    build(0, size);
+  }
+
+  /**
+   * This method builds the tree over the range from lo to hi by splitting it at
+   * its middle along the axis with the widest spread.
+   */
+  private void build(int lo, int hi) {
+    if (hi - lo <= 1) {
+      return;
+    }
+    int axis = 0;
+    int widest = -1;
+    for (int candidate = 0; candidate < AXIS_SHIFTS.length; candidate++) {
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      for (int i = lo; i < hi; i++) {
+        int value = intensity(colors[tree[i]], candidate);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      if (max - min > widest) {
+        widest = max - min;
+        axis = candidate;
+      }
+    }
+    int middle = (lo + hi) >>> 1;
+    select(lo, hi, middle, axis);
+    axes[middle] = axis;
+    build(lo, middle);
+    build(middle + 1, hi);
+  }
+
+  /**
+   * This method moves the floss with the given rank along the axis to the
+   * position of that rank in the range, with the flosses before it not larger
+   * and the flosses after it not smaller.
+   */
+  private void select(int lo, int hi, int rank, int axis) {
+    int left = lo;
+    int right = hi - 1;
+    while (left < right) {
+      int pivot = intensity(colors[tree[(left + right) >>> 1]], axis);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (intensity(colors[tree[i]], axis) < pivot) {
+          i++;
+        }
+        while (intensity(colors[tree[j]], axis) > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int swap = tree[i];
+          tree[i] = tree[j];
+          tree[j] = swap;
+          i++;
+          j--;
+        }
+      }
+      if (rank <= j) {
+        right = j;
+      } else if (rank >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private static int intensity(int rgb, int axis) {
+    return (rgb >> AXIS_SHIFTS[axis]) & 0xFF;
+  }
+
+  /**
+   * This method finds the floss nearest to the given color by the redmean
+   * distance.
+   *
+   * @param rgb the color as 0xRRGGBB.
+   * @return the index of the nearest floss, the first one in the order of the
+   *         map if there is a tie.
+   */
+  public int findNearest(int rgb) {
+    long best = search(rgb & 0xFFFFFF, 0, tree.length, Long.MAX_VALUE);
+    return (int) best;
+  }
+
+  /**
+   * This method searches the range from lo to hi and returns the better of the
+   * given best and the nearest floss of the range, packed as the distance in
+   * the high and the index in the low 32 bits, so that a smaller value is a
+   * nearer floss or an equally near floss earlier in the map.
+   */
+  private long search(int rgb, int lo, int hi, long best) {
+    if (lo >= hi) {
+      return best;
+    }
+    int middle = (lo + hi) >>> 1;
+    int floss = tree[middle];
+    long candidate = ((long) Helper.calDistDeltaSquare(rgb, colors[floss]) << 32) | floss;
+    best = Math.min(best, candidate);
+
+    int axis = axes[middle];
+    int delta = intensity(rgb, axis) - intensity(colors[floss], axis);
+    boolean lower = delta <= 0;
+    best = lower ? search(rgb, lo, middle, best) : search(rgb, middle + 1, hi, best);
+    // the rounding of the distance can make it one less than the bound, so a
+    // side is skipped only when it is sure to be farther.
+    long bound = (long) AXIS_WEIGHTS[axis] * delta * delta;
+    if (bound <= (best >> 32) + 1) {
+      best = lower ? search(rgb, middle + 1, hi, best) : search(rgb, lo, middle, best);
+    }
+    return best;
+  }
+
+  /**
+   * Getter method to get the number of flosses of the index.
+   *
+   * @return the number of flosses.
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Getter method to get the name of a floss.
+   *
+   * @param index the index of the floss.
+   * @return the name of the floss.
+   */
+  public String getName(int index) {
+    return names[index];
+  }
+
+  /**
+   * Getter method to get the color of a floss.
+   *
+   * @param index the index of the floss.
+   * @return the color of the floss as 0xRRGGBB.
+   */
+  public int getColor(int index) {
+    return colors[index];
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("DmcColorIndex [size=");
+    sb.append(names.length);
+    sb.append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,139 @@
+package model.pattern;
+
+import model.pixel.Colour;
+import model.utilities.Helper;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * This class represents the parsed DMC floss colors as parallel primitive
+ * arrays, with the flosses in the order of their names. A floss is found by its
+ * name or by its packed 0xRRGGBB color with a binary search, so no string is
+ * built to look up a color. The palette also keeps the DmcColorIndex of all
+ * its flosses for the nearest floss of a color. A palette is immutable, so a
+ * single one is shared by every thread.
+ */
+public final class DmcPalette {
+
+  private final String[] names;
+  private final int[] colors;
+  private final int[] sortedColors;
+  private final int[] sortedColorFlosses;
+  private final DmcColorIndex colorIndex;
+
+  /**
+   * Constructor for the palette of the given DMC floss colors.
+   *
+   * @param dmcColorMap the DMC floss colors by the name of the floss, in the
+   *                    order of the names.
+   * @throws IllegalArgumentException if the map is null, empty, has a null color
+   *                                  or is not in the order of the names.
+   */
+  public DmcPalette(Map<String, Colour> dmcColorMap) {
+    Helper.isObjectNull(dmcColorMap);
+    this.colorIndex = new DmcColorIndex(dmcColorMap);
+    int size = colorIndex.size();
+    this.names = new String[size];
+    this.colors = new int[size];
+    long[] byColor = new long[size];
+    for (int floss = 0; floss < size; floss++) {
+      names[floss] = colorIndex.getName(floss);
+      colors[floss] = colorIndex.getColor(floss);
+      if (floss > 0 && names[floss - 1].compareTo(names[floss]) >= 0) {
+        throw new IllegalArgumentException();
+      }
+      byColor[floss] = ((long) colors[floss] << 32) | floss;
+    }
+
+    // the flosses sorted by color, the first floss of a color first.
+    Arrays.sort(byColor);
+    this.sortedColors = new int[size];
+    this.sortedColorFlosses = new int[size];
+    for (int i = 0; i < size; i++) {
+      sortedColors[i] = (int) (byColor[i] >> 32);
+      sortedColorFlosses[i] = (int) byColor[i];
+    }
+  }
+
+  /**
+   * Getter method to get the number of flosses of the palette.
+   *
+   * @return the number of flosses.
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Getter method to get the name of a floss.
+   *
+   * @param floss the index of the floss.
+   * @return the name of the floss.
+   */
+  public String getName(int floss) {
+    return names[floss];
+  }
+
+  /**
+   * Getter method to get the color of a floss.
+   *
+   * @param floss the index of the floss.
+   * @return the color of the floss as 0xRRGGBB.
+   */
+  public int getColor(int floss) {
+    return colors[floss];
+  }
+
+  /**
+   * This method finds a floss by its name.
+   *
+   * @param name the name of the floss.
+   * @return the index of the floss, or -1 if there is no floss of that name.
+   */
+  public int indexOfName(String name) {
+    Helper.isObjectNull(name);
+    int floss = Arrays.binarySearch(names, name);
+    return (floss < 0) ? -1 : floss;
+  }
+
+  /**
+   * This method finds a floss by its color.
+   *
+   * @param rgb the color as 0xRRGGBB.
+   * @return the index of the first floss of that color, or -1 if no floss has
+   *         that color.
+   */
+  public int indexOfColor(int rgb) {
+    int lo = 0;
+    int hi = sortedColors.length;
+    while (lo < hi) {
+      int middle = (lo + hi) >>> 1;
+      if (sortedColors[middle] < rgb) {
+        lo = middle + 1;
+      } else {
+        hi = middle;
+      }
+    }
+    return (lo < sortedColors.length && sortedColors[lo] == rgb) ? sortedColorFlosses[lo] : -1;
+  }
+
+  /**
+   * Getter method to get the index for the nearest floss of a color among all
+   * the flosses of the palette.
+   *
+   * @return the DMC color index of the palette.
+   */
+  public DmcColorIndex getColorIndex() {
+    return colorIndex;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer sb = new StringBuffer();
+    sb.append("DmcPalette [size=");
+    sb.append(names.length);
+    sb.append("]");
+    return sb.toString();
+  }
+}
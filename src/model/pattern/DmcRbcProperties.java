@@ -4,6 +4,7 @@ import model.pixel.Colour;
 import model.utilities.Helper;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Map;
 import java.util.Properties;
@@ -13,12 +14,15 @@ import java.util.TreeMap;
  * This class represents the DMC colors that are available for use for the
  * cross-stitched pattern generation. This is a singleton class that can only be
  * instantiated once to save all the DMC floss colors as a Map for comparison.
- * The file is read as a properties file with key value pairs.
+ * The file is read as a properties file with key value pairs, which are parsed
+ * once into unmodifiable maps and a DmcPalette that every caller shares.
  */
 public class DmcRbcProperties {
 
-  private static DmcRbcProperties instance = null;
-  private final Properties dmcProperties;
+  private static volatile DmcRbcProperties instance = null;
+  private final Map<String, Colour> dmcPropertyMap;
+  private final Map<String, String> dmcPropertyColorKeyMap;
+  private final DmcPalette dmcPalette;
 
   /**
    * Private constructor for the Singleton class.
@@ -27,63 +31,74 @@ public class DmcRbcProperties {
    */
   private DmcRbcProperties() throws IOException {
 
-    dmcProperties = new Properties();
+    Properties dmcProperties = new Properties();
     dmcProperties.load(getClass().getResourceAsStream("/dmcProp.properties"));
 
+    Map<String, Colour> colorMap = new TreeMap<String, Colour>();
+    Map<String, String> colorKeyMap = new TreeMap<String, String>();
+    Enumeration dmcColorkey = dmcProperties.propertyNames();
+    while (dmcColorkey.hasMoreElements()) {
+      String dmckey = (String) dmcColorkey.nextElement();
+      String dmcValue = dmcProperties.getProperty(dmckey);
+      colorMap.put(dmckey, Helper.decodeDmcColor(dmcValue));
+      colorKeyMap.put(dmcValue, dmckey);
+    }
+    this.dmcPropertyMap = Collections.unmodifiableMap(colorMap);
+    this.dmcPropertyColorKeyMap = Collections.unmodifiableMap(colorKeyMap);
+    this.dmcPalette = new DmcPalette(colorMap);
   }
 
   /**
-   * This method instantiates the singleton class.
+   * This method instantiates the singleton class. The properties file is read
+   * by the first call only, even when threads call it at the same time.
    *
    * @return an instance for the DmcRbcProperties class
    * @throws IOException for file read issues
    */
   public static DmcRbcProperties getInstance() throws IOException {
-    if (instance == null) {
+    DmcRbcProperties current = instance;
+    if (current == null) {
       synchronized (DmcRbcProperties.class) {
-        instance = new DmcRbcProperties();
+        current = instance;
+        if (current == null) {
+          current = new DmcRbcProperties();
+          instance = current;
+        }
       }
-
     }
-    return instance;
+    return current;
   }
 
   /**
-   * This is a getter method to generate a map for the properties file for the DMC
-   * floss colors that are available with  with key as the dmc color name.
+   * This is a getter method to get a map for the properties file for the DMC
+   * floss colors that are available with key as the dmc color name. The map is
+   * parsed once and cannot be modified.
    *
    * @return a map for the DMC floss colors with key.
    */
   public Map<String, Colour> getDmcProperties() {
-    Map<String, Colour> dmcPropertyMap = new TreeMap<String, Colour>();
-    Colour dmcColor = null;
-    Enumeration dmcColorkey = dmcProperties.propertyNames();
-    while (dmcColorkey.hasMoreElements()) {
-      String dmckey = (String) dmcColorkey.nextElement();
-      dmcColor = Helper.decodeDmcColor(dmcProperties.getProperty(dmckey));
-      dmcPropertyMap.put(dmckey, dmcColor );
-    }
-
     return dmcPropertyMap;
-
   }
-  
+
   /**
-   * This is a getter method to generate a map for the properties file for the DMC
-   * floss colors that are available  with key as the color.
+   * This is a getter method to get a map for the properties file for the DMC
+   * floss colors that are available with key as the color. The map is parsed
+   * once and cannot be modified.
    *
    * @return a map for the DMC floss colors with key as the color.
    */
   public Map<String, String> getDmcPropertiesColorKey() {
-    Map<String, String> dmcPropertyMap = new TreeMap<String, String>();
-    Enumeration dmcColorkey = dmcProperties.propertyNames();
-    while (dmcColorkey.hasMoreElements()) {
-      String dmckey = (String) dmcColorkey.nextElement();
-      dmcPropertyMap.put(dmcProperties.getProperty(dmckey), dmckey );
-    }
-
-    return dmcPropertyMap;
+    return dmcPropertyColorKeyMap;
+  }
 
+  /**
+   * This is a getter method to get the DMC floss colors as a palette of
+   * primitive arrays, to look a floss up by its name or by its packed color.
+   *
+   * @return the palette of the DMC floss colors.
+   */
+  public DmcPalette getPalette() {
+    return dmcPalette;
   }
 
 }
@@ -35,9 +35,19 @@ public interface ImagePattern extends Image {
    */
   SuperPixel[][] getImageMap();
 
+  /**
+   * Getter method to get a single super pixel of the cross-stitched image map
+   * without copying the image map.
+   *
+   * @param row    the row of the super pixel in the image map
+   * @param column the column of the super pixel in the image map
+   * @return the super pixel at the given row and column
+   */
+  SuperPixel getSuperPixel(int row, int column);
+
   /**
    * Getter method to get the legend map for all the DMC colors available for use
-   * as generated from the DMC Properties file.
+   * as generated from the DMC Properties file. The legend is a read-only view.
    *
    * @return a map with key as DMC color.
    */
@@ -16,6 +16,10 @@ public class Constant {
 
   public static final int TRANSFORMATION_MATRIX_SIZE = 3;
 
+  public static final int FIXED_POINT_SHIFT = 16;
+
+  public static final int FIXED_POINT_HALF = 1 << (FIXED_POINT_SHIFT - 1);
+
   public static final float[] BLUR_KERNEL_MATRIX = new float[]{
 
       1f / 16f, 1f / 8f, 1f / 16f,
@@ -1,28 +1,23 @@
 package model.utilities;
 
 import model.exception.ModelValidationException;
-import model.imageprocessor.MatrixType;
-import model.imageprocessor.PixelateImageMatrix;
 import model.images.Channel;
 import model.images.Image;
-import model.pattern.DmcRbcProperties;
 import model.pixel.Colour;
-import model.pixel.Pixel;
-import model.pixel.PixelImpl;
 import model.pixel.Position;
 import model.pixel.PositionImpl;
 import model.pixel.RgbColor;
-import model.pixel.SuperPixel;
-import model.pixel.SuperPixelImpl;
 
 import java.io.File;
-import java.io.IOException;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents helper class which contains static methods and utility
@@ -31,6 +26,15 @@ import java.util.Random;
 
 public class Helper {
 
+  /**
+   * The largest number of intensities whose quantization table is cached. A
+   * larger number gives one of few distinct tables and is computed on every
+   * call, so a script of many large numbers cannot grow the cache.
+   */
+  private static final int QUANTIZATION_CACHE_LIMIT = Constant.COLOR_MAX + 1;
+
+  private static final Map<Integer, int[]> QUANTIZATION_TABLES = new ConcurrentHashMap<>();
+
   /**
    * This method validate whether colors red, blue or green is within the range 0
    * and 256.
@@ -90,38 +94,84 @@ public class Helper {
   }
 
   /**
-   * This method is used to apply padding to an array to ease the application of a
-   * kernel i.e. a multiplication operation.
+   * This method clamps a color intensity to the range 0-255. All the values below
+   * 0 are changed to 0 and all the values above 255 are changed to 255.
    *
-   * @param imageArr        The input image array.
-   * @param numberOfPadding The number of padding to add across.
-   * @return A 2D Pixel array with padding.
+   * @param value the color intensity.
+   * @return the clamped color intensity.
    */
-  public static Pixel[][] padChannel(Pixel[][] imageArr, int numberOfPadding) {
-    isObjectNull(imageArr);
+  public static int toClampColorValue(int value) {
+    if (value < Constant.COLOR_MIN) {
+      return Constant.COLOR_MIN;
+    } else if (value > Constant.COLOR_MAX) {
+      return Constant.COLOR_MAX;
+    }
+    return value;
+  }
 
-    Colour color = new RgbColor(0, 0, 0);
-    Pixel pixelNew = new PixelImpl(color);
-    isObjectNull(imageArr[0]);
+  /**
+   * This method packs the red, green and blue intensities into a single int in
+   * the 0xRRGGBB layout used by the image raster. The intensities are clamped to
+   * the range 0-255 before they are packed.
+   *
+   * @param red   the red intensity.
+   * @param green the green intensity.
+   * @param blue  the blue intensity.
+   * @return an int with the packed RGB intensities.
+   */
+  public static int packColor(int red, int green, int blue) {
+    return (toClampColorValue(red) << 16) | (toClampColorValue(green) << 8)
+        | toClampColorValue(blue);
+  }
 
-    Pixel[][] newPadArr = new PixelImpl[imageArr.length + numberOfPadding * 2][imageArr[0].length
-        + numberOfPadding * 2];
-    isObjectNull(newPadArr);
+  /**
+   * This method gets the red intensity from a packed RGB pixel.
+   *
+   * @param rgb the packed RGB pixel.
+   * @return the red intensity.
+   */
+  public static int getRedIntensity(int rgb) {
+    return (rgb >> 16) & 0xFF;
+  }
 
-    for (int i = 0; i < newPadArr.length; i++) {
+  /**
+   * This method gets the green intensity from a packed RGB pixel.
+   *
+   * @param rgb the packed RGB pixel.
+   * @return the green intensity.
+   */
+  public static int getGreenIntensity(int rgb) {
+    return (rgb >> 8) & 0xFF;
+  }
 
-      isObjectNull(newPadArr[i]);
-      for (int j = 0; j < newPadArr[i].length; j++) {
-        newPadArr[i][j] = pixelNew;
-      }
-    }
-    for (int i = 0; i < imageArr.length; i++) {
-      isObjectNull(imageArr[i]);
-      for (int j = 0; j < imageArr[i].length; j++) {
-        newPadArr[i + numberOfPadding][j + numberOfPadding] = imageArr[i][j];
-      }
+  /**
+   * This method gets the blue intensity from a packed RGB pixel.
+   *
+   * @param rgb the packed RGB pixel.
+   * @return the blue intensity.
+   */
+  public static int getBlueIntensity(int rgb) {
+    return rgb & 0xFF;
+  }
+
+  /**
+   * This method converts a weight of a kernel or a transformation matrix to a
+   * fixed point integer with FIXED_POINT_SHIFT fractional bits, rounded to the
+   * nearest value. A weight times the largest intensity must fit into an int in
+   * this format, so the weight must lie between -128 and 128.
+   *
+   * @param value the weight to convert.
+   * @return the weight in fixed point format.
+   * @throws IllegalArgumentException if the weight is not a number or too large.
+   */
+  public static int toFixedPoint(float value) {
+    double scaled = (double) value * (1 << Constant.FIXED_POINT_SHIFT);
+    if (Double.isNaN(scaled)
+        || (Math.abs(scaled) + 1) * Constant.COLOR_MAX + Constant.FIXED_POINT_HALF
+        > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException();
     }
-    return newPadArr;
+    return (int) Math.round(scaled);
   }
 
   /**
@@ -150,8 +200,7 @@ public class Helper {
     int min = 0;
 
     for (int i = 0; i < maxNumbers - 1; i++) {
-      int step = min + i * (max - min) / maxNumbers;
-      colorPalette.add(step);
+      colorPalette.add(equallySpacedStep(i, maxNumbers));
     }
 
     colorPalette.add(max);
@@ -160,6 +209,52 @@ public class Helper {
 
   }
 
+  /**
+   * This method finds the median of every channel of a run of packed colors. A
+   * run of up to 256 colors sorts its intensities and a longer one counts them
+   * in a histogram, so a run costs its length plus at most 256 steps per
+   * channel. The median of an even number of colors is the lower one.
+   *
+   * @param colors  the packed colors.
+   * @param start   the index of the first color of the run.
+   * @param size    the number of colors of the run, at least one.
+   * @param scratch an array of at least 256 ints that is overwritten, so that
+   *                the caller can reuse it for many runs.
+   * @return the packed color of the medians of the channels.
+   */
+  public static int getMedianColor(int[] colors, int start, int size, int[] scratch) {
+    isObjectNull(colors);
+    isObjectNull(scratch);
+    int levels = Constant.COLOR_MAX + 1;
+    if (isNotNegativeOrZero(size) || start < 0 || start + size > colors.length
+        || scratch.length < levels) {
+      throw new IllegalArgumentException();
+    }
+    int middle = (size - 1) / 2;
+    int rgb = 0;
+    for (int shift = 16; shift >= 0; shift -= 8) {
+      int median;
+      if (size <= levels) {
+        for (int p = 0; p < size; p++) {
+          scratch[p] = (colors[start + p] >> shift) & 0xFF;
+        }
+        Arrays.sort(scratch, 0, size);
+        median = scratch[middle];
+      } else {
+        Arrays.fill(scratch, 0, levels, 0);
+        for (int p = start; p < start + size; p++) {
+          scratch[(colors[p] >> shift) & 0xFF]++;
+        }
+        median = 0;
+        for (int seen = scratch[0]; seen <= middle; seen += scratch[median]) {
+          median++;
+        }
+      }
+      rgb = (rgb << 8) | median;
+    }
+    return rgb;
+  }
+
   /**
    * This method gives the nearest value in the equally spaced intensities to
    * apply image reduction.
@@ -169,17 +264,80 @@ public class Helper {
    * @return The intensity that is nearest to the input num.
    */
   public static int getNearestColor(int num, int maxNumbers) {
-    List<Integer> paletteRange = getEquallySpacedIntensity(maxNumbers);
+    int[] table = getCachedQuantizationTable(maxNumbers);
+    return table[toClampColorValue(num)];
 
-    if (paletteRange == null) {
-      throw new IllegalArgumentException();
+  }
+
+  /**
+   * This method gives the table of the nearest values in the equally spaced
+   * intensities for every intensity from 0 to 255, so that image reduction is a
+   * lookup per channel. The entry of an intensity is the same as
+   * getNearestColor(intensity, maxNumbers), and a value outside the range has
+   * the same nearest value as the closest end of the range. The tables of up to
+   * 256 intensities are computed once per number of intensities, the larger
+   * ones on every call, and the caller gets a copy.
+   *
+   * @param maxNumbers The total number of equally spaced intensities.
+   * @return A table of the 256 nearest intensities.
+   */
+  public static int[] getQuantizationTable(int maxNumbers) {
+    return getCachedQuantizationTable(maxNumbers).clone();
+  }
+
+  private static int[] getCachedQuantizationTable(int maxNumbers) {
+    if (maxNumbers > QUANTIZATION_CACHE_LIMIT) {
+      return createQuantizationTable(maxNumbers);
     }
+    return QUANTIZATION_TABLES.computeIfAbsent(maxNumbers, Helper::createQuantizationTable);
+  }
 
-    int nearestIntensity = paletteRange.stream()
-        .min(Comparator.comparingInt(i -> Math.abs(i - num)))
-        .orElseThrow(() -> new IllegalArgumentException("Value not found"));
-    return nearestIntensity;
+  /**
+   * This method computes the quantization table from the equally spaced
+   * intensities of getEquallySpacedIntensity without building the list. The
+   * intensities only grow along the list, so an intensity is in the list if the
+   * first index that can give it does, and a tie goes to the smaller intensity
+   * as it comes first in the list. The cost is the same for any number of
+   * intensities.
+   */
+  private static int[] createQuantizationTable(int maxNumbers) {
+    int levels = Constant.COLOR_MAX + 1;
+    int max = 255;
+    int min = 0;
+    boolean[] inList = new boolean[levels];
+    for (int intensity = min; intensity < max; intensity++) {
+      // the smallest index whose step is at least the intensity.
+      long index = -Math.floorDiv(-(long) (intensity - min) * maxNumbers, max - min);
+      inList[intensity] = index >= 0 && index < (long) maxNumbers - 1
+          && equallySpacedStep(index, maxNumbers) == intensity;
+    }
+    inList[max] = true;
+
+    int[] table = new int[levels];
+    for (int num = 0; num < levels; num++) {
+      for (int distance = 0; ; distance++) {
+        if (num - distance >= 0 && inList[num - distance]) {
+          table[num] = num - distance;
+          break;
+        }
+        if (num + distance < levels && inList[num + distance]) {
+          table[num] = num + distance;
+          break;
+        }
+      }
+    }
+    return table;
+  }
 
+  /**
+   * This method gives the intensity at a stepped index of the equally spaced
+   * intensities. The product is a long, so it does not overflow for any number
+   * of intensities.
+   */
+  private static int equallySpacedStep(long index, int maxNumbers) {
+    int max = 255;
+    int min = 0;
+    return (int) (min + index * (max - min) / maxNumbers);
   }
 
   /**
@@ -197,31 +355,46 @@ public class Helper {
   }
 
   /**
-   * This method iterates over the passed image array to look and capture random
+   * This method looks over the dimensions of the passed image to capture random
    * position across the image to collect as seed for applying the image mosaic
    * for a given image.
    *
-   * @param seedLength    the number of seed to capture in the image
-   * @param pixelImgArray the given input image array
+   * @param seedLength  the number of seed to capture in the image
+   * @param imageHeight the height of the given input image
+   * @param imageWidth  the width of the given input image
+   * @return a Position[] array containing random Positions
+   */
+  public static Position[] chooseRandomSeed(int seedLength, int imageHeight, int imageWidth) {
+    return chooseRandomSeed(seedLength, imageHeight, imageWidth, new SplittableRandom());
+  }
+
+  /**
+   * This method looks over the dimensions of the passed image to capture random
+   * position across the image to collect as seed for applying the image mosaic
+   * for a given image. The positions are drawn from the given random generator,
+   * so a generator with a fixed seed always captures the same positions.
+   *
+   * @param seedLength  the number of seed to capture in the image
+   * @param imageHeight the height of the given input image
+   * @param imageWidth  the width of the given input image
+   * @param random      the random generator of the positions
    * @return a Position[] array containing random Positions
+   * @throws IllegalArgumentException if a length is zero or negative, or the
+   *                                  generator is null.
    */
-  public static Position[] chooseRandomSeed(int seedLength, Pixel[][] pixelImgArray) {
+  public static Position[] chooseRandomSeed(int seedLength, int imageHeight, int imageWidth,
+      SplittableRandom random) {
 
-    isNotNegativeOrZero(seedLength);
-    isObjectNull(pixelImgArray);
-    isObjectNull(pixelImgArray[0]);
+    if (isNotNegativeOrZero(seedLength) || isNotNegativeOrZero(imageHeight)
+        || isNotNegativeOrZero(imageWidth)) {
+      throw new IllegalArgumentException();
+    }
+    isObjectNull(random);
 
     Position[] seedPostionArray = new PositionImpl[seedLength];
-    int maxHeight = pixelImgArray.length - 1;
-    int maxWidth = pixelImgArray[0].length - 1;
-    int min = 0;
-    Position seedPostion = null;
     for (int i = 0; i < seedLength; i++) {
-
-      int randomHeightPos = (int) (Math.random() * ((maxHeight - min) + 1)) + min;
-      int randomWidthPos = (int) (Math.random() * ((maxWidth - min) + 1)) + min;
-      seedPostion = new PositionImpl(randomHeightPos, randomWidthPos);
-      seedPostionArray[i] = seedPostion;
+      seedPostionArray[i] = new PositionImpl(random.nextInt(imageHeight),
+          random.nextInt(imageWidth));
     }
 
     return seedPostionArray;
@@ -260,10 +433,29 @@ public class Helper {
     Helper.isObjectNull(first);
     Helper.isObjectNull(second);
 
-    float redMean = (first.getRedColor() + second.getRedColor()) / 2;
-    float deltaRedSq = (float) Math.pow((first.getRedColor() - second.getRedColor()), 2);
-    float deltaGreenSq = (float) Math.pow((first.getGreenColor() - second.getGreenColor()), 2);
-    float deltaBlueSq = (float) Math.pow((first.getBlueColor() - second.getBlueColor()), 2);
+    return calDistDeltaSquare(packColor(first.getRedColor(), first.getGreenColor(),
+        first.getBlueColor()), packColor(second.getRedColor(), second.getGreenColor(),
+        second.getBlueColor()));
+  }
+
+  /**
+   * This method calculates the redmean distance between two packed colors, with
+   * the same result as the distance between the colors as Colour objects but
+   * without making any object.
+   *
+   * @param first  the first color as 0xRRGGBB
+   * @param second the second color as 0xRRGGBB
+   * @return an int value representing distance between colors
+   */
+  public static int calDistDeltaSquare(int first, int second) {
+    int firstRed = getRedIntensity(first);
+    int secondRed = getRedIntensity(second);
+    float redMean = (firstRed + secondRed) / 2;
+    float deltaRedSq = (firstRed - secondRed) * (firstRed - secondRed);
+    int deltaGreen = getGreenIntensity(first) - getGreenIntensity(second);
+    float deltaGreenSq = deltaGreen * deltaGreen;
+    int deltaBlue = getBlueIntensity(first) - getBlueIntensity(second);
+    float deltaBlueSq = deltaBlue * deltaBlue;
     int result = Math.round((2 + redMean / 256) * deltaRedSq + 4 * deltaGreenSq
         + (2 + (255 - redMean) / 256) * deltaBlueSq);
     return result;
@@ -319,318 +511,12 @@ public class Helper {
    */
   public static void imageChecks(Image image) {
     Helper.isObjectNull(image);
-    Pixel[][] imagePixelArr = image.getPixelArray();
-    Helper.isObjectNull(imagePixelArr);
-    Helper.isObjectNull(imagePixelArr[0]);
-    Helper.isNotEqual(image.getImageHeight(), imagePixelArr.length);
-    Helper.isNotEqual(image.getImageWidth(), imagePixelArr[0].length);
-  }
-
-  /**
-   * This method perform the pixelation of an image to generate an pixelated image
-   * with chunking.
-   * 
-   * @param imgPixelArr          the input image of pixel array
-   * @param pixelation           pixelation parameter
-   * @param matrixTransformation matrixtransformation performed for image
-   *                             pixelation or pattern generation text
-   * @legend legend map which contains superpixel unicode symbol and dmc color
-   * @return pixel array of image
-   * @throws IOException for IO issue
-   */
-  public static Map<String, Object> imageChunkingOnSuperPixel(Pixel[][] imgPixelArr, int pixelation,
-      String matrixTransformation, Map<String, String> legend) throws IOException {
-    if (null == imgPixelArr || null == matrixTransformation || null == legend) {
-      throw new IllegalArgumentException();
-    }
-    Map<String, Object> resultMap = new HashMap<String, Object>();
-    boolean superPixelTwoWidth = false;
-    boolean superPixelTwoHeight = false;
-    Map<String, Integer> iMap = new HashMap<>();
-    iMap.put("pixelation", pixelation);
-
-    int imageWidth = imgPixelArr[0].length;
-    int imageHeight = imgPixelArr.length;
-
-    if (imageWidth % pixelation == 0) {
-      iMap.put("superPixelWidth", imageWidth / pixelation);
-      iMap.put("occrenceWidth", pixelation);
-    } else {
-      superPixelTwoWidth = true;
-      iMap.put("superPixelWidth", imageWidth / pixelation);
-      iMap.put("occrenceWidth", Helper.calculateOccurrence(imageWidth, pixelation));
-    }
-
-    if (imageHeight % iMap.get("superPixelWidth") == 0) {
-      iMap.put("superPixelHeight", imageWidth / pixelation);
-      iMap.put("occrenceHeight", pixelation);
-    } else {
-      superPixelTwoHeight = true;
-      iMap.put("superPixelHeight", imageWidth / pixelation);
-      iMap.put("occrenceHeight",
-          Helper.calculateOccurrenceHeight(imageHeight, iMap.get("superPixelWidth")));
-    }
-
-    int superPixelMatrixWidth = iMap.get("occrenceWidth") * iMap.get("superPixelWidth");
-    int superPixelMatrixHeight = iMap.get("occrenceHeight") * iMap.get("superPixelHeight");
-
-    if (!superPixelTwoHeight && !superPixelTwoWidth) {
-
-      resultMap = Helper.imagePixelationOnMatrix(imgPixelArr, iMap,
-          PixelateImageMatrix.SUPERPIXEL_ONE_WIDTH_ONE_HEIGHT.toString(), imgPixelArr.length,
-          imgPixelArr[0].length, matrixTransformation, pixelation, legend);
-
-    } else if (!superPixelTwoHeight && superPixelTwoWidth) {
-
-      resultMap = Helper.imagePixelationOnMatrix(imgPixelArr, iMap,
-          PixelateImageMatrix.SUPERPIXEL_TWO_WIDTH_ONE_HEIGHT.toString(), imgPixelArr.length,
-          superPixelMatrixWidth, matrixTransformation, pixelation, legend);
-
-    } else if (superPixelTwoHeight && !superPixelTwoWidth) {
-      resultMap = Helper.imagePixelationOnMatrix(imgPixelArr, iMap,
-          PixelateImageMatrix.SUPERPIXEL_ONE_WIDTH_TWO_HEIGHT.toString(), superPixelMatrixHeight,
-          imgPixelArr[0].length, matrixTransformation, pixelation, legend);
-    } else if (superPixelTwoHeight && superPixelTwoWidth) {
-      resultMap = Helper.imagePixelationOnMatrix(imgPixelArr, iMap,
-          PixelateImageMatrix.SUPERPIXEL_TWO_WIDTH_TWO_HEIGHT.toString(), superPixelMatrixHeight,
-          superPixelMatrixWidth, matrixTransformation, pixelation, legend);
-    } else {
+    IntBuffer raster = image.getRasterView();
+    Helper.isObjectNull(raster);
+    Helper.isNotEqual(image.getImageHeight() * image.getImageWidth(), raster.remaining());
+    if (raster.remaining() == 0) {
       throw new IllegalArgumentException();
     }
-
-    return resultMap;
-  }
-
-  /**
-   * This method perform the pixelation of an image to generate an pixelated image
-   * with chunking on image matrix. The passed argument of instruction map is
-   * executed for 4 scenarios depending on the variation in the height and the
-   * width of superpixel.
-   *
-   * @param imgPixelArr         the input image pixel array
-   * @param iMap                the input instruction map
-   * @param pixelateImgMatrix   the identified scenario in PixelateImgMatrix
-   * @param matrixInitialHeight the image height based on scenario
-   * @param matrixInitialWidth  the image width based on scenario
-   * @param matrixType          the operation is for pixelation or pattern
-   *                            generation image or pattern generation text
-   * @param pixelation          the pixelation parameter
-   * @return a Pixel[][] array for the resultant image after pixelation
-   * @throws IOException for IO issue
-   */
-  private static Map<String, Object> imagePixelationOnMatrix(Pixel[][] imgPixelArr,
-      Map<String, Integer> iMap, String pixelateImgMatrix, int matrixInitialHeight,
-      int matrixInitialWidth, String matrixType, int pixelation, Map<String, String> legend)
-      throws IOException {
-
-    if (null == imgPixelArr || null == iMap || null == iMap.get("superPixelWidth")
-        || null == iMap.get("superPixelHeight") || null == iMap.get("occrenceWidth")
-        || null == iMap.get("occrenceHeight") || null == pixelateImgMatrix || null == matrixType
-        || null == legend) {
-      throw new IllegalArgumentException();
-    }
-
-    Pixel[][] newImagePixelMatrix = null;
-    SuperPixel[][] newSuperPixelImageMatrix = null;
-    Map<String, Object> resultMap = new HashMap<String, Object>();
-
-    if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-      int height = imgPixelArr.length / iMap.get("superPixelWidth");
-      newSuperPixelImageMatrix = new SuperPixelImpl[height][pixelation];
-    } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-      newImagePixelMatrix = new PixelImpl[imgPixelArr.length][imgPixelArr[0].length];
-    }
-
-    int superPixelMatrixWidth = iMap.get("occrenceWidth") * iMap.get("superPixelWidth");
-    int superPixelMatrixHeight = iMap.get("occrenceHeight") * iMap.get("superPixelHeight");
-    int superPixelWidthOne = (iMap.get("superPixelWidth") + 1);
-    int superPixelHeightOne = (iMap.get("superPixelHeight") + 1);
-    iMap.put("startHeight", 0);
-    iMap.put("startWidth", 0);
-    iMap.put("matrixHeight", matrixInitialHeight);
-    iMap.put("matrixWidth", matrixInitialWidth);
-
-    if (PixelateImageMatrix.SUPERPIXEL_TWO_WIDTH_ONE_HEIGHT.toString().equals(pixelateImgMatrix)) {
-      if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-        newSuperPixelImageMatrix = imageSuperPixelOnSubMatrix(imgPixelArr, newSuperPixelImageMatrix,
-            iMap, matrixType, legend);
-      } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-        newImagePixelMatrix = imagePixelationOnSubMatrix(imgPixelArr, newImagePixelMatrix, iMap,
-            matrixType);
-      }
-
-      iMap.put("matrixWidth", imgPixelArr[0].length);
-      iMap.put("superPixelWidth", superPixelWidthOne);
-      iMap.put("startWidth", superPixelMatrixWidth);
-
-    } else if (PixelateImageMatrix.SUPERPIXEL_ONE_WIDTH_TWO_HEIGHT.toString()
-        .equals(pixelateImgMatrix)) {
-
-      if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-        newSuperPixelImageMatrix = imageSuperPixelOnSubMatrix(imgPixelArr, newSuperPixelImageMatrix,
-            iMap, matrixType, legend);
-      } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-
-        newImagePixelMatrix = imagePixelationOnSubMatrix(imgPixelArr, newImagePixelMatrix, iMap,
-            matrixType);
-      }
-      iMap.put("matrixHeight", imgPixelArr.length);
-      iMap.put("superPixelHeight", superPixelHeightOne);
-      iMap.put("startHeight", superPixelMatrixHeight);
-
-    } else if (PixelateImageMatrix.SUPERPIXEL_TWO_WIDTH_TWO_HEIGHT.toString()
-        .equals(pixelateImgMatrix)) {
-
-      if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-        newSuperPixelImageMatrix = imageSuperPixelOnSubMatrix(imgPixelArr, newSuperPixelImageMatrix,
-            iMap, matrixType, legend);
-      } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-        newImagePixelMatrix = imagePixelationOnSubMatrix(imgPixelArr, newImagePixelMatrix, iMap,
-            matrixType);
-      }
-
-      iMap.put("matrixWidth", imgPixelArr[0].length);
-      iMap.put("superPixelWidth", superPixelWidthOne);
-      iMap.put("startWidth", superPixelMatrixWidth);
-
-      if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-        newSuperPixelImageMatrix = imageSuperPixelOnSubMatrix(imgPixelArr, newSuperPixelImageMatrix,
-            iMap, matrixType, legend);
-      } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-        newImagePixelMatrix = imagePixelationOnSubMatrix(imgPixelArr, newImagePixelMatrix, iMap,
-            matrixType);
-      }
-
-      iMap.put("matrixWidth", superPixelMatrixWidth);
-      iMap.put("superPixelWidth", superPixelWidthOne - 1);
-      iMap.put("startWidth", 0);
-      iMap.put("matrixHeight", imgPixelArr.length);
-      iMap.put("superPixelHeight", superPixelHeightOne);
-      iMap.put("startHeight", superPixelMatrixHeight);
-
-      if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-        newSuperPixelImageMatrix = imageSuperPixelOnSubMatrix(imgPixelArr, newSuperPixelImageMatrix,
-            iMap, matrixType, legend);
-      } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-        newImagePixelMatrix = imagePixelationOnSubMatrix(imgPixelArr, newImagePixelMatrix, iMap,
-            matrixType);
-      }
-
-      iMap.put("matrixWidth", imgPixelArr[0].length);
-      iMap.put("superPixelWidth", superPixelWidthOne);
-      iMap.put("startWidth", superPixelMatrixWidth);
-    }
-    if (MatrixType.TRANSFORMATION_PATTERN_TEXT.toString().equals(matrixType)) {
-      newSuperPixelImageMatrix = imageSuperPixelOnSubMatrix(imgPixelArr, newSuperPixelImageMatrix,
-          iMap, matrixType, legend);
-      resultMap.put(matrixType, newSuperPixelImageMatrix);
-    } else if (MatrixType.TRANSFORMATION_PIXELATE.toString().equals(matrixType)) {
-      newImagePixelMatrix = imagePixelationOnSubMatrix(imgPixelArr, newImagePixelMatrix, iMap,
-          matrixType);
-      resultMap.put(matrixType, newImagePixelMatrix);
-    }
-
-    return resultMap;
-  }
-
-  private static Pixel[][] imagePixelationOnSubMatrix(Pixel[][] imgPixelArr,
-      Pixel[][] newImagePixelMatrix, Map<String, Integer> iMap, String matrixTransformation) {
-
-    if (null == imgPixelArr || null == iMap || null == newImagePixelMatrix
-        || iMap.get("matrixHeight") == null || iMap.get("matrixWidth") == null
-        || iMap.get("superPixelHeight") == null || iMap.get("superPixelWidth") == null
-        || iMap.get("startHeight") == null || iMap.get("startWidth") == null
-        || matrixTransformation == null) {
-      throw new IllegalArgumentException();
-    }
-
-    int centerSuperPixelHeight = 0;
-    int centerSuperPixelWidth = 0;
-
-    for (int i = iMap.get("startHeight"); i < iMap.get("matrixHeight"); i = i
-        + iMap.get("superPixelHeight")) {
-      for (int j = iMap.get("startWidth"); j < iMap.get("matrixWidth"); j = j
-          + iMap.get("superPixelWidth")) {
-        centerSuperPixelHeight = i + iMap.get("superPixelHeight") / 2;
-        centerSuperPixelWidth = j + iMap.get("superPixelWidth") / 2;
-        for (int m = 0; m < iMap.get("superPixelHeight"); m++) {
-
-          for (int n = 0; n < iMap.get("superPixelWidth"); n++) {
-            newImagePixelMatrix[i + m][j
-                + n] = imgPixelArr[centerSuperPixelHeight][centerSuperPixelWidth];
-          }
-        }
-      }
-    }
-
-    return newImagePixelMatrix;
-  }
-
-  private static SuperPixel[][] imageSuperPixelOnSubMatrix(Pixel[][] imgPixelArr,
-      SuperPixel[][] newImagePixelMatrix, Map<String, Integer> iMap, String matrixTransformation,
-      Map<String, String> legend) throws IOException {
-
-    if (null == imgPixelArr || null == iMap || null == newImagePixelMatrix
-        || iMap.get("matrixHeight") == null || iMap.get("matrixWidth") == null
-        || iMap.get("superPixelHeight") == null || iMap.get("superPixelWidth") == null
-        || iMap.get("startHeight") == null || iMap.get("startWidth") == null
-        || matrixTransformation == null || null == legend) {
-      throw new IllegalArgumentException();
-    }
-
-    int centerSuperPixelHeight = 0;
-    int centerSuperPixelWidth = 0;
-
-    int m = 0;
-    if (iMap.get("startHeight") != 0) {
-      m = iMap.get("startHeight") / (iMap.get("superPixelHeight") - 1);
-    }
-    int startWidthN = 0;
-    if (iMap.get("startWidth") != 0) {
-      startWidthN = iMap.get("startWidth") / (iMap.get("superPixelWidth") - 1);
-    }
-    Colour newColor = null;
-    for (int i = iMap.get("startHeight"); i < iMap.get("matrixHeight"); i = i
-        + iMap.get("superPixelHeight")) {
-      int n = startWidthN;
-      for (int j = iMap.get("startWidth"); j < iMap.get("matrixWidth"); j = j
-          + iMap.get("superPixelWidth")) {
-        centerSuperPixelHeight = i + iMap.get("superPixelHeight") / 2;
-        centerSuperPixelWidth = j + iMap.get("superPixelWidth") / 2;
-
-        int red = imgPixelArr[centerSuperPixelHeight][centerSuperPixelWidth].getRedColor();
-        int green = imgPixelArr[centerSuperPixelHeight][centerSuperPixelWidth].getGreenColor();
-        int blue = imgPixelArr[centerSuperPixelHeight][centerSuperPixelWidth].getBlueColor();
-        newColor = new RgbColor(red, green, blue);
-
-        Map<String, String> dmcColorMap;
-        try {
-          dmcColorMap = DmcRbcProperties.getInstance().getDmcPropertiesColorKey();
-        } catch (IOException e) {
-          throw new IOException("Unable to read properties file");
-        }
-
-        String dmcColorName = null;
-        if (null != dmcColorMap) {
-          StringBuilder strBuilder = new StringBuilder();
-          strBuilder.append(String.valueOf(red) + ",");
-          strBuilder.append(String.valueOf(green) + ",");
-          strBuilder.append(String.valueOf(blue));
-          dmcColorName = dmcColorMap.get(strBuilder.toString());
-
-        } else {
-          throw new IllegalArgumentException("Dmc color list could not be loaded. ");
-        }
-        int height = iMap.get("superPixelHeight");
-        int width = iMap.get("superPixelWidth");
-        newImagePixelMatrix[m][n] = new SuperPixelImpl(newColor, centerSuperPixelHeight,
-            centerSuperPixelWidth, legend.get(dmcColorName), dmcColorName, height, width);
-        n++;
-      }
-      m++;
-    }
-
-    return newImagePixelMatrix;
   }
 
   /**
@@ -699,23 +585,35 @@ public class Helper {
    * @return an int value
    */
   public static int generateRandomIntegerValue() {
-    Random rand = new Random(); // instance of random class
+    return generateRandomIntegerValue(new SplittableRandom());
+  }
+
+  /**
+   * Method to generate random integer values within specific range from the
+   * given random generator. The values outside the ranges of printable symbols
+   * are drawn again.
+   * 
+   * @param random the random generator of the values
+   * @return an int value
+   */
+  public static int generateRandomIntegerValue(SplittableRandom random) {
+    isObjectNull(random);
     int min = 33;
     int upperbound = 700;
-    int intRandom = rand.nextInt((upperbound - min)) + min;
-
-    if (intRandom >= 33 && intRandom <= 45) {
-      return intRandom;
-    } else if (intRandom >= 47 && intRandom <= 126) {
-      return intRandom;
-    } else if (intRandom >= 161 && intRandom <= 172) {
-      return intRandom;
-    } else if (intRandom >= 174 && intRandom <= 591) {
-      return intRandom;
-    } else if (intRandom >= 647 && intRandom <= 669) {
-      return intRandom;
-    } else {
-      return generateRandomIntegerValue();
+    while (true) {
+      int intRandom = random.nextInt(min, upperbound);
+
+      if (intRandom >= 33 && intRandom <= 45) {
+        return intRandom;
+      } else if (intRandom >= 47 && intRandom <= 126) {
+        return intRandom;
+      } else if (intRandom >= 161 && intRandom <= 172) {
+        return intRandom;
+      } else if (intRandom >= 174 && intRandom <= 591) {
+        return intRandom;
+      } else if (intRandom >= 647 && intRandom <= 669) {
+        return intRandom;
+      }
     }
 
   }
@@ -727,7 +625,18 @@ public class Helper {
    * @return a char for a unicode symbol
    */
   public static char generateRandomSymbolValue() {
-    int intRandom = generateRandomIntegerValue();
+    return generateRandomSymbolValue(new SplittableRandom());
+  }
+
+  /**
+   * method to generate a random unicode symbol to be used for pattern in cross
+   * stitch representation from the given random generator.
+   * 
+   * @param random the random generator of the symbols
+   * @return a char for a unicode symbol
+   */
+  public static char generateRandomSymbolValue(SplittableRandom random) {
+    int intRandom = generateRandomIntegerValue(random);
     char symbol = (char) intRandom;
 
     return symbol;
@@ -742,12 +651,24 @@ public class Helper {
    * @return a new char unique unicode
    */
   public static char findUniqueSymbolValue(Map<String, String> legend) {
+    return findUniqueSymbolValue(legend, new SplittableRandom());
+  }
+
+  /**
+   * Method to look for a new unique unicode symbol to be used for pattern in
+   * cross stitch representation, drawn from the given random generator.
+   * 
+   * @param legend the current set of unicode symbols
+   * @param random the random generator of the symbols
+   * @return a new char unique unicode
+   */
+  public static char findUniqueSymbolValue(Map<String, String> legend, SplittableRandom random) {
     if (legend == null) {
       throw new IllegalArgumentException();
     }
-    char symbol = generateRandomSymbolValue();
-    while (legend.containsValue(symbol)) {
-      symbol = generateRandomSymbolValue();
+    char symbol = generateRandomSymbolValue(random);
+    while (legend.containsValue(String.valueOf(symbol))) {
+      symbol = generateRandomSymbolValue(random);
     }
     return symbol;
   }
@@ -788,19 +709,19 @@ public class Helper {
   public static int[][][] createImgIntArray(Image image) {
 
     isObjectNull(image);
-    Pixel[][] pixelArray = image.getPixelArray();
-    isObjectNull(pixelArray);
+    IntBuffer raster = image.getRasterView();
+    isObjectNull(raster);
 
-    int[][][] newImgArr = new int[image.getImageHeight()][image
-        .getImageWidth()][Channel.values().length];
+    int imageWidth = image.getImageWidth();
+    int[][][] newImgArr = new int[image.getImageHeight()][imageWidth][Channel.values().length];
 
     for (int i = 0; i < image.getImageHeight(); i++) {
-      for (int j = 0; j < image.getImageWidth(); j++) {
+      for (int j = 0; j < imageWidth; j++) {
 
-        isObjectNull(pixelArray[i][j]);
-        newImgArr[i][j][Channel.RED.ordinal()] = pixelArray[i][j].getRedColor();
-        newImgArr[i][j][Channel.GREEN.ordinal()] = pixelArray[i][j].getGreenColor();
-        newImgArr[i][j][Channel.BLUE.ordinal()] = pixelArray[i][j].getBlueColor();
+        int rgb = raster.get(i * imageWidth + j);
+        newImgArr[i][j][Channel.RED.ordinal()] = getRedIntensity(rgb);
+        newImgArr[i][j][Channel.GREEN.ordinal()] = getGreenIntensity(rgb);
+        newImgArr[i][j][Channel.BLUE.ordinal()] = getBlueIntensity(rgb);
       }
     }
 
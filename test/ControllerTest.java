@@ -61,6 +61,142 @@ public class ControllerTest {
 
   }
 
+  /**
+   * This method is for testBlurCommand with a radius.
+   */
+  @Test
+  public void testBlurRadiusCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y blur 4 blur save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  writeIn ", input.toString());
+
+  }
+
+  /**
+   * This method is for testBlurCommand and testSharpenCommand with an edge mode.
+   */
+  @Test
+  public void testFilterEdgeModeCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y blur 4 mirror blur wrap sharpen clamp sharpen "
+        + "save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  applyIn  applyIn  writeIn ",
+        input.toString());
+
+  }
+
+  /**
+   * This method is for testGreyScaleCommand and testSepiaCommand in a run that is
+   * applied in a single pass.
+   */
+  @Test
+  public void testColorTransformRunCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y grey sepia grey blur sepia save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  applyIn  writeIn ", input.toString());
+
+  }
+
+  /**
+   * This method is for testDitherCommand with an ordered dithering mask.
+   */
+  @Test
+  public void testOrderedDitherCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y ordered 8 ordered 4 2 ordered 8 blue "
+        + "ordered 8 blue 16 save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  applyIn  applyIn  writeIn ",
+        input.toString());
+
+  }
+
+  /**
+   * This method is for testReduceCommand with an adaptive palette.
+   */
+  @Test
+  public void testPaletteCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y palette 16 palette 8 refine save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  writeIn ", input.toString());
+
+  }
+
+  /**
+   * This method is for testing the mosaic command with and without a random
+   * seed.
+   */
+  @Test
+  public void testMosaicSeedCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y mosaic 100 42 mosaic 50 save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  writeIn ", input.toString());
+
+  }
+
+  /**
+   * This method is for testing the mosaic command with the mean and median
+   * colors of the cells.
+   */
+  @Test
+  public void testMosaicColorCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y mosaic 100 mean mosaic 50 median 7 save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  applyIn  applyIn  writeIn ", input.toString());
+
+  }
+
+  /**
+   * This method is for testing the pixelate command with the mean and median
+   * colors of the super pixels.
+   */
+  @Test
+  public void testPixelateColorCommand() throws ModelValidationException, IOException {
+    Appendable outstream = System.out;
+    String initialString = "load abc.png y pixelate 20 mean pixelate 10 median save abc.png y";
+    InputStream inputStream = new ByteArrayInputStream(initialString.getBytes());
+    ImageController imageController = new ImageControllerImpl(new InputStreamReader(inputStream),
+        outstream, mockImageModel);
+    imageController.start();
+    Assert.assertNotNull(mockImageModel);
+    Assert.assertEquals(" readIn  pixelateIn  pixelateIn  writeIn ", input.toString());
+
+  }
+
   /**
    * This method is for testSharpenCommand.
    */
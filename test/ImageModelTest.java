@@ -1,9 +1,18 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -15,22 +24,46 @@ import model.imagematrix.Kernel;
 import model.imagematrix.KernelImpl;
 import model.imagematrix.TransformationMatrix;
 import model.imagematrix.TransformationMatrixImpl;
+import model.imageprocessor.AdaptivePaletteOperator;
 import model.imageprocessor.BlurFilter;
+import model.imageprocessor.BoxBlurOperator;
+import model.imageprocessor.ColorTransformPipeline;
+import model.imageprocessor.ComputeBackend;
+import model.imageprocessor.ConvolutionEngine;
+import model.imageprocessor.DitherMask;
+import model.imageprocessor.EdgeMode;
+import model.imageprocessor.GaussianBlurOperator;
 import model.imageprocessor.GreyScaleTransformation;
 import model.imageprocessor.ImageOperator;
+import model.imageprocessor.MosaicColor;
+import model.imageprocessor.MosaicOperator;
+import model.imageprocessor.OrderedDitherOperator;
+import model.imageprocessor.ParallelRowExecutor;
+import model.imageprocessor.PatternGeneratorImpl;
+import model.imageprocessor.PixelateColor;
+import model.imageprocessor.PixelateOperator;
 import model.imageprocessor.ReduceImage;
 import model.imageprocessor.ReduceImageEssence;
 import model.imageprocessor.SepiaToneTransformation;
 import model.imageprocessor.SharpenFilter;
+import model.imageprocessor.TilingPlan;
 import model.images.Channel;
 import model.images.Image;
 import model.images.RgbImage;
+import model.pattern.DmcColorIndex;
+import model.pattern.DmcPalette;
+import model.pattern.CrossStitchedPattern;
 import model.pattern.DmcRbcProperties;
+import model.pattern.ImagePattern;
 import model.pixel.Colour;
 import model.pixel.Pixel;
 import model.pixel.PixelImpl;
+import model.pixel.Position;
 import model.pixel.RgbColor;
+import model.pixel.SuperPixel;
+import model.utilities.Constant;
 import model.utilities.Helper;
+import model.utilities.ImageUtilities;
 
 /**
  * This class represents the ImageModel test cases scenarios which is test the
@@ -289,6 +322,1165 @@ public class ImageModelTest {
     assertEquals("RgbImage [pixel=3]", imageModel.toString());
   }
 
+  /**
+   * This method is for testing that the filters give the same image for any
+   * level of parallelism.
+   */
+  @Test
+  public void testFilterParallelismValid() {
+    int[] raster = new int[97 * 181];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, 97, 181);
+    Kernel sharpenKernel = new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX);
+
+    int[] expected = new SharpenFilter(sharpenKernel, 1).apply(largeImage).getRaster();
+    for (int parallelism = 2; parallelism <= 4; parallelism++) {
+      int[] actual = new SharpenFilter(sharpenKernel, parallelism).apply(largeImage).getRaster();
+      assertTrue(Arrays.equals(expected, actual));
+    }
+    assertTrue(Arrays.equals(expected, new SharpenFilter(sharpenKernel).apply(largeImage)
+        .getRaster()));
+  }
+
+  /**
+   * This method is for testing the dithering on rolling rows against the
+   * error diffusion over the whole array of intensities.
+   */
+  @Test
+  public void testDitherRollingRowsValid() throws ModelValidationException {
+    int imageHeight = 23;
+    int imageWidth = 41;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    for (int maxNumbers : new int[]{2, 3, 8}) {
+      int[][][] values = new int[3][imageHeight][imageWidth];
+      for (int i = 0; i < imageHeight; i++) {
+        for (int j = 0; j < imageWidth; j++) {
+          for (int c = 0; c < 3; c++) {
+            values[c][i][j] = (raster[i * imageWidth + j] >> (16 - 8 * c)) & 0xFF;
+          }
+        }
+      }
+      int[] expected = new int[raster.length];
+      for (int i = 0; i < imageHeight; i++) {
+        for (int j = 0; j < imageWidth; j++) {
+          for (int c = 0; c < 3; c++) {
+            int[][] channel = values[c];
+            int newColor = Helper.getNearestColor(channel[i][j], maxNumbers);
+            double error = channel[i][j] - newColor;
+            channel[i][j] = newColor;
+            if (j + 1 < imageWidth) {
+              channel[i][j + 1] = (int) Math.round(channel[i][j + 1] + error * 7 / 16);
+            }
+            if (j - 1 >= 0 && i + 1 < imageHeight) {
+              channel[i + 1][j - 1] = (int) Math.round(channel[i + 1][j - 1] + error * 3 / 16);
+            }
+            if (i + 1 < imageHeight) {
+              channel[i + 1][j] = (int) Math.round(channel[i + 1][j] + error * 5 / 16);
+            }
+            if (j + 1 < imageWidth && i + 1 < imageHeight) {
+              channel[i + 1][j + 1] = (int) Math.round(channel[i + 1][j + 1] + error / 16);
+            }
+            expected[i * imageWidth + j] |= Helper.toClampColorValue(newColor) << (16 - 8 * c);
+          }
+        }
+      }
+      assertTrue(Arrays.equals(expected, new ReduceImageEssence(String.valueOf(maxNumbers))
+          .apply(new RgbImage(raster, imageHeight, imageWidth)).getRaster()));
+    }
+  }
+
+  /**
+   * This method is for testing the reduction to an adaptive palette against the
+   * reduction to equally spaced intensities with the same number of colors.
+   */
+  @Test
+  public void testAdaptivePaletteValid() throws ModelValidationException {
+    int imageHeight = 120;
+    int imageWidth = 160;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < imageHeight; i++) {
+      for (int j = 0; j < imageWidth; j++) {
+        // a smooth gradient of warm colors, which equally spaced levels waste.
+        raster[i * imageWidth + j] = Helper.packColor(150 + j * 100 / imageWidth,
+            60 + i * 80 / imageHeight, 40 + (i + j) * 30 / (imageHeight + imageWidth));
+      }
+    }
+    Image gradient = new RgbImage(raster, imageHeight, imageWidth);
+
+    AdaptivePaletteOperator medianCut = new AdaptivePaletteOperator("8", false, 1);
+    int[] palette = medianCut.createPalette(gradient, 8);
+    assertEquals(8, palette.length);
+    int[] reduced = medianCut.apply(gradient).getRaster();
+    for (int rgb : reduced) {
+      assertTrue(Arrays.stream(palette).anyMatch(color -> color == rgb));
+    }
+    assertTrue(Arrays.equals(reduced, new AdaptivePaletteOperator("8", false, 4)
+        .apply(gradient).getRaster()));
+
+    // 8 colors from 2 levels per channel against 8 colors chosen for the image.
+    long uniformError = squaredError(raster, new ReduceImage("2").apply(gradient).getRaster());
+    long medianCutError = squaredError(raster, reduced);
+    long kmeansError = squaredError(raster, new AdaptivePaletteOperator("8", true)
+        .apply(gradient).getRaster());
+    assertTrue(medianCutError * 4 < uniformError);
+    assertTrue(kmeansError <= medianCutError);
+
+    int[] flat = new int[64];
+    Arrays.fill(flat, 0x123456);
+    assertTrue(Arrays.equals(new int[]{0x123456},
+        medianCut.createPalette(new RgbImage(flat, 8, 8), 16)));
+  }
+
+  private static long squaredError(int[] expected, int[] actual) {
+    long error = 0;
+    for (int i = 0; i < expected.length; i++) {
+      for (int shift = 0; shift <= 16; shift += 8) {
+        long difference = ((expected[i] >> shift) & 0xFF) - ((actual[i] >> shift) & 0xFF);
+        error += difference * difference;
+      }
+    }
+    return error;
+  }
+
+  /**
+   * This method is for testing the adaptive palette with zero colors.
+   */
+  @Test(expected = ModelValidationException.class)
+  public void testAdaptivePaletteInValid() throws ModelValidationException {
+    new AdaptivePaletteOperator("0").apply(image);
+  }
+
+  /**
+   * This method is for testing that the mosaic colors every pixel with the
+   * color of its nearest seed, against a search over all the seeds.
+   */
+  @Test
+  public void testMosaicNearestSeedValid() throws ModelValidationException {
+    int imageHeight = 60;
+    int imageWidth = 90;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      // the color of every pixel is its own position.
+      raster[i] = i;
+    }
+    Image positions = new RgbImage(raster, imageHeight, imageWidth);
+
+    for (String seeds : new String[]{"1", "7", "300"}) {
+      int[] mosaic = new MosaicOperator(seeds, 4).apply(positions).getRaster();
+      int[] seedArray = Arrays.stream(mosaic).distinct().toArray();
+      assertTrue(seedArray.length <= Integer.parseInt(seeds));
+      for (int i = 0; i < mosaic.length; i++) {
+        int nearest = Integer.MAX_VALUE;
+        for (int seed : seedArray) {
+          nearest = Math.min(nearest, distanceSq(i, seed, imageWidth));
+        }
+        assertEquals(nearest, distanceSq(i, mosaic[i], imageWidth));
+      }
+    }
+  }
+
+  private static int distanceSq(int pixel, int seed, int imageWidth) {
+    int deltaRow = pixel / imageWidth - seed / imageWidth;
+    int deltaColumn = pixel % imageWidth - seed % imageWidth;
+    return deltaRow * deltaRow + deltaColumn * deltaColumn;
+  }
+
+  /**
+   * This method is for testing that the mosaic and the symbols of a pattern are
+   * the same on every run with the same random seed.
+   */
+  @Test
+  public void testRandomSeedValid() throws ModelValidationException {
+    int[] raster = new int[40 * 50];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = i;
+    }
+    Image positions = new RgbImage(raster, 40, 50);
+    int[] mosaic = new MosaicOperator("30", "42").apply(positions).getRaster();
+    assertTrue(Arrays.equals(mosaic,
+        new MosaicOperator("30", "42", 1).apply(positions).getRaster()));
+    Position[] seeds = Helper.chooseRandomSeed(5, 40, 50, new SplittableRandom(7));
+    Position[] sameSeeds = Helper.chooseRandomSeed(5, 40, 50, new SplittableRandom(7));
+    for (int i = 0; i < seeds.length; i++) {
+      assertEquals(seeds[i].getPositionHeight(), sameSeeds[i].getPositionHeight());
+      assertEquals(seeds[i].getPositionWidth(), sameSeeds[i].getPositionWidth());
+    }
+
+    Map<String, String> legend = new HashMap<String, String>();
+    SplittableRandom first = new SplittableRandom(42);
+    SplittableRandom second = new SplittableRandom(42);
+    for (int i = 0; i < 100; i++) {
+      char symbol = Helper.findUniqueSymbolValue(legend, first);
+      assertEquals(symbol, Helper.findUniqueSymbolValue(legend, second));
+      assertFalse(legend.containsValue(String.valueOf(symbol)));
+      legend.put(String.valueOf(i), String.valueOf(symbol));
+    }
+  }
+
+  /**
+   * This method is for testing the mosaic with a random seed that is not a
+   * number.
+   */
+  @Test(expected = ModelValidationException.class)
+  public void testRandomSeedInValid() throws ModelValidationException {
+    new MosaicOperator("30", "abc").apply(image);
+  }
+
+  /**
+   * This method is for testing the capture of random seeds with no seed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testChooseRandomSeedInValid() {
+    Helper.chooseRandomSeed(0, 40, 50, new SplittableRandom(7));
+  }
+
+  /**
+   * This method is for testing the mean and median colors of the cells of a
+   * mosaic against the colors of the pixels of every cell.
+   */
+  @Test
+  public void testMosaicColorValid() throws ModelValidationException {
+    // the image is large enough that the mean colors are summed by several tasks.
+    int imageHeight = 192;
+    int imageWidth = 256;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image noise = new RgbImage(raster, imageHeight, imageWidth);
+
+    // a single seed makes the whole image one cell.
+    int[] mean = new MosaicOperator("1", "3", MosaicColor.MEAN, 4).apply(noise).getRaster();
+    int[] median = new MosaicOperator("1", "3", MosaicColor.MEDIAN, 4).apply(noise)
+        .getRaster();
+    int[] sorted = new int[raster.length];
+    for (int shift = 16; shift >= 0; shift -= 8) {
+      long sum = 0;
+      for (int i = 0; i < raster.length; i++) {
+        sorted[i] = (raster[i] >> shift) & 0xFF;
+        sum += sorted[i];
+      }
+      Arrays.sort(sorted);
+      assertEquals((sum + raster.length / 2) / raster.length, (mean[0] >> shift) & 0xFF);
+      assertEquals(sorted[(raster.length - 1) / 2], (median[0] >> shift) & 0xFF);
+    }
+    assertEquals(1, Arrays.stream(mean).distinct().count());
+
+    // the cells are the same whatever their color, and each has a single color.
+    for (String seeds : new String[]{"20", "1500"}) {
+      int[] cells = new MosaicOperator(seeds, "5", MosaicColor.SEED, 1).apply(noise)
+          .getRaster();
+      for (MosaicColor color : new MosaicColor[]{MosaicColor.MEAN, MosaicColor.MEDIAN}) {
+        int[] painted = new MosaicOperator(seeds, "5", color, 1).apply(noise).getRaster();
+        assertTrue(Arrays.equals(painted,
+            new MosaicOperator(seeds, "5", color, 4).apply(noise).getRaster()));
+        Map<Integer, Integer> cellColors = new HashMap<Integer, Integer>();
+        for (int i = 0; i < cells.length; i++) {
+          Integer cellColor = cellColors.putIfAbsent(cells[i], painted[i]);
+          assertTrue(cellColor == null || cellColor == painted[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is for testing the mosaic with as many seeds as pixels.
+   */
+  @Test(expected = ModelValidationException.class)
+  public void testMosaicSeedInValid() throws ModelValidationException {
+    new MosaicOperator("4", 2).apply(new RgbImage(new int[4], 2, 2));
+  }
+
+  /**
+   * This method is for testing the tiling plan in the four cases of one or two
+   * widths with one or two heights of the super pixels.
+   */
+  @Test
+  public void testTilingPlanValid() {
+    int[][] sizes = {{20, 20}, {20, 22}, {22, 20}, {23, 22}};
+    int[][] widths = {{4, 4, 4, 4, 4}, {4, 4, 4, 5, 5}, {4, 4, 4, 4, 4}, {4, 4, 4, 5, 5}};
+    int[][] heights = {{4, 4, 4, 4, 4}, {4, 4, 4, 4, 4}, {4, 4, 4, 5, 5}, {4, 4, 5, 5, 5}};
+    for (int k = 0; k < sizes.length; k++) {
+      TilingPlan plan = new TilingPlan(sizes[k][0], sizes[k][1], 5);
+      assertEquals(heights[k].length, plan.getTileRows());
+      assertEquals(5, plan.getTileColumns());
+      int row = 0;
+      for (int m = 0; m < plan.getTileRows(); m++) {
+        assertEquals(row, plan.getTileRowStart(m));
+        assertEquals(heights[k][m], plan.getTileHeight(m));
+        assertEquals(row + heights[k][m] / 2, plan.getCenterRow(m));
+        row += heights[k][m];
+      }
+      assertEquals(sizes[k][0], row);
+      int column = 0;
+      for (int n = 0; n < plan.getTileColumns(); n++) {
+        assertEquals(column, plan.getTileColumnStart(n));
+        assertEquals(widths[k][n], plan.getTileWidth(n));
+        column += widths[k][n];
+      }
+      assertEquals(sizes[k][1], column);
+    }
+  }
+
+  /**
+   * This method is for testing the tiling plan of an image too short for a row
+   * of super pixels.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTilingPlanInValid() {
+    new TilingPlan(5, 20, 2);
+  }
+
+  /**
+   * This method is for testing the pixelation of every super pixel with its
+   * center pixel in parallel rows of super pixels.
+   */
+  @Test
+  public void testPixelateValid() throws ModelValidationException, IOException {
+    int[] raster = new int[23 * 22];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = i;
+    }
+    Image positions = new RgbImage(raster, 23, 22);
+    int[] pixelated = new PixelateOperator("5", 1).apply(positions).getRaster();
+    assertTrue(Arrays.equals(pixelated,
+        new PixelateOperator("5", 4).apply(positions).getRaster()));
+    TilingPlan plan = new TilingPlan(23, 22, 5);
+    for (int m = 0; m < plan.getTileRows(); m++) {
+      for (int n = 0; n < plan.getTileColumns(); n++) {
+        int center = plan.getCenterRow(m) * 22 + plan.getCenterColumn(n);
+        for (int i = 0; i < plan.getTileHeight(m); i++) {
+          for (int j = 0; j < plan.getTileWidth(n); j++) {
+            int pixel = (plan.getTileRowStart(m) + i) * 22 + plan.getTileColumnStart(n) + j;
+            assertEquals(center, pixelated[pixel]);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is for testing the mean and median colors of the super pixels
+   * against the colors of the pixels of every super pixel.
+   */
+  @Test
+  public void testPixelateColorValid() throws ModelValidationException, IOException {
+    int imageHeight = 23;
+    int imageWidth = 22;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image noise = new RgbImage(raster, imageHeight, imageWidth);
+    int[] mean = new PixelateOperator("5", PixelateColor.MEAN, 1).apply(noise).getRaster();
+    int[] median = new PixelateOperator("5", PixelateColor.MEDIAN, 1).apply(noise)
+        .getRaster();
+    assertTrue(Arrays.equals(mean,
+        new PixelateOperator("5", PixelateColor.MEAN, 4).apply(noise).getRaster()));
+    assertTrue(Arrays.equals(median,
+        new PixelateOperator("5", PixelateColor.MEDIAN, 4).apply(noise).getRaster()));
+
+    TilingPlan plan = new TilingPlan(imageHeight, imageWidth, 5);
+    for (int m = 0; m < plan.getTileRows(); m++) {
+      for (int n = 0; n < plan.getTileColumns(); n++) {
+        int size = plan.getTileHeight(m) * plan.getTileWidth(n);
+        int[][] channels = new int[3][size];
+        int first = plan.getTileRowStart(m) * imageWidth + plan.getTileColumnStart(n);
+        int p = 0;
+        for (int i = 0; i < plan.getTileHeight(m); i++) {
+          for (int j = 0; j < plan.getTileWidth(n); j++) {
+            int rgb = raster[first + i * imageWidth + j];
+            channels[0][p] = Helper.getRedIntensity(rgb);
+            channels[1][p] = Helper.getGreenIntensity(rgb);
+            channels[2][p] = Helper.getBlueIntensity(rgb);
+            p++;
+          }
+        }
+        for (int c = 0; c < 3; c++) {
+          int shift = 16 - 8 * c;
+          long sum = Arrays.stream(channels[c]).sum();
+          Arrays.sort(channels[c]);
+          assertEquals((sum + size / 2) / size, (mean[first] >> shift) & 0xFF);
+          assertEquals(channels[c][(size - 1) / 2], (median[first] >> shift) & 0xFF);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is for testing the median of the channels of a run of colors,
+   * short enough to be sorted and long enough to be counted.
+   */
+  @Test
+  public void testMedianColorValid() {
+    int[] scratch = new int[256];
+    assertEquals(0x020501, Helper.getMedianColor(
+        new int[]{0x090909, 0x010101, 0x020503, 0x030800}, 0, 4, scratch));
+    int[] colors = new int[1001];
+    for (int i = 0; i < colors.length; i++) {
+      colors[i] = Helper.packColor(i % 256, (i * 7) % 256, 255 - i % 256);
+    }
+    int[] reds = Arrays.stream(colors).map(Helper::getRedIntensity).sorted().toArray();
+    int[] greens = Arrays.stream(colors).map(Helper::getGreenIntensity).sorted().toArray();
+    int[] blues = Arrays.stream(colors).map(Helper::getBlueIntensity).sorted().toArray();
+    assertEquals(Helper.packColor(reds[500], greens[500], blues[500]),
+        Helper.getMedianColor(colors, 0, colors.length, scratch));
+  }
+
+  /**
+   * This method is for testing the Bayer and blue noise masks of the ordered
+   * dithering.
+   */
+  @Test
+  public void testDitherMaskValid() {
+    assertTrue(Arrays.equals(new int[]{0, 2, 3, 1}, DitherMask.BAYER.getRanks(2)));
+    assertTrue(Arrays.equals(new int[]{0, 8, 2, 10, 12, 4, 14, 6, 3, 11, 1, 9, 15, 7, 13, 5},
+        DitherMask.BAYER.getRanks(4)));
+    for (DitherMask mask : DitherMask.values()) {
+      for (int size = DitherMask.MIN_SIZE; size <= DitherMask.MAX_SIZE; size *= 2) {
+        int[] ranks = mask.getRanks(size);
+        Arrays.sort(ranks);
+        for (int i = 0; i < ranks.length; i++) {
+          assertEquals(i, ranks[i]);
+        }
+      }
+    }
+    assertTrue(Arrays.equals(DitherMask.BLUE_NOISE.getRanks(16),
+        DitherMask.BLUE_NOISE.getRanks(16)));
+    assertFalse(DitherMask.isValidSize(12));
+    assertFalse(DitherMask.isValidSize(128));
+  }
+
+  /**
+   * This method is for testing the ordered dithering of a flat area and in
+   * parallel bands of rows.
+   */
+  @Test
+  public void testOrderedDitherValid() throws ModelValidationException {
+    int[] flat = new int[32 * 32];
+    Arrays.fill(flat, 0x40A0FF);
+    int[] dithered = new OrderedDitherOperator("2", DitherMask.BAYER, "8")
+        .apply(new RgbImage(flat, 32, 32)).getRaster();
+    int redSum = 0;
+    int greenSum = 0;
+    for (int rgb : dithered) {
+      assertEquals(255, rgb & 0xFF);
+      redSum += (rgb >> 16) & 0xFF;
+      greenSum += (rgb >> 8) & 0xFF;
+    }
+    assertEquals(0x40 * flat.length, redSum, 255 * flat.length / 64.0);
+    assertEquals(0xA0 * flat.length, greenSum, 255 * flat.length / 64.0);
+
+    int imageHeight = 97;
+    int imageWidth = 181;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    List<Integer> palette = Helper.getEquallySpacedIntensity(4);
+    int[] blueNoise = new OrderedDitherOperator("4", DitherMask.BLUE_NOISE, "32", 1)
+        .apply(largeImage).getRaster();
+    for (int rgb : blueNoise) {
+      assertTrue(palette.contains(rgb & 0xFF));
+    }
+    assertTrue(Arrays.equals(blueNoise, new OrderedDitherOperator("4", DitherMask.BLUE_NOISE,
+        "32", 4).apply(largeImage).getRaster()));
+  }
+
+  /**
+   * This method is for testing the ordered dithering with a mask size that is
+   * not a power of two.
+   */
+  @Test(expected = ModelValidationException.class)
+  public void testOrderedDitherInValid() throws ModelValidationException {
+    new OrderedDitherOperator("4", DitherMask.BAYER, "6").apply(image);
+  }
+
+  /**
+   * This method is for testing that the dithering in a wavefront on several
+   * threads gives the same image as the serial dithering.
+   */
+  @Test
+  public void testDitherWavefrontValid() throws ModelValidationException {
+    int imageHeight = 331;
+    int imageWidth = 829;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    int[] serial = new ReduceImageEssence("4", 1).apply(largeImage).getRaster();
+    for (int parallelism : new int[]{2, 3, 8}) {
+      assertTrue(Arrays.equals(serial, new ReduceImageEssence("4", parallelism)
+          .apply(largeImage).getRaster()));
+    }
+  }
+
+  /**
+   * This method is for testing the dithering with an invalid number of threads.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDitherWavefrontInValid() {
+    new ReduceImageEssence("4", 0);
+  }
+
+  /**
+   * This method is for testing that the failure of one of the tasks of the
+   * executor is thrown to the caller once the tasks have ended.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testForEachTaskInValid() {
+    new ParallelRowExecutor(4).forEachTask(4, task -> {
+      if (task == 2) {
+        throw new IllegalStateException();
+      }
+    });
+  }
+
+  /**
+   * This method is for testing the table of the nearest equally spaced
+   * intensities against the search in the list of the intensities.
+   */
+  @Test
+  public void testQuantizationTableValid() {
+    for (int maxNumbers : new int[]{1, 2, 3, 8, 16, 100, 255, 256, 257, 1000}) {
+      List<Integer> palette = Helper.getEquallySpacedIntensity(maxNumbers);
+      int[] table = Helper.getQuantizationTable(maxNumbers);
+      for (int num = 0; num < 256; num++) {
+        int nearest = palette.get(0);
+        for (int intensity : palette) {
+          if (Math.abs(intensity - num) < Math.abs(nearest - num)) {
+            nearest = intensity;
+          }
+        }
+        assertEquals(nearest, table[num]);
+        assertEquals(nearest, Helper.getNearestColor(num, maxNumbers));
+      }
+    }
+    assertEquals(0, Helper.getNearestColor(-40, 8));
+    assertEquals(255, Helper.getNearestColor(300, 8));
+    Helper.getQuantizationTable(8)[0] = 7;
+    assertEquals(0, Helper.getQuantizationTable(8)[0]);
+  }
+
+  /**
+   * This method is for testing that a number of intensities larger than the
+   * levels of a channel keeps every intensity.
+   */
+  @Test
+  public void testQuantizationTableLargeValid() {
+    int[] identity = new int[256];
+    for (int num = 0; num < identity.length; num++) {
+      identity[num] = num;
+    }
+    for (int maxNumbers : new int[]{1000, 8421505, 100000000, Integer.MAX_VALUE}) {
+      assertTrue(Arrays.equals(identity, Helper.getQuantizationTable(maxNumbers)));
+    }
+    assertEquals(128, Helper.getNearestColor(128, 100000000));
+  }
+
+  /**
+   * This method is for testing the color reduction in parallel bands of rows.
+   */
+  @Test
+  public void testReduceParallelValid() throws ModelValidationException {
+    int imageHeight = 97;
+    int imageWidth = 181;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    int[] reduced = new ReduceImage("5", 1).apply(largeImage).getRaster();
+    assertTrue(Arrays.equals(reduced, new ReduceImage("5", 4).apply(largeImage).getRaster()));
+    assertTrue(Arrays.equals(reduced, new ReduceImage("5").apply(largeImage).getRaster()));
+    for (int i = 0; i < raster.length; i++) {
+      assertEquals(Helper.getNearestColor(raster[i] & 0xFF, 5), reduced[i] & 0xFF);
+    }
+  }
+
+  /**
+   * This method is for testing that a run of color transformations in a single
+   * pass gives the same image as the transformations one after the other.
+   */
+  @Test
+  public void testColorTransformPipelineValid() {
+    int imageHeight = 31;
+    int imageWidth = 47;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    Image sequential = new SepiaToneTransformation().apply(new GreyScaleTransformation()
+        .apply(new SepiaToneTransformation().apply(largeImage)));
+
+    ColorTransformPipeline pipeline = new ColorTransformPipeline(Arrays.asList(
+        new SepiaToneTransformation(), new GreyScaleTransformation(),
+        new SepiaToneTransformation()));
+    assertEquals(3, pipeline.getTransformationSteps().size());
+    assertFalse(pipeline.isUnclamped());
+    assertTrue(Arrays.equals(sequential.getRaster(), pipeline.apply(largeImage).getRaster()));
+
+    ColorTransformPipeline nested = new ColorTransformPipeline(Arrays.asList(
+        new ColorTransformPipeline(Arrays.asList(new SepiaToneTransformation(),
+            new GreyScaleTransformation())), new SepiaToneTransformation()));
+    assertTrue(Arrays.equals(sequential.getRaster(), nested.apply(largeImage).getRaster()));
+
+    // grey scale keeps every intensity in range, so only the rounding differs.
+    ColorTransformPipeline unclamped = new ColorTransformPipeline(Arrays.asList(
+        new GreyScaleTransformation(), new GreyScaleTransformation()), true);
+    assertWithinLevels(new GreyScaleTransformation().apply(new GreyScaleTransformation()
+        .apply(largeImage)).getRaster(), unclamped.apply(largeImage).getRaster(), 2);
+  }
+
+  /**
+   * This method is for testing that a color transformation pipeline runs on the
+   * backend of the transformations that it applies.
+   */
+  @Test
+  public void testColorTransformPipelineBackendValid() {
+    int imageHeight = 31;
+    int imageWidth = 47;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    // a matrix whose fixed point products round differently from the float ones.
+    TransformationMatrix matrix = new TransformationMatrixImpl(3, 3, new float[]{
+        0.3333f, 0.3333f, 0.3333f, 0.1111f, 0.7777f, 0.1111f, 0.2929f, 0.4141f, 0.2929f});
+    GreyScaleTransformation fixedGrey = new GreyScaleTransformation(matrix,
+        ComputeBackend.FIXED_POINT);
+    SepiaToneTransformation fixedSepia = new SepiaToneTransformation(matrix,
+        ComputeBackend.FIXED_POINT);
+    int[] sequential = fixedSepia.apply(fixedGrey.apply(largeImage)).getRaster();
+
+    ColorTransformPipeline pipeline = new ColorTransformPipeline(Arrays.asList(fixedGrey,
+        fixedSepia));
+    assertEquals(ComputeBackend.FIXED_POINT, pipeline.getBackend());
+    assertTrue(Arrays.equals(sequential, pipeline.apply(largeImage).getRaster()));
+    assertFalse(Arrays.equals(sequential, new ColorTransformPipeline(Arrays.asList(fixedGrey,
+        fixedSepia), false, ComputeBackend.SCALAR).apply(largeImage).getRaster()));
+  }
+
+  /**
+   * This method is for testing a color transformation pipeline of
+   * transformations with different backends.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testColorTransformPipelineBackendInValid() {
+    TransformationMatrix matrix = new TransformationMatrixImpl(3, 3,
+        Constant.GREYSCALE_TRANSFORMATION_MATRIX);
+    new ColorTransformPipeline(Arrays.asList(
+        new GreyScaleTransformation(matrix, ComputeBackend.SCALAR),
+        new GreyScaleTransformation(matrix, ComputeBackend.FIXED_POINT)));
+  }
+
+  /**
+   * This method is for testing a color transformation pipeline without any
+   * transformation.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testColorTransformPipelineInValid() {
+    new ColorTransformPipeline(new ArrayList<GreyScaleTransformation>());
+  }
+
+  /**
+   * This method is for testing the tables of the rounded products of a
+   * transformation matrix and the transformation that looks them up.
+   */
+  @Test
+  public void testTransformationProductTableValid() {
+    TransformationMatrix sepiaMatrix = new TransformationMatrixImpl(3, 3,
+        Constant.SEPIA_TRANSFORMATION_MATRIX);
+    int[] table = sepiaMatrix.getProductTable();
+    assertEquals(9 * 256, table.length);
+    for (int m = 0; m < 3; m++) {
+      for (int n = 0; n < 3; n++) {
+        for (int intensity = 0; intensity < 256; intensity++) {
+          assertEquals(Math.round(sepiaMatrix.getMatrixValue(m, n) * intensity),
+              table[(m * 3 + n) * 256 + intensity]);
+        }
+      }
+    }
+    table[255] = -1;
+    assertEquals(100, sepiaMatrix.getProductTable()[255]);
+
+    int imageHeight = 29;
+    int imageWidth = 61;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    float[][] matrix = sepiaMatrix.getTransformationMatrix();
+    int[] sepia = new SepiaToneTransformation().apply(new RgbImage(raster, imageHeight,
+        imageWidth)).getRaster();
+    for (int i = 0; i < raster.length; i++) {
+      int[] rgb = {(raster[i] >> 16) & 0xFF, (raster[i] >> 8) & 0xFF, raster[i] & 0xFF};
+      int expected = 0;
+      for (int m = 0; m < 3; m++) {
+        int sum = Math.round(matrix[m][0] * rgb[0]) + Math.round(matrix[m][1] * rgb[1])
+            + Math.round(matrix[m][2] * rgb[2]);
+        expected = (expected << 8) | Math.max(0, Math.min(255, sum));
+      }
+      assertEquals(expected, sepia[i]);
+    }
+  }
+
+  /**
+   * This method is for testing the fixed point backend of the filters and the
+   * color transformations against the float arithmetic.
+   */
+  @Test
+  public void testFixedPointValid() {
+    int imageHeight = 37;
+    int imageWidth = 53;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    Kernel sharpenKernel = new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX);
+    TransformationMatrix sepiaMatrix = new TransformationMatrixImpl(3, 3,
+        Constant.SEPIA_TRANSFORMATION_MATRIX);
+
+    int[] fixedPoint = new SharpenFilter(sharpenKernel, EdgeMode.MIRROR, 1,
+        ComputeBackend.FIXED_POINT).apply(largeImage).getRaster();
+    assertTrue(Arrays.equals(fixedPoint, new SharpenFilter(sharpenKernel, EdgeMode.MIRROR, 4,
+        ComputeBackend.FIXED_POINT).apply(largeImage).getRaster()));
+    assertWithinLevels(new SharpenFilter(sharpenKernel, EdgeMode.MIRROR, 1,
+        ComputeBackend.SCALAR).apply(largeImage).getRaster(), fixedPoint, 1);
+
+    assertWithinLevels(new BlurFilter(new KernelImpl(3, Constant.BLUR_KERNEL_MATRIX),
+            EdgeMode.CLAMP, 2, ComputeBackend.SCALAR).apply(largeImage).getRaster(),
+        new BlurFilter(new KernelImpl(3, Constant.BLUR_KERNEL_MATRIX), EdgeMode.CLAMP, 2,
+            ComputeBackend.FIXED_POINT).apply(largeImage).getRaster(), 1);
+
+    assertWithinLevels(new SepiaToneTransformation(sepiaMatrix, ComputeBackend.SCALAR)
+            .apply(largeImage).getRaster(),
+        new SepiaToneTransformation(sepiaMatrix, ComputeBackend.FIXED_POINT).apply(largeImage)
+            .getRaster(), 3);
+    assertWithinLevels(new GreyScaleTransformation().apply(largeImage).getRaster(),
+        new GreyScaleTransformation(new TransformationMatrixImpl(3, 3,
+            Constant.GREYSCALE_TRANSFORMATION_MATRIX), ComputeBackend.FIXED_POINT)
+            .apply(largeImage).getRaster(), 3);
+
+    assertEquals(65536, Helper.toFixedPoint(1f));
+    assertEquals(-8192, Helper.toFixedPoint(-1f / 8f));
+  }
+
+  /**
+   * This method is for testing the weights that do not fit the fixed point
+   * format.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFixedPointInValid() {
+    Helper.toFixedPoint(Float.NaN);
+  }
+
+  /**
+   * This method is for testing a weight that is too large for the fixed point
+   * format.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFixedPointLargeInValid() {
+    Helper.toFixedPoint(200f);
+  }
+
+  private static void assertWithinLevels(int[] expected, int[] actual, int levels) {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      for (int shift = 0; shift <= 16; shift += 8) {
+        int difference = ((expected[i] >> shift) & 0xFF) - ((actual[i] >> shift) & 0xFF);
+        assertTrue(Math.abs(difference) <= levels);
+      }
+    }
+  }
+
+  /**
+   * This method is for testing that the planar backend of the convolution gives
+   * the same image as the scalar backend and as the filters.
+   */
+  @Test
+  public void testConvolutionBackendValid() {
+    int imageHeight = 41;
+    int imageWidth = 67;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    Kernel sharpenKernel = new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX);
+    float[][] kernelValues = sharpenKernel.getKernel();
+
+    ConvolutionEngine scalar = new ConvolutionEngine(1, ComputeBackend.SCALAR);
+    ConvolutionEngine planar = new ConvolutionEngine(3, ComputeBackend.PLANAR);
+    for (EdgeMode edgeMode : EdgeMode.values()) {
+      int[] expected = scalar.convolve(largeImage.getRasterView(), imageHeight, imageWidth,
+          kernelValues, edgeMode);
+      assertTrue(Arrays.equals(expected, planar.convolve(largeImage.getRasterView(),
+          imageHeight, imageWidth, kernelValues, edgeMode)));
+      assertTrue(Arrays.equals(expected, new SharpenFilter(sharpenKernel, edgeMode, 2)
+          .apply(largeImage).getRaster()));
+    }
+  }
+
+  /**
+   * This method is for testing the detection of a separable kernel.
+   */
+  @Test
+  public void testKernelSeparableValid() {
+    Kernel blurKernel = new KernelImpl(3, Constant.BLUR_KERNEL_MATRIX);
+    assertTrue(blurKernel.isSeparable());
+    float[] vertical = blurKernel.getVerticalVector();
+    float[] horizontal = blurKernel.getHorizontalVector();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(blurKernel.getKernelValue(i, j), vertical[i] * horizontal[j], 1e-7f);
+      }
+    }
+
+    Kernel sharpenKernel = new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX);
+    assertFalse(sharpenKernel.isSeparable());
+  }
+
+  /**
+   * This method is for testing invalid scenario of getting the vectors of a
+   * kernel that is not separable.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testKernelSeparableInValid() {
+    new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX).getVerticalVector();
+  }
+
+  /**
+   * This method is for testing the blur filter with a small separable kernel,
+   * which is applied tap by tap as the original filter did, and a large one,
+   * which is applied in two passes.
+   */
+  @Test
+  public void testBlurSeparableValid() {
+    int[] raster = new int[5 * 5];
+    Arrays.fill(raster, 0x646464);
+    Image smallImage = new RgbImage(raster, 5, 5);
+    Image blurred = new BlurFilter().apply(smallImage);
+    assertTrue(Arrays.equals(new ConvolutionEngine(1).convolve(smallImage.getRasterView(), 5, 5,
+        new KernelImpl(3, Constant.BLUR_KERNEL_MATRIX).getKernel()), blurred.getRaster()));
+
+    // every tap is truncated as the original filter did, so the nine taps of an
+    // inner pixel add up to 97 instead of 100 and the four taps of a corner to
+    // 55 instead of 56.25.
+    assertEquals(0x616161, blurred.getRgb(2, 2));
+    assertEquals(0x373737, blurred.getRgb(0, 0));
+
+    int imageHeight = 31;
+    int imageWidth = 29;
+    int[] largeRaster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < largeRaster.length; i++) {
+      largeRaster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(largeRaster, imageHeight, imageWidth);
+    float[] vector = {1f / 16f, 1f / 8f, 3f / 16f, 1f / 4f, 3f / 16f, 1f / 8f, 1f / 16f};
+    float[] kernelValues = new float[vector.length * vector.length];
+    for (int m = 0; m < vector.length; m++) {
+      for (int n = 0; n < vector.length; n++) {
+        kernelValues[m * vector.length + n] = vector[m] * vector[n];
+      }
+    }
+    Kernel largeKernel = new KernelImpl(vector.length, kernelValues);
+    assertTrue(largeKernel.isSeparable());
+    int[] expected = new ConvolutionEngine(1).convolveSeparable(largeImage.getRasterView(),
+        imageHeight, imageWidth, largeKernel.getVerticalVector(),
+        largeKernel.getHorizontalVector(), EdgeMode.CLAMP);
+    assertTrue(Arrays.equals(expected, new BlurFilter(largeKernel, EdgeMode.CLAMP, 2)
+        .apply(largeImage).getRaster()));
+  }
+
+  /**
+   * This method is for testing the blur of a large radius with box filters.
+   *
+   * @throws ModelValidationException exception
+   */
+  @Test
+  public void testGaussianBlurValid() throws ModelValidationException {
+    int[] raster = new int[40 * 30];
+    Arrays.fill(raster, 0x80C040);
+    Image uniformImage = new RgbImage(raster, 40, 30);
+
+    // a uniform image stays the same as the pixels on the border are repeated.
+    Image blurred = new GaussianBlurOperator("25").apply(uniformImage);
+    assertTrue(Arrays.equals(raster, blurred.getRaster()));
+
+    raster[20 * 30 + 15] = 0xFFFFFF;
+    Image boxBlurred = new BoxBlurOperator("1", EdgeMode.CLAMP, 2).apply(new RgbImage(raster, 40, 30));
+    assertEquals(Helper.packColor((0x80 * 8 + 0xFF + 4) / 9, (0xC0 * 8 + 0xFF + 4) / 9,
+        (0x40 * 8 + 0xFF + 4) / 9), boxBlurred.getRgb(19, 14));
+    assertEquals(0x80C040, boxBlurred.getRgb(18, 15));
+    assertTrue(Arrays.equals(new GaussianBlurOperator("7", EdgeMode.CLAMP, 1).apply(uniformImage).getRaster(),
+        new GaussianBlurOperator("7", EdgeMode.CLAMP, 3).apply(uniformImage).getRaster()));
+  }
+
+  /**
+   * This method is for testing that a radius far larger than the image keeps a
+   * uniform image the same, as the boxes are cut to the size of the image.
+   *
+   * @throws ModelValidationException exception
+   */
+  @Test
+  public void testBlurLargeRadiusValid() throws ModelValidationException {
+    int[] raster = new int[20 * 20];
+    Arrays.fill(raster, 0xFFFFFF);
+    Image whiteImage = new RgbImage(raster, 20, 20);
+    for (String radius : new String[]{"21", "10000000", "1500000000"}) {
+      assertTrue(Arrays.equals(raster, new BoxBlurOperator(radius).apply(whiteImage)
+          .getRaster()));
+      assertTrue(Arrays.equals(raster, new GaussianBlurOperator(radius).apply(whiteImage)
+          .getRaster()));
+      assertTrue(Arrays.equals(raster, new GaussianBlurOperator(radius, EdgeMode.WRAP, 2)
+          .apply(whiteImage).getRaster()));
+    }
+  }
+
+  /**
+   * This method is for testing the box blur of an image that is not uniform
+   * against the sums of every pixel of the boxes, for radii up to and larger
+   * than the image in every edge mode.
+   */
+  @Test
+  public void testBlurLargeRadiusBoxValid() throws ModelValidationException {
+    int imageHeight = 8;
+    int imageWidth = 7;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image noise = new RgbImage(raster, imageHeight, imageWidth);
+    for (EdgeMode edgeMode : EdgeMode.values()) {
+      for (int radius : new int[]{3, 8, 9, 20, 100}) {
+        int[] expected = new int[raster.length];
+        for (int i = 0; i < raster.length; i++) {
+          int[] rgb = new int[3];
+          for (int channel = 0; channel < 3; channel++) {
+            int shift = 16 - 8 * channel;
+            long columnSum = 0;
+            for (int m = -radius; m <= radius; m++) {
+              int row = edgeMode.mapIndex(i / imageWidth + m, imageHeight);
+              if (row < 0) {
+                continue;
+              }
+              long rowSum = 0;
+              for (int n = -radius; n <= radius; n++) {
+                int column = edgeMode.mapIndex(i % imageWidth + n, imageWidth);
+                if (column >= 0) {
+                  rowSum += (raster[row * imageWidth + column] >> shift) & 0xFF;
+                }
+              }
+              columnSum += (rowSum + radius) / (2 * radius + 1);
+            }
+            rgb[channel] = (int) ((columnSum + radius) / (2 * radius + 1));
+          }
+          expected[i] = Helper.packColor(rgb[0], rgb[1], rgb[2]);
+        }
+        assertTrue(Arrays.equals(expected, new BoxBlurOperator(String.valueOf(radius), edgeMode)
+            .apply(noise).getRaster()));
+      }
+    }
+  }
+
+  /**
+   * This method is for testing invalid scenario of the radius of a blur.
+   *
+   * @throws ModelValidationException exception
+   */
+  @Test(expected = ModelValidationException.class)
+  public void testGaussianBlurInValid() throws ModelValidationException {
+    new GaussianBlurOperator("0").apply(image);
+  }
+
+  /**
+   * This method is for testing a large kernel that is applied in the frequency
+   * domain against the sums of the kernel taps.
+   */
+  @Test
+  public void testFilterLargeKernelValid() {
+    int imageHeight = 70;
+    int imageWidth = 90;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+
+    int dimension = 9;
+    float[] kernelValues = new float[dimension * dimension];
+    for (int i = 0; i < kernelValues.length; i++) {
+      kernelValues[i] = ((i * 37) % 11 - 3) / 200f;
+    }
+    Kernel largeKernel = new KernelImpl(dimension, kernelValues);
+    assertFalse(largeKernel.isSeparable());
+
+    int padding = dimension / 2;
+    for (EdgeMode edgeMode : EdgeMode.values()) {
+      Image filtered = new SharpenFilter(largeKernel, edgeMode, 2).apply(largeImage);
+      for (int y = 0; y < imageHeight; y += 7) {
+        for (int x = 0; x < imageWidth; x += 3) {
+          double[] sums = new double[3];
+          for (int m = 0; m < dimension; m++) {
+            for (int n = 0; n < dimension; n++) {
+              int row = edgeMode.mapIndex(y + m - padding, imageHeight);
+              int column = edgeMode.mapIndex(x + n - padding, imageWidth);
+              if (row >= 0 && column >= 0) {
+                int rgb = largeImage.getRgb(row, column);
+                sums[0] += Helper.getRedIntensity(rgb) * largeKernel.getKernelValue(m, n);
+                sums[1] += Helper.getGreenIntensity(rgb) * largeKernel.getKernelValue(m, n);
+                sums[2] += Helper.getBlueIntensity(rgb) * largeKernel.getKernelValue(m, n);
+              }
+            }
+          }
+          int expected = Helper.packColor((int) sums[0], (int) sums[1], (int) sums[2]);
+          int actual = filtered.getRgb(y, x);
+          assertEquals(Helper.getRedIntensity(expected), Helper.getRedIntensity(actual), 1);
+          assertEquals(Helper.getGreenIntensity(expected), Helper.getGreenIntensity(actual), 1);
+          assertEquals(Helper.getBlueIntensity(expected), Helper.getBlueIntensity(actual), 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method convolves an image as the original filter did, with black
+   * pixels around the image and every tap truncated into an int sum.
+   */
+  private static int[] convolveTapByTap(Image source, Kernel filterKernel) {
+    int imageHeight = source.getImageHeight();
+    int imageWidth = source.getImageWidth();
+    int dimension = filterKernel.getDimension();
+    int padding = dimension / 2;
+    int[] result = new int[imageHeight * imageWidth];
+    for (int y = 0; y < imageHeight; y++) {
+      for (int x = 0; x < imageWidth; x++) {
+        int sumRed = 0;
+        int sumGreen = 0;
+        int sumBlue = 0;
+        for (int m = 0; m < dimension; m++) {
+          for (int n = 0; n < dimension; n++) {
+            int row = y + m - padding;
+            int column = x + n - padding;
+            if (row >= 0 && row < imageHeight && column >= 0 && column < imageWidth) {
+              int rgb = source.getRgb(row, column);
+              sumRed += Helper.getRedIntensity(rgb) * filterKernel.getKernelValue(m, n);
+              sumGreen += Helper.getGreenIntensity(rgb) * filterKernel.getKernelValue(m, n);
+              sumBlue += Helper.getBlueIntensity(rgb) * filterKernel.getKernelValue(m, n);
+            }
+          }
+        }
+        result[y * imageWidth + x] = Helper.packColor(sumRed, sumGreen, sumBlue);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * This method is for testing that the kernels applied tap by tap truncate
+   * every tap as the original filter did on every backend.
+   */
+  @Test
+  public void testFilterTapTruncationValid() {
+    int imageHeight = 43;
+    int imageWidth = 59;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+    Kernel sharpenKernel = new KernelImpl(5, Constant.SHARPEN_KERNEL_MATRIX);
+
+    int[] expected = convolveTapByTap(largeImage, sharpenKernel);
+    assertTrue(Arrays.equals(expected, new SharpenFilter().apply(largeImage).getRaster()));
+    for (ComputeBackend backend : ComputeBackend.values()) {
+      assertTrue(Arrays.equals(expected, new SharpenFilter(sharpenKernel, EdgeMode.ZERO, 2,
+          backend).apply(largeImage).getRaster()));
+    }
+  }
+
+  /**
+   * This method is for testing a large kernel applied in the frequency domain
+   * against the same kernel applied tap by tap. The weights are whole numbers,
+   * so truncating every tap loses nothing and the two agree within the
+   * rounding of the frequency domain.
+   */
+  @Test
+  public void testFilterLargeKernelDirectValid() {
+    int imageHeight = 45;
+    int imageWidth = 71;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0x7F7F7F);
+    }
+    Image largeImage = new RgbImage(raster, imageHeight, imageWidth);
+
+    int dimension = 9;
+    float[] kernelValues = new float[dimension * dimension];
+    kernelValues[0] = 1;
+    kernelValues[dimension * dimension / 2] = 1;
+    kernelValues[dimension * dimension - 1] = -1;
+    Kernel largeKernel = new KernelImpl(dimension, kernelValues);
+    assertFalse(largeKernel.isSeparable());
+
+    for (EdgeMode edgeMode : EdgeMode.values()) {
+      int[] frequency = new SharpenFilter(largeKernel, edgeMode, 2).apply(largeImage)
+          .getRaster();
+      int[] direct = new SharpenFilter(largeKernel, edgeMode, 2, ComputeBackend.FIXED_POINT)
+          .apply(largeImage).getRaster();
+      assertWithinLevels(direct, frequency, 1);
+    }
+  }
+
+  /**
+   * This method is for testing the mapping of the pixels outside the image for
+   * every edge mode.
+   */
+  @Test
+  public void testEdgeModeValid() {
+    assertEquals(-1, EdgeMode.ZERO.mapIndex(-1, 5));
+    assertEquals(0, EdgeMode.CLAMP.mapIndex(-3, 5));
+    assertEquals(4, EdgeMode.CLAMP.mapIndex(7, 5));
+    assertEquals(1, EdgeMode.MIRROR.mapIndex(-2, 5));
+    assertEquals(3, EdgeMode.MIRROR.mapIndex(6, 5));
+    assertEquals(4, EdgeMode.WRAP.mapIndex(-1, 5));
+    assertEquals(2, EdgeMode.WRAP.mapIndex(12, 5));
+    assertEquals(2, EdgeMode.MIRROR.mapIndex(2, 5));
+
+    // the filters keep a uniform image the same unless the outside is black.
+    // The intensities are multiples of 16, so no tap of the kernels is
+    // truncated.
+    int[] raster = new int[6 * 8];
+    Arrays.fill(raster, 0x503020);
+    Image uniformImage = new RgbImage(raster, 6, 8);
+    for (EdgeMode edgeMode : new EdgeMode[]{EdgeMode.CLAMP, EdgeMode.MIRROR, EdgeMode.WRAP}) {
+      assertTrue(Arrays.equals(raster, new SharpenFilter(edgeMode).apply(uniformImage)
+          .getRaster()));
+      assertTrue(Arrays.equals(raster, new BlurFilter(edgeMode).apply(uniformImage)
+          .getRaster()));
+    }
+    assertEquals(0x2D1B12, new BlurFilter(EdgeMode.ZERO).apply(uniformImage).getRgb(0, 0));
+  }
+
+  /**
+   * This method is for testing invalid scenario of the parallelism of a filter.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFilterParallelismInValid() {
+    new BlurFilter(kernel, 0);
+  }
+
   /**
    * This method is for testing operation of Image Model .
    * 
@@ -449,6 +1641,69 @@ public class ImageModelTest {
     assertEquals("RgbImage [pixel=3]", image.toString());
   }
 
+  /**
+   * This method is for testing valid scenario of Image from constructor loaded
+   * using the packed raster.
+   */
+  @Test
+  public void testImageRasterValid() {
+    int[] raster = image.getRaster();
+    assertEquals(9, raster.length);
+    // row 2, column 1 has red 2, green 1 and blue 2.
+    assertEquals(0x020102, raster[2 * 3 + 1]);
+
+    Image imageRaster = new RgbImage(raster, 3, 3);
+    assertEquals("RgbImage [pixel=3]", imageRaster.toString());
+    assertEquals(2, imageRaster.getPixelArray()[2][1].getRedColor());
+    assertEquals(1, imageRaster.getPixelArray()[2][1].getGreenColor());
+    assertEquals(2, imageRaster.getPixelArray()[2][1].getBlueColor());
+  }
+
+  /**
+   * This method is for testing invalid scenario of Image from constructor loaded
+   * using the packed raster.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testImageRasterInValidLength() {
+    Image image = new RgbImage(new int[8], 3, 3);
+    assertEquals("RgbImage [pixel=3]", image.toString());
+  }
+
+  /**
+   * This method is for testing the read only view and the row accessors of an
+   * Image.
+   */
+  @Test
+  public void testImageRasterViewValid() {
+    IntBuffer view = image.getRasterView();
+    assertTrue(view.isReadOnly());
+    assertEquals(9, view.remaining());
+    assertEquals(0x020102, view.get(2 * 3 + 1));
+    assertEquals(0x020102, image.getRgb(2, 1));
+
+    int[] row = new int[3];
+    image.getRow(2, row);
+    assertEquals(0x020102, row[1]);
+  }
+
+  /**
+   * This method is for testing invalid scenario of reading a pixel outside the
+   * image.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testImageGetRgbInValid() {
+    image.getRgb(3, 0);
+  }
+
+  /**
+   * This method is for testing invalid scenario of wrapping a raster without
+   * the handoff of an image operator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testImageWrapInValid() {
+    RgbImage.wrap(new int[9], 3, 3, null);
+  }
+
   /**
    * This method is used for testing the closet color from a pixel by using a
    * formula.
@@ -463,6 +1718,213 @@ public class ImageModelTest {
 
   }
 
+  /**
+   * This method is for testing the DMC color index against comparing every
+   * floss by the redmean distance in the order of the map.
+   */
+  @Test
+  public void testDmcColorIndexValid() throws IOException {
+    Map<String, Colour> dmcColorMap = DmcRbcProperties.getInstance().getDmcProperties();
+    DmcColorIndex index = new DmcColorIndex(dmcColorMap);
+    assertEquals(dmcColorMap.size(), index.size());
+    String[] names = dmcColorMap.keySet().toArray(new String[0]);
+    int[] colors = new int[names.length];
+    for (int k = 0; k < names.length; k++) {
+      Colour color = dmcColorMap.get(names[k]);
+      colors[k] = Helper.packColor(color.getRedColor(), color.getGreenColor(),
+          color.getBlueColor());
+    }
+    for (int red = 0; red < 256; red += 15) {
+      for (int green = 0; green < 256; green += 15) {
+        for (int blue = 0; blue < 256; blue += 15) {
+          int rgb = Helper.packColor(red, green, blue);
+          int nearest = 0;
+          for (int k = 1; k < colors.length; k++) {
+            if (Helper.calDistDeltaSquare(rgb, colors[k])
+                < Helper.calDistDeltaSquare(rgb, colors[nearest])) {
+              nearest = k;
+            }
+          }
+          int found = index.findNearest(rgb);
+          assertEquals(names[nearest], index.getName(found));
+          assertEquals(colors[nearest], index.getColor(found));
+        }
+      }
+    }
+
+    // a tie goes to the first floss of the map.
+    Map<String, Colour> tie = new TreeMap<String, Colour>();
+    tie.put("b", new RgbColor(10, 10, 10));
+    tie.put("a", new RgbColor(30, 10, 10));
+    tie.put("c", new RgbColor(10, 10, 10));
+    DmcColorIndex tieIndex = new DmcColorIndex(tie);
+    assertEquals("b", tieIndex.getName(tieIndex.findNearest(0x0A0A0A)));
+    assertEquals(Helper.calDistDeltaSquare(new RgbColor(5, 2, 3), new RgbColor(78, 22, 30)),
+        Helper.calDistDeltaSquare(0x050203, 0x4E161E));
+  }
+
+  /**
+   * This method is for testing that the model copies a pattern of a subclass of
+   * CrossStitchedPattern instead of holding it as it is.
+   */
+  @Test
+  public void testPatternCopyValid() throws ModelValidationException, IOException {
+    int[][][] rgb = new int[20][20][Channel.values().length];
+    for (int i = 0; i < 20; i++) {
+      for (int j = 0; j < 20; j++) {
+        rgb[i][j][Channel.RED.ordinal()] = 12 * i;
+        rgb[i][j][Channel.GREEN.ordinal()] = 12 * j;
+        rgb[i][j][Channel.BLUE.ordinal()] = 100;
+      }
+    }
+    File file = File.createTempFile("pattern", ".png");
+    file.deleteOnExit();
+    ImageUtilities.writeImage(rgb, 20, 20, file.getAbsolutePath());
+    imageModel.readImage(file.getAbsolutePath(), "N");
+    imageModel.pixelate(new PixelateOperator("10"));
+
+    ImagePattern pattern = imageModel.generateImagePattern(new PatternGeneratorImpl("11", 1) {
+      @Override
+      public ImagePattern generateImagePattern(Image image, int pixelation)
+          throws IOException, ModelValidationException {
+        ImagePattern generated = super.generateImagePattern(image, pixelation);
+        return new CrossStitchedPattern(generated.getImageMap(), generated.getLegend(),
+            generated.getPixelArray()) {
+        };
+      }
+    });
+    assertEquals(CrossStitchedPattern.class, pattern.getClass());
+    assertEquals(400, pattern.getRaster().length);
+  }
+
+  /**
+   * This method is for testing that every pixel of a pattern has the color of
+   * its nearest floss, with the flosses of the distinct colors remembered in
+   * parallel bands of rows.
+   */
+  @Test
+  public void testPatternNearestDmcValid() throws ModelValidationException, IOException {
+    int[] raster = new int[40 * 40];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image pixelated = new PixelateOperator("10").apply(new RgbImage(raster, 40, 40));
+    ImagePattern pattern = new PatternGeneratorImpl("11", 1).generateImagePattern(pixelated, 10);
+    ImagePattern parallel = new PatternGeneratorImpl("11", 4)
+        .generateImagePattern(pixelated, 10);
+    assertTrue(Arrays.equals(pattern.getRaster(), parallel.getRaster()));
+    assertEquals(pattern.getLegend(), parallel.getLegend());
+
+    DmcColorIndex index = new DmcColorIndex(DmcRbcProperties.getInstance().getDmcProperties());
+    int[] pixels = pixelated.getRaster();
+    int[] stitched = pattern.getRaster();
+    for (int i = 0; i < pixels.length; i++) {
+      int dmc = index.findNearest(pixels[i]);
+      assertEquals(index.getColor(dmc), stitched[i]);
+      assertTrue(pattern.getLegend().containsKey(index.getName(dmc)));
+    }
+  }
+
+  /**
+   * This method is for testing that a pattern matches every super pixel by the
+   * color of its center pixel and paints the whole super pixel with its floss.
+   */
+  @Test
+  public void testPatternSuperPixelValid() throws ModelValidationException, IOException {
+    int imageHeight = 23;
+    int imageWidth = 22;
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    ImagePattern pattern = new PatternGeneratorImpl("3", 2)
+        .generateImagePattern(new RgbImage(raster, imageHeight, imageWidth), 5);
+    TilingPlan plan = new TilingPlan(imageHeight, imageWidth, 5);
+    assertEquals(plan.getTileRows(), pattern.getHeight());
+    assertEquals(plan.getTileColumns(), pattern.getWidth());
+
+    DmcColorIndex index = new DmcColorIndex(DmcRbcProperties.getInstance().getDmcProperties());
+    int[] stitched = pattern.getRaster();
+    for (int m = 0; m < plan.getTileRows(); m++) {
+      for (int n = 0; n < plan.getTileColumns(); n++) {
+        int dmc = index.findNearest(raster[plan.getCenterRow(m) * imageWidth
+            + plan.getCenterColumn(n)]);
+        SuperPixel superPixel = pattern.getSuperPixel(m, n);
+        assertEquals(index.getName(dmc), superPixel.getDmcColorName());
+        assertEquals(pattern.getLegend().get(index.getName(dmc)), superPixel.getSymbol());
+        assertEquals(plan.getTileHeight(m), superPixel.getSuperPixelHeight());
+        assertEquals(plan.getTileWidth(n), superPixel.getSuperPixelWidth());
+        for (int i = 0; i < plan.getTileHeight(m); i++) {
+          for (int j = 0; j < plan.getTileWidth(n); j++) {
+            assertEquals(index.getColor(dmc), stitched[(plan.getTileRowStart(m) + i)
+                * imageWidth + plan.getTileColumnStart(n) + j]);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is for testing the DMC color index of no flosses.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDmcColorIndexInValid() {
+    new DmcColorIndex(new TreeMap<String, Colour>());
+  }
+
+  /**
+   * This method is for testing that the DMC floss colors are parsed once into
+   * unmodifiable maps and a palette that finds a floss by its name or color.
+   */
+  @Test
+  public void testDmcPaletteValid() throws IOException {
+    DmcRbcProperties properties = DmcRbcProperties.getInstance();
+    assertTrue(properties == DmcRbcProperties.getInstance());
+    assertTrue(properties.getDmcProperties() == properties.getDmcProperties());
+    assertTrue(properties.getPalette() == properties.getPalette());
+
+    Map<String, Colour> dmcColorMap = properties.getDmcProperties();
+    Map<String, String> dmcColorKeyMap = properties.getDmcPropertiesColorKey();
+    DmcPalette palette = properties.getPalette();
+    assertEquals(489, palette.size());
+    assertEquals(dmcColorMap.size(), palette.size());
+    assertEquals(dmcColorMap.size(), palette.getColorIndex().size());
+
+    int floss = 0;
+    for (Map.Entry<String, Colour> entry : dmcColorMap.entrySet()) {
+      Colour color = entry.getValue();
+      int rgb = Helper.packColor(color.getRedColor(), color.getGreenColor(),
+          color.getBlueColor());
+      assertEquals(entry.getKey(), palette.getName(floss));
+      assertEquals(rgb, palette.getColor(floss));
+      assertEquals(floss, palette.indexOfName(entry.getKey()));
+      assertEquals(floss, palette.indexOfColor(rgb));
+      assertEquals(entry.getKey(), dmcColorKeyMap.get(color.getRedColor() + ","
+          + color.getGreenColor() + "," + color.getBlueColor()));
+      floss++;
+    }
+    assertEquals(-1, palette.indexOfName("DMC-none"));
+    assertEquals(-1, palette.indexOfColor(0x010203));
+
+    // the first floss of a color is found by its color.
+    Map<String, Colour> tie = new TreeMap<String, Colour>();
+    tie.put("b", new RgbColor(10, 10, 10));
+    tie.put("a", new RgbColor(30, 10, 10));
+    tie.put("c", new RgbColor(10, 10, 10));
+    DmcPalette tiePalette = new DmcPalette(tie);
+    assertEquals("b", tiePalette.getName(tiePalette.indexOfColor(0x0A0A0A)));
+    assertEquals("a", tiePalette.getName(tiePalette.indexOfColor(0x1E0A0A)));
+  }
+
+  /**
+   * This method is for testing that the parsed DMC floss colors cannot be
+   * modified.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testDmcPropertiesInValid() throws IOException {
+    DmcRbcProperties.getInstance().getDmcProperties().put("DMC-none", new RgbColor(1, 2, 3));
+  }
+
   /**
    * This method is for testing the loading of dmc color for an image pattern.
    */
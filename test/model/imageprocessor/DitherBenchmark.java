@@ -0,0 +1,65 @@
+package model.imageprocessor;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import model.exception.ModelValidationException;
+import model.images.Image;
+import model.images.RgbImage;
+
+/**
+ * This class is the benchmark of the dithering in a wavefront. It dithers a
+ * synthetic image with one thread and with every power of two up to the number
+ * of processors, checks that every result is the same as the serial one and
+ * prints the best time and the speedup of every number of threads.
+ *
+ * <p>Usage: java model.imageprocessor.DitherBenchmark [height] [width] [colors]
+ * [maxThreads]
+ */
+public class DitherBenchmark {
+
+  private static final int RUNS = 5;
+
+  /**
+   * The main method of the benchmark.
+   *
+   * @param args the optional height, width and number of colors of the image and
+   *             the largest number of threads.
+   * @throws ModelValidationException if the number of colors is not valid.
+   * @throws IOException              if the image cannot be read.
+   */
+  public static void main(String[] args) throws ModelValidationException, IOException {
+    int imageHeight = (args.length > 0) ? Integer.parseInt(args[0]) : 3000;
+    int imageWidth = (args.length > 1) ? Integer.parseInt(args[1]) : 4000;
+    String colors = (args.length > 2) ? args[2] : "8";
+
+    int[] raster = new int[imageHeight * imageWidth];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = (int) ((i * 2654435761L) & 0xFFFFFF);
+    }
+    Image image = new RgbImage(raster, imageHeight, imageWidth);
+
+    int[] serial = null;
+    long serialTime = 0;
+    int maxThreads = (args.length > 3) ? Integer.parseInt(args[3])
+        : Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      ImageOperator operator = new ReduceImageEssence(colors, threads);
+      long best = Long.MAX_VALUE;
+      int[] result = null;
+      for (int run = 0; run < RUNS; run++) {
+        long start = System.nanoTime();
+        result = operator.apply(image).getRaster();
+        best = Math.min(best, System.nanoTime() - start);
+      }
+      if (serial == null) {
+        serial = result;
+        serialTime = best;
+      } else if (!Arrays.equals(serial, result)) {
+        throw new IllegalStateException("threads=" + threads + " differs from serial");
+      }
+      System.out.printf("threads=%d time=%dms speedup=%.2f%n", threads, best / 1000000,
+          (double) serialTime / best);
+    }
+  }
+}